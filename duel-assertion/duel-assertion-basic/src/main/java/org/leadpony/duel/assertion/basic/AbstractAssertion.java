@@ -24,6 +24,11 @@ import org.opentest4j.AssertionFailedError;
  */
 abstract class AbstractAssertion implements Assertion {
 
+    @Override
+    public boolean requiresByteArray() {
+        return false;
+    }
+
     protected static void fail(String message, Object expected, Object actual) {
         throw new AssertionFailedError(message, expected, actual);
     }
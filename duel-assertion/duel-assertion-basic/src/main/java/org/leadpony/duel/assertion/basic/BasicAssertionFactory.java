@@ -16,6 +16,7 @@
 
 package org.leadpony.duel.assertion.basic;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -30,9 +31,11 @@ import javax.json.JsonValue.ValueType;
 import javax.json.spi.JsonProvider;
 
 import org.leadpony.duel.core.api.CaseNode;
+import org.leadpony.duel.core.api.Durations;
 import org.leadpony.duel.core.api.ExecutionContext;
 import org.leadpony.duel.core.spi.Assertion;
 import org.leadpony.duel.core.spi.AssertionFactory;
+import org.opentest4j.IncompleteExecutionException;
 
 /**
  * A factory of basic assertions.
@@ -84,6 +87,11 @@ class BasicAssertionFactory implements AssertionFactory {
                     addJsonBodyAssertions(node, value.asJsonObject(), assertions);
                 }
                 break;
+            case "time":
+                if (value.getValueType() == ValueType.OBJECT) {
+                    addResponseTimeAssertions(value.asJsonObject(), ResponseTimeAssertion.Phase.BODY, assertions);
+                }
+                break;
             default:
                 break;
             }
@@ -98,7 +106,7 @@ class BasicAssertionFactory implements AssertionFactory {
             break;
         case STRING:
             JsonString string = (JsonString) config;
-            int status = Integer.valueOf(string.getString());
+            int status = Integer.parseInt(string.getString());
             assertions.add(new SimpleStatusAssertion(status));
             break;
         default:
@@ -125,6 +133,34 @@ class BasicAssertionFactory implements AssertionFactory {
         assertions.add(new RequiredHeaderAssertion(names));
     }
 
+    private void addResponseTimeAssertions(JsonObject config, ResponseTimeAssertion.Phase phase,
+            Collection<Assertion> assertions) {
+        config.forEach((key, value) -> {
+            switch (key) {
+            case "max":
+                assertions.add(new ResponseTimeAssertion(phase, parseDuration(value)));
+                break;
+            case "headers":
+                if (phase == ResponseTimeAssertion.Phase.BODY && value.getValueType() == ValueType.OBJECT) {
+                    addResponseTimeAssertions(value.asJsonObject(), ResponseTimeAssertion.Phase.HEADERS, assertions);
+                }
+                break;
+            default:
+                break;
+            }
+        });
+    }
+
+    /**
+     * Parses the duration such as {@code "250ms"} or {@code "2s"}.
+     *
+     * @throws IncompleteExecutionException if the value is not a duration.
+     */
+    private static Duration parseDuration(JsonValue value) {
+        return Durations.parse(value).orElseThrow(
+                () -> new IncompleteExecutionException(Message.thatResponseTimeIsInvalid(value)));
+    }
+
     private void addJsonBodyAssertions(CaseNode node, JsonObject body, Collection<Assertion> assertions) {
         for (var entry : body.entrySet()) {
             switch (entry.getKey()) {
@@ -57,6 +57,18 @@ final class Message {
         return format("HeaderFieldsAreMissing", name);
     }
 
+    public static String thatResponseTimeExceeded(long expected, long actual) {
+        return format("ResponseTimeExceeded", expected, actual);
+    }
+
+    public static String thatTimeToHeadersExceeded(long expected, long actual) {
+        return format("TimeToHeadersExceeded", expected, actual);
+    }
+
+    public static String thatResponseTimeIsInvalid(JsonValue value) {
+        return format("ResponseTimeIsInvalid", value);
+    }
+
     public static String thatJsonBodyDoesNotMatch(String detail) {
         return format("JsonBodyDoesNotMatch", detail);
     }
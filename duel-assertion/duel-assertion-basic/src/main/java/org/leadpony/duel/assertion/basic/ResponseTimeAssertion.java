@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.assertion.basic;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import org.leadpony.duel.core.spi.ResponseBody;
+import org.leadpony.duel.core.spi.ResponseTiming;
+
+/**
+ * An assertion on the maximum time taken to receive the response.
+ *
+ * @author leadpony
+ */
+class ResponseTimeAssertion extends AbstractAssertion {
+
+    /**
+     * The phases of the response to be timed.
+     *
+     * @author leadpony
+     */
+    enum Phase {
+        HEADERS,
+        BODY;
+
+        Duration getTime(ResponseTiming timing) {
+            return (this == HEADERS) ? timing.getTimeToHeaders() : timing.getTimeToBody();
+        }
+    }
+
+    private final Phase phase;
+    private final Duration max;
+
+    ResponseTimeAssertion(Phase phase, Duration max) {
+        this.phase = phase;
+        this.max = max;
+    }
+
+    @Override
+    public void assertOn(HttpResponse<ResponseBody> response) {
+        Duration actual = phase.getTime(response.body().getTiming());
+        if (actual.compareTo(max) > 0) {
+            fail(buildMessage(actual), max, actual);
+        }
+    }
+
+    private String buildMessage(Duration actual) {
+        if (phase == Phase.HEADERS) {
+            return Message.thatTimeToHeadersExceeded(max.toMillis(), actual.toMillis());
+        }
+        return Message.thatResponseTimeExceeded(max.toMillis(), actual.toMillis());
+    }
+}
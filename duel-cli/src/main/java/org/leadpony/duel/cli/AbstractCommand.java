@@ -16,10 +16,46 @@
 
 package org.leadpony.duel.cli;
 
+import java.io.PrintWriter;
+
+import org.leadpony.duel.core.api.Problem;
+import org.leadpony.duel.core.api.TestLoadingException;
+
 /**
  * @author leadpony
  */
 abstract class AbstractCommand {
 
+    static final int SUCCEEDED = 0;
     static final int FAILED = 2;
+
+    private final Console console;
+
+    AbstractCommand(Console console) {
+        this.console = console;
+    }
+
+    Console getConsole() {
+        return console;
+    }
+
+    int fail(String message) {
+        console.getErrorWriter().println("[ERROR] " + message);
+        return FAILED;
+    }
+
+    int fail(TestLoadingException e) {
+        PrintWriter err = console.getErrorWriter();
+        err.println(e.getMessage());
+        StringBuilder builder = new StringBuilder();
+        for (Problem problem : e.getProblems()) {
+            builder.setLength(0);
+            problem.getPath().ifPresent(path -> {
+                builder.append(path.toString()).append(": ");
+            });
+            builder.append(problem.getDescription());
+            err.println(builder.toString());
+        }
+        return FAILED;
+    }
 }
@@ -78,6 +78,8 @@ public class DuelCommand implements Callable<Integer> {
         CommandLine commandLine = new CommandLine(this)
                 .addSubcommand(new CommandLine.HelpCommand())
                 .addSubcommand(new TestCommand(console))
+                .addSubcommand(new PackCommand(console))
+                .addSubcommand(new LoadCommand(console))
                 .setResourceBundle(getResourceBundle())
                 .setOut(out)
                 .setErr(err);
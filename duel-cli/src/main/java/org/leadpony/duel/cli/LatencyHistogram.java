@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.cli;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies with high dynamic range.
+ * <p>
+ * The values are recorded in microseconds into log-linear buckets, that is,
+ * each power of two is divided into {@value #SUB_BUCKETS} linear buckets.
+ * The relative error of any reported value is therefore less than 1%
+ * from 1 microsecond up to the highest trackable value, while the memory
+ * used does not depend on the number of the recorded values.
+ * The values may be recorded concurrently from multiple threads.
+ * </p>
+ *
+ * @author leadpony
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The highest trackable value in microseconds, which is one hour.
+     */
+    static final long HIGHEST_TRACKABLE_VALUE = 3_600_000_000L;
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(HIGHEST_TRACKABLE_VALUE) + 1);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records the value.
+     *
+     * @param micros the value in microseconds, the negative value is recorded as 0.
+     */
+    void record(long micros) {
+        long value = Math.max(micros, 0);
+        counts.incrementAndGet(indexOf(Math.min(value, HIGHEST_TRACKABLE_VALUE)));
+        totalCount.incrementAndGet();
+        maxValue.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Adds all the values recorded in the other histogram to this histogram.
+     *
+     * @param other the histogram to add.
+     */
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.addAndGet(other.getTotalCount());
+        maxValue.accumulateAndGet(other.getMaxValue(), Math::max);
+    }
+
+    long getTotalCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Returns the maximum value recorded.
+     *
+     * @return the exact maximum value in microseconds, or 0 if empty.
+     */
+    long getMaxValue() {
+        return maxValue.get();
+    }
+
+    /**
+     * Returns the value at the specified percentile.
+     *
+     * @param percentile the percentile between 0 and 100.
+     * @return the highest value equivalent to the value at the percentile
+     *         in microseconds, or 0 if empty.
+     */
+    long getValueAtPercentile(double percentile) {
+        long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        double ratio = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+        long threshold = Math.max((long) Math.ceil(ratio * total), 1);
+        long accumulated = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            accumulated += counts.get(i);
+            if (accumulated >= threshold) {
+                return Math.min(highestEquivalentValue(i), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    /**
+     * Returns the index of the bucket for the value.
+     * The values less than {@code 2 * SUB_BUCKETS} have their own buckets.
+     */
+    static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long lowestEquivalentValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return (long) (index - shift * SUB_BUCKETS) << shift;
+    }
+
+    static long highestEquivalentValue(int index) {
+        return lowestEquivalentValue(index + 1) - 1;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.cli;
+
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.leadpony.duel.core.api.CaseExecution;
+import org.leadpony.duel.core.api.GroupExecution;
+import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.TestLoader;
+import org.leadpony.duel.core.api.TestLoadingException;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * A subcommand "load"
+ *
+ * @author leadpony
+ */
+@Command(name = "load")
+class LoadCommand extends AbstractCommand implements Callable<Integer> {
+
+    static final int ERRORS_FOUND = 1;
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final String ROW_FORMAT = "%-32s %9s %7s %9s %9s %9s %9s %9s%n";
+
+    private Path path;
+    private double rate;
+    private Duration duration = Duration.ofSeconds(10);
+    private Duration rampUp = Duration.ZERO;
+    private double sampling = 1.0;
+    private int maxInFlight;
+
+    @Option(names = {"--include"},
+            paramLabel = "GLOB")
+    private List<String> includedPaths = new ArrayList<>();
+
+    @Option(names = {"--exclude"},
+            paramLabel = "GLOB")
+    private List<String> excludedPaths = new ArrayList<>();
+
+    @Option(names = {"--name"},
+            paramLabel = "PATTERN")
+    private List<String> names = new ArrayList<>();
+
+    @Option(names = {"--tag"},
+            paramLabel = "TAG")
+    private List<String> tags = new ArrayList<>();
+
+    @Option(names = {"--exclude-tag"},
+            paramLabel = "TAG")
+    private List<String> excludedTags = new ArrayList<>();
+
+    LoadCommand(Console console) {
+        super(console);
+        this.path = Path.of(System.getProperty("user.dir"));
+    }
+
+    @Option(names = {"-p", "--path"},
+            paramLabel = "DIRECTORY")
+    public void setPath(Path path) {
+        this.path = path;
+    }
+
+    @Option(names = {"--rate"},
+            paramLabel = "REQUESTS",
+            required = true)
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    @Option(names = {"--duration"},
+            paramLabel = "DURATION",
+            converter = DurationConverter.class)
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    @Option(names = {"--ramp-up"},
+            paramLabel = "DURATION",
+            converter = DurationConverter.class)
+    public void setRampUp(Duration rampUp) {
+        this.rampUp = rampUp;
+    }
+
+    @Option(names = {"--sample-assertions"},
+            paramLabel = "RATIO")
+    public void setSampling(double sampling) {
+        this.sampling = sampling;
+    }
+
+    @Option(names = {"--max-in-flight"},
+            paramLabel = "REQUESTS")
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        if (!(rate > 0)) {
+            return fail("--rate must be greater than 0.");
+        }
+        if (duration.isNegative() || rampUp.isNegative()) {
+            return fail("--duration and --ramp-up must not be negative.");
+        }
+        if (!(sampling >= 0 && sampling <= 1)) {
+            return fail("--sample-assertions must be between 0 and 1.");
+        }
+        if (maxInFlight < 0) {
+            return fail("--max-in-flight must not be negative.");
+        }
+        try {
+            GroupNode root = createLoader().load();
+            List<CaseExecution> cases = new ArrayList<>();
+            collectTestCases(root.createExecution(), cases);
+            if (cases.isEmpty()) {
+                return fail("No test cases found.");
+            }
+            LoadGenerator generator = new LoadGenerator(cases, rate, rampUp, duration, sampling, maxInFlight);
+            long started = System.nanoTime();
+            List<LoadGenerator.Statistics> statistics = generator.run();
+            long elapsed = System.nanoTime() - started;
+            return report(root, statistics, elapsed);
+        } catch (TestLoadingException e) {
+            return fail(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fail("Interrupted.");
+        }
+    }
+
+    private static void collectTestCases(GroupExecution group, List<CaseExecution> found) {
+        group.testCases().forEach(found::add);
+        group.subgroups().forEach(subgroup -> collectTestCases(subgroup, found));
+    }
+
+    private int report(GroupNode root, List<LoadGenerator.Statistics> statistics, long elapsedNanos) {
+        PrintWriter out = getConsole().getOutputWriter();
+        out.printf(ROW_FORMAT, "Test case", "Requests", "Errors",
+                "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        LatencyHistogram total = new LatencyHistogram();
+        LatencyHistogram uncorrected = new LatencyHistogram();
+        long requests = 0;
+        long errors = 0;
+        long failures = 0;
+        long timeouts = 0;
+        for (LoadGenerator.Statistics s : statistics) {
+            Path relative = root.getNodePath().relativize(s.getExecution().getNode().getNodePath());
+            printRow(out, relative.toString().replace('\\', '/'), s.getRequests(), s.getErrors(), s.getLatencies());
+            total.add(s.getLatencies());
+            uncorrected.add(s.getUncorrectedLatencies());
+            requests += s.getRequests();
+            errors += s.getErrors();
+            failures += s.getFailures();
+            timeouts += s.getTimeouts();
+        }
+        printRow(out, "Total", requests, errors, total);
+        printRow(out, "Total (uncorrected)", requests, errors, uncorrected);
+        out.println();
+        out.println("Latencies are measured from the intended start times of the requests.");
+        out.println("The uncorrected latencies are measured from the actual start times.");
+        double seconds = elapsedNanos / 1e9;
+        out.printf("Throughput: %.1f requests/s (target %.1f requests/s)%n", requests / seconds, rate);
+        out.printf("Error rate: %.2f%% (%d failed assertions, %d timed out, %d incomplete)%n",
+                (requests > 0) ? 100.0 * errors / requests : 0.0, failures, timeouts,
+                errors - failures - timeouts);
+        out.flush();
+        return (errors > 0) ? ERRORS_FOUND : SUCCEEDED;
+    }
+
+    private static void printRow(PrintWriter out, String name, long requests, long errors,
+            LatencyHistogram latencies) {
+        Object[] columns = new Object[3 + PERCENTILES.length + 1];
+        columns[0] = name;
+        columns[1] = String.valueOf(requests);
+        columns[2] = String.valueOf(errors);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            columns[3 + i] = formatMillis(latencies.getValueAtPercentile(PERCENTILES[i]));
+        }
+        columns[columns.length - 1] = formatMillis(latencies.getMaxValue());
+        out.printf(ROW_FORMAT, columns);
+    }
+
+    private static String formatMillis(long micros) {
+        return String.format("%.3f", micros / 1000.0);
+    }
+
+    private TestLoader createLoader() {
+        return TestLoader.newLoader(this.path)
+                .withIncludedPaths(this.includedPaths)
+                .withExcludedPaths(this.excludedPaths)
+                .withNames(this.names)
+                .withTags(this.tags)
+                .withExcludedTags(this.excludedTags);
+    }
+}
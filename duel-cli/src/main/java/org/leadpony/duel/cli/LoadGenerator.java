@@ -0,0 +1,283 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.cli;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.leadpony.duel.core.api.CaseExecution;
+import org.leadpony.duel.core.api.ExecutionTimedOutException;
+import org.opentest4j.IncompleteExecutionException;
+
+/**
+ * A generator of load which sends the requests of the test cases at a target
+ * arrival rate.
+ * <p>
+ * The generator follows an open model, that is, the requests are started
+ * on schedule regardless of how long the previous requests take. The arrival
+ * rate increases linearly from 0 during the ramp-up period, and then is held
+ * for the specified duration. The test cases are started in round-robin order.
+ * </p>
+ * <p>
+ * The latency of each request is measured from the time when the request
+ * was intended to start by the schedule, not from when it was actually
+ * started. Otherwise any delay of the generator itself, for example while
+ * waiting for the requests in flight to complete, would hide the latencies
+ * which the requests would have experienced, that is, the coordinated
+ * omission. The latencies measured from the actual start are also recorded
+ * for comparison.
+ * </p>
+ *
+ * @author leadpony
+ */
+class LoadGenerator {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<CaseExecution> cases;
+    private final double rate;
+    private final double rampUp;
+    private final double duration;
+    private final double sampling;
+    private final Semaphore inFlight;
+
+    /**
+     * Constructs this generator.
+     *
+     * @param cases    the test cases to execute.
+     * @param rate     the target arrival rate in requests per second.
+     * @param rampUp   the period in which the rate increases.
+     * @param duration the period in which the target rate is held.
+     * @param sampling the ratio of the requests validated by the assertions,
+     *                 between 0 and 1.
+     * @param maxInFlight the maximum number of the requests in flight,
+     *                    0 means unlimited.
+     */
+    LoadGenerator(List<CaseExecution> cases, double rate, Duration rampUp, Duration duration, double sampling,
+            int maxInFlight) {
+        this.cases = cases;
+        this.rate = rate;
+        this.rampUp = toSeconds(rampUp);
+        this.duration = toSeconds(duration);
+        this.sampling = sampling;
+        this.inFlight = (maxInFlight > 0) ? new Semaphore(maxInFlight) : null;
+    }
+
+    /**
+     * Generates the load and waits until all the requests are completed.
+     *
+     * @return the statistics of each test case, in the same order as the test cases.
+     * @throws InterruptedException if the current thread was interrupted.
+     */
+    List<Statistics> run() throws InterruptedException {
+        List<Statistics> statistics = new ArrayList<>();
+        for (CaseExecution execution : cases) {
+            statistics.add(new Statistics(execution));
+        }
+        if (statistics.isEmpty()) {
+            return statistics;
+        }
+
+        AtomicLong pending = new AtomicLong(1);
+        CompletableFuture<Void> drained = new CompletableFuture<>();
+        long start = System.nanoTime();
+        for (long n = 0;; n++) {
+            double offset = scheduleOf(n);
+            if (offset >= rampUp + duration) {
+                break;
+            }
+            long intended = start + (long) (offset * NANOS_PER_SECOND);
+            waitUntil(intended);
+            if (inFlight != null) {
+                inFlight.acquire();
+            }
+            Statistics target = statistics.get((int) (n % statistics.size()));
+            pending.incrementAndGet();
+            target.start(intended).whenComplete((result, thrown) -> {
+                if (inFlight != null) {
+                    inFlight.release();
+                }
+                if (pending.decrementAndGet() == 0) {
+                    drained.complete(null);
+                }
+            });
+        }
+        if (pending.decrementAndGet() == 0) {
+            drained.complete(null);
+        }
+        try {
+            drained.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        return Collections.unmodifiableList(statistics);
+    }
+
+    /**
+     * Returns the time when the request should be started.
+     * <p>
+     * The number of arrivals until time {@code t} is
+     * {@code rate * t^2 / (2 * rampUp)} in the ramp-up period,
+     * and grows by {@code rate * t} after that.
+     * </p>
+     *
+     * @param n the zero-based index of the request.
+     * @return the offset from the start in seconds.
+     */
+    private double scheduleOf(long n) {
+        double rampUpArrivals = rate * rampUp / 2;
+        if (n < rampUpArrivals) {
+            return Math.sqrt(2 * n * rampUp / rate);
+        }
+        return rampUp + (n - rampUpArrivals) / rate;
+    }
+
+    private static void waitUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private static double toSeconds(Duration duration) {
+        return duration.toNanos() / (double) NANOS_PER_SECOND;
+    }
+
+    /**
+     * The statistics of a test case.
+     *
+     * @author leadpony
+     */
+    class Statistics {
+
+        private final CaseExecution execution;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LatencyHistogram uncorrectedLatencies = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private long requests;
+
+        Statistics(CaseExecution execution) {
+            this.execution = execution;
+        }
+
+        CaseExecution getExecution() {
+            return execution;
+        }
+
+        long getRequests() {
+            return requests;
+        }
+
+        /**
+         * Returns the number of the requests which failed, including
+         * the requests which did not receive any responses.
+         *
+         * @return the number of the failed requests.
+         */
+        long getErrors() {
+            return errors.get();
+        }
+
+        /**
+         * Returns the number of the requests which failed the assertions.
+         *
+         * @return the number of the requests failed the assertions.
+         */
+        long getFailures() {
+            return failures.get();
+        }
+
+        /**
+         * Returns the number of the requests which timed out.
+         *
+         * @return the number of the timed out requests.
+         */
+        long getTimeouts() {
+            return timeouts.get();
+        }
+
+        /**
+         * Returns the latencies measured from the intended start times.
+         *
+         * @return the histogram of the corrected latencies.
+         */
+        LatencyHistogram getLatencies() {
+            return latencies;
+        }
+
+        /**
+         * Returns the latencies measured from the actual start times,
+         * which do not include the delays of the generator.
+         *
+         * @return the histogram of the uncorrected latencies.
+         */
+        LatencyHistogram getUncorrectedLatencies() {
+            return uncorrectedLatencies;
+        }
+
+        private CompletionStage<Void> start(long intended) {
+            boolean sampled = isSampled(requests++);
+            long started = System.nanoTime();
+            CompletionStage<Void> stage = sampled ? execution.runAsync() : execution.sendAsync();
+            return stage.whenComplete((result, thrown) -> {
+                long completed = System.nanoTime();
+                if (thrown == null) {
+                    record(intended, started, completed);
+                    return;
+                }
+                errors.incrementAndGet();
+                Throwable cause = (thrown instanceof CompletionException && thrown.getCause() != null)
+                        ? thrown.getCause() : thrown;
+                if (cause instanceof ExecutionTimedOutException) {
+                    timeouts.incrementAndGet();
+                } else if (!(cause instanceof IncompleteExecutionException)) {
+                    // The response was received but did not pass the assertions.
+                    failures.incrementAndGet();
+                    record(intended, started, completed);
+                }
+            });
+        }
+
+        private void record(long intended, long started, long completed) {
+            latencies.record(TimeUnit.NANOSECONDS.toMicros(completed - intended));
+            uncorrectedLatencies.record(TimeUnit.NANOSECONDS.toMicros(completed - started));
+        }
+
+        /**
+         * Determines whether the request is validated or not,
+         * spreading the sampled requests evenly.
+         */
+        private boolean isSampled(long n) {
+            return Math.floor((n + 1) * sampling) > Math.floor(n * sampling);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.cli;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.TestLoader;
+import org.leadpony.duel.core.api.TestLoadingException;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * A subcommand "pack"
+ *
+ * @author leadpony
+ */
+@Command(name = "pack")
+class PackCommand extends AbstractCommand implements Callable<Integer> {
+
+    private Path path;
+    private Path output;
+    private int loadParallelism = 1;
+
+    PackCommand(Console console) {
+        super(console);
+        this.path = Path.of(System.getProperty("user.dir"));
+    }
+
+    @Option(names = {"-p", "--path"},
+            paramLabel = "DIRECTORY")
+    public void setPath(Path path) {
+        this.path = path;
+    }
+
+    @Option(names = {"-o", "--output"},
+            paramLabel = "FILE")
+    public void setOutput(Path output) {
+        this.output = output;
+    }
+
+    @Option(names = {"--load-parallelism"},
+            paramLabel = "THREADS")
+    public void setLoadParallelism(int loadParallelism) {
+        this.loadParallelism = loadParallelism;
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        try {
+            GroupNode root = TestLoader.newLoader(this.path)
+                    .withParallelism(this.loadParallelism)
+                    .load();
+            Path file = (output != null) ? output : defaultOutput(root);
+            TestLoader.writeBundle(root, file);
+            getConsole().getOutputWriter().println("Packed the tests into " + file);
+            return SUCCEEDED;
+        } catch (TestLoadingException e) {
+            return fail(e);
+        } catch (IOException e) {
+            return fail(e.getMessage());
+        }
+    }
+
+    private static Path defaultOutput(GroupNode root) {
+        Path dir = root.getNodePath().toAbsolutePath().normalize();
+        return Path.of(dir.getFileName() + TestLoader.BUNDLE_FILE_EXTENSION);
+    }
+}
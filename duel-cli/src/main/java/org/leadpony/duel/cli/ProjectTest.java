@@ -16,6 +16,15 @@
 
 package org.leadpony.duel.cli;
 
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.DisplayName;
@@ -25,8 +34,11 @@ import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.TestFactory;
 import org.junit.jupiter.api.function.Executable;
 import org.leadpony.duel.core.api.CaseExecution;
+import org.leadpony.duel.core.api.Execution;
+import org.leadpony.duel.core.api.ExecutionTimedOutException;
 import org.leadpony.duel.core.api.GroupExecution;
 import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.Node;
 import org.opentest4j.AssertionFailedError;
 
 /**
@@ -37,6 +49,9 @@ public class ProjectTest {
     private static final StackTraceElement[] EMPTY_STACK_TRACE = new StackTraceElement[0];
 
     private static final ThreadLocal<GroupNode> ROOTS = new ThreadLocal<>();
+    private static final ThreadLocal<Set<Node>> SELECTIONS = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> CONCURRENCIES = new ThreadLocal<>();
+    private static final ThreadLocal<Duration> TIME_LIMITS = new ThreadLocal<>();
 
     static GroupNode getRootGroup() {
         return ROOTS.get();
@@ -46,33 +61,101 @@ public class ProjectTest {
         ROOTS.set(root);
     }
 
+    /**
+     * Selects the nodes to run.
+     *
+     * @param nodes the test cases to run and all of their ancestor groups,
+     *              or {@code null} to run all nodes.
+     */
+    static void setSelectedNodes(Set<Node> nodes) {
+        SELECTIONS.set(nodes);
+    }
+
+    /**
+     * Specifies the maximum number of the test cases executed concurrently.
+     *
+     * @param concurrency the maximum number of the concurrent test cases,
+     *                    or {@code null} to use the value configured in the project.
+     */
+    static void setConcurrency(Integer concurrency) {
+        CONCURRENCIES.set(concurrency);
+    }
+
+    /**
+     * Specifies the time limit of the whole run.
+     * <p>
+     * The test cases not completed before the deadline fail with
+     * {@link ExecutionTimedOutException}, and the remaining test cases are
+     * not started.
+     * </p>
+     *
+     * @param timeLimit the time limit measured from the start of the run,
+     *                  or {@code null} for no limit.
+     */
+    static void setTimeLimit(Duration timeLimit) {
+        TIME_LIMITS.set(timeLimit);
+    }
+
     @TestFactory
     @DisplayName("root")
     public Stream<DynamicNode> root() {
         GroupNode root = getRootGroup();
         GroupExecution execution = root.createExecution();
-        return Stream.of(createContainer(execution));
+        Deadline deadline = Deadline.after(TIME_LIMITS.get());
+        int concurrency = getConcurrency(root);
+        // The test cases run on the current thread even if virtual threads are requested.
+        if (concurrency <= 1) {
+            Function<CaseExecution, Executable> launcher = (deadline != null)
+                    ? testCase -> executable(testCase, deadline)
+                    : ProjectTest::executable;
+            return Stream.of(createContainer(execution, launcher, false));
+        }
+        ExecutorService executor = execution.createExecutorService(concurrency);
+        try {
+            // All of the test cases are submitted before the first one is reported.
+            return Stream.of(createContainer(execution, testCase -> submit(testCase, executor, deadline), true));
+        } finally {
+            // The submitted test cases are still executed.
+            executor.shutdown();
+        }
+    }
+
+    private static int getConcurrency(GroupNode root) {
+        Integer concurrency = CONCURRENCIES.get();
+        return (concurrency != null) ? concurrency : root.getConcurrency();
     }
 
-    private static DynamicTest createTest(CaseExecution testCase) {
+    private static DynamicTest createTest(CaseExecution testCase,
+            Function<CaseExecution, Executable> launcher) {
         return DynamicTest.dynamicTest(
-                testCase.getName(), executable(testCase));
+                testCase.getName(), launcher.apply(testCase));
     }
 
-    private static DynamicContainer createContainer(GroupExecution group) {
-        return DynamicContainer.dynamicContainer(
-                group.getName(),
-                createStream(group));
+    private static DynamicContainer createContainer(GroupExecution group,
+            Function<CaseExecution, Executable> launcher, boolean eager) {
+        Stream<DynamicNode> children = createStream(group, launcher, eager);
+        if (eager) {
+            children = children.collect(Collectors.toList()).stream();
+        }
+        return DynamicContainer.dynamicContainer(group.getName(), children);
     }
 
-    private static Stream<DynamicNode> createStream(GroupExecution group) {
+    private static Stream<DynamicNode> createStream(GroupExecution group,
+            Function<CaseExecution, Executable> launcher, boolean eager) {
+        final Set<Node> selected = SELECTIONS.get();
         Stream<DynamicNode> cases = group.testCases()
-                .map(ProjectTest::createTest);
+                .filter(execution -> isSelected(execution, selected))
+                .map(execution -> createTest(execution, launcher));
         Stream<DynamicNode> groups = group.subgroups()
-                .map(ProjectTest::createContainer);
+                .filter(execution -> isSelected(execution, selected))
+                .map(execution -> createContainer(execution, launcher, eager));
         return Stream.concat(cases, groups);
     }
 
+    private static boolean isSelected(Execution execution, Set<Node> selected) {
+        return selected == null || selected.contains(execution.getNode());
+    }
+
     private static Executable executable(CaseExecution execution) {
         return () -> {
             try {
@@ -83,4 +166,91 @@ public class ProjectTest {
             }
         };
     }
+
+    /**
+     * Creates the executable which runs the test case until the deadline.
+     *
+     * @param execution the execution of the test case.
+     * @param deadline  the deadline of the run.
+     * @return the executable which runs the test case.
+     */
+    private static Executable executable(CaseExecution execution, Deadline deadline) {
+        return () -> {
+            deadline.check();
+            await(execution.runAsync().toCompletableFuture(), deadline);
+        };
+    }
+
+    /**
+     * Submits the test case to the executor.
+     *
+     * @param execution the execution of the test case.
+     * @param executor  the executor running the test cases.
+     * @param deadline  the deadline of the run, may be {@code null}.
+     * @return the executable which waits for the test case to complete and reports the result.
+     */
+    private static Executable submit(CaseExecution execution, ExecutorService executor, Deadline deadline) {
+        Future<?> future = executor.submit(() -> {
+            if (deadline != null) {
+                deadline.check();
+            }
+            execution.run();
+            return null;
+        });
+        return () -> await(future, deadline);
+    }
+
+    private static void await(Future<?> future, Deadline deadline) throws Throwable {
+        try {
+            if (deadline != null) {
+                future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+            } else {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AssertionFailedError) {
+                cause.setStackTrace(EMPTY_STACK_TRACE);
+            }
+            throw cause;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw deadline.exceeded();
+        }
+    }
+
+    /**
+     * The deadline of a run.
+     *
+     * @author leadpony
+     */
+    private static final class Deadline {
+
+        private final Duration timeLimit;
+        private final long nanoTime;
+
+        private Deadline(Duration timeLimit) {
+            this.timeLimit = timeLimit;
+            this.nanoTime = System.nanoTime() + timeLimit.toNanos();
+        }
+
+        static Deadline after(Duration timeLimit) {
+            return (timeLimit != null) ? new Deadline(timeLimit) : null;
+        }
+
+        long remainingNanos() {
+            return nanoTime - System.nanoTime();
+        }
+
+        void check() {
+            if (remainingNanos() <= 0) {
+                throw exceeded();
+            }
+        }
+
+        ExecutionTimedOutException exceeded() {
+            return new ExecutionTimedOutException(
+                    "The run did not complete within " + timeLimit.toMillis() + " ms.");
+        }
+    }
 }
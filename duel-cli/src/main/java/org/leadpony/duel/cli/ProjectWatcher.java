@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.cli;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A watcher of the files in a project.
+ *
+ * @author leadpony
+ */
+class ProjectWatcher implements Closeable {
+
+    /**
+     * The period in milliseconds to wait for the subsequent events,
+     * because saving a file often fires multiple events.
+     */
+    private static final long QUIET_PERIOD = 200;
+
+    private static final String JSON_SUFFIX = ".json";
+
+    private final WatchService service;
+    private final Map<WatchKey, Path> dirs = new HashMap<>();
+
+    /**
+     * Starts watching the directory and all of its descendants.
+     *
+     * @param rootDir the root directory of the project.
+     * @throws IOException if an I/O error occurred.
+     */
+    ProjectWatcher(Path rootDir) throws IOException {
+        this.service = rootDir.getFileSystem().newWatchService();
+        try {
+            registerAll(rootDir);
+        } catch (IOException e) {
+            service.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until any files are changed.
+     *
+     * @return the paths of the changed files and directories.
+     * @throws InterruptedException if interrupted while waiting.
+     * @throws IOException          if an I/O error occurred.
+     */
+    Set<Path> take() throws InterruptedException, IOException {
+        Set<Path> changed = new LinkedHashSet<>();
+        while (changed.isEmpty()) {
+            WatchKey key = service.take();
+            while (key != null) {
+                collectChanges(key, changed);
+                key = service.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+
+    private void collectChanges(WatchKey key, Set<Path> changed) throws IOException {
+        Path dir = dirs.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null) {
+                break;
+            }
+            if (event.kind() == OVERFLOW) {
+                // Some events were lost.
+                addAll(dir, changed);
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                // The files may be created before the directory is registered.
+                registerAll(path);
+                addAll(path, changed);
+            } else if (event.kind() == ENTRY_DELETE || isConfigFile(path)) {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            dirs.remove(key);
+        }
+    }
+
+    private void registerAll(Path rootDir) throws IOException {
+        Files.walkFileTree(rootDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(rootDir) && isHidden(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey key = dir.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                dirs.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void addAll(Path dir, Set<Path> changed) throws IOException {
+        changed.add(dir);
+        try (Stream<Path> stream = Files.walk(dir)) {
+            stream.filter(ProjectWatcher::isConfigFile).forEach(changed::add);
+        }
+    }
+
+    private static boolean isConfigFile(Path path) {
+        return path.getFileName().toString().endsWith(JSON_SUFFIX);
+    }
+
+    /**
+     * Checks whether the directory is hidden, such as {@code .duel} or {@code .git}.
+     */
+    private static boolean isHidden(Path dir) {
+        return dir.getFileName().toString().startsWith(".");
+    }
+}
@@ -16,14 +16,23 @@
 
 package org.leadpony.duel.cli;
 
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.spi.ToolProvider;
 
+import org.leadpony.duel.core.api.CaseNode;
 import org.leadpony.duel.core.api.GroupNode;
-import org.leadpony.duel.core.api.Problem;
+import org.leadpony.duel.core.api.Node;
 import org.leadpony.duel.core.api.TestLoadingException;
 import org.leadpony.duel.core.api.TestLoader;
 
@@ -43,11 +52,36 @@ class TestCommand extends AbstractCommand implements Callable<Integer> {
             "-c=" + ProjectTest.class.getName()
     };
 
-    private final Console console;
     private Path path;
+    private Path bundle;
+    private int loadParallelism = 1;
+    private boolean cache;
+    private boolean watch;
+    private Integer parallel;
+    private Duration deadline;
+
+    @Option(names = {"--include"},
+            paramLabel = "GLOB")
+    private List<String> includedPaths = new ArrayList<>();
+
+    @Option(names = {"--exclude"},
+            paramLabel = "GLOB")
+    private List<String> excludedPaths = new ArrayList<>();
+
+    @Option(names = {"--name"},
+            paramLabel = "PATTERN")
+    private List<String> names = new ArrayList<>();
+
+    @Option(names = {"--tag"},
+            paramLabel = "TAG")
+    private List<String> tags = new ArrayList<>();
+
+    @Option(names = {"--exclude-tag"},
+            paramLabel = "TAG")
+    private List<String> excludedTags = new ArrayList<>();
 
     TestCommand(Console console) {
-        this.console = console;
+        super(console);
         this.path = Path.of(System.getProperty("user.dir"));
     }
 
@@ -57,27 +91,209 @@ class TestCommand extends AbstractCommand implements Callable<Integer> {
         this.path = path;
     }
 
+    @Option(names = {"--bundle"},
+            paramLabel = "FILE")
+    public void setBundle(Path bundle) {
+        this.bundle = bundle;
+    }
+
+    @Option(names = {"--load-parallelism"},
+            paramLabel = "THREADS")
+    public void setLoadParallelism(int loadParallelism) {
+        this.loadParallelism = loadParallelism;
+    }
+
+    @Option(names = {"--cache"})
+    public void setCache(boolean cache) {
+        this.cache = cache;
+    }
+
+    @Option(names = {"--parallel"},
+            paramLabel = "CASES")
+    public void setParallel(int parallel) {
+        this.parallel = parallel;
+    }
+
+    @Option(names = {"--deadline"},
+            paramLabel = "DURATION",
+            converter = DurationConverter.class)
+    public void setDeadline(Duration deadline) {
+        this.deadline = deadline;
+    }
+
+    @Option(names = {"--watch"})
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
     @Override
     public Integer call() throws Exception {
+        if (watch && bundle != null) {
+            return fail("--watch cannot be used with --bundle.");
+        }
+        if (bundle != null && (cache || hasFilters())) {
+            return fail("--cache, --include, --exclude, --name, --tag and --exclude-tag"
+                    + " cannot be used with --bundle.");
+        }
+        if (parallel != null && parallel < 1) {
+            return fail("--parallel must be greater than 0.");
+        }
         try {
-            GroupNode root = loadTests(this.path);
+            TestLoader loader = createLoader();
+            ProjectTest.setConcurrency(this.parallel);
+            ProjectTest.setTimeLimit(this.deadline);
+            GroupNode root;
+            try {
+                root = loader.load();
+            } catch (TestLoadingException e) {
+                if (!watch) {
+                    throw e;
+                }
+                // Keeps watching until the problems are fixed.
+                return watchProject(loader, null, fail(e));
+            }
             ProjectTest.setRootGroup(root);
-            return runConsole(ARGS);
+            int result = runConsole(ARGS);
+            if (watch) {
+                return watchProject(loader, root, result);
+            }
+            return result;
         } catch (TestLoadingException e) {
             return fail(e);
         } catch (Exception e) {
             return fail(e);
         } finally {
             ProjectTest.setRootGroup(null);
+            ProjectTest.setSelectedNodes(null);
+            ProjectTest.setConcurrency(null);
+            ProjectTest.setTimeLimit(null);
         }
     }
 
+    /**
+     * Reruns the test cases affected by the changes of the project until interrupted.
+     * <p>
+     * The root directory of the project is watched even if the first loading failed,
+     * and the watcher follows the root directory found again after the recovery.
+     * </p>
+     *
+     * @param loader the loader which loaded the tests.
+     * @param root   the root group of the loaded tests,
+     *               or {@code null} if the first loading failed.
+     * @param result the exit code of the first run.
+     * @return the exit code of the last run.
+     * @throws IOException if an I/O error occurred while watching the project.
+     */
+    private int watchProject(TestLoader loader, GroupNode root, int result) throws IOException {
+        Path rootDir = (root != null) ? normalize(root.getNodePath()) : findRootDir(this.path);
+        ProjectWatcher watcher = new ProjectWatcher(rootDir);
+        try {
+            while (true) {
+                getOutputWriter().println("Watching for changes in " + rootDir + "...");
+                getOutputWriter().flush();
+                Set<Path> changed = watcher.take();
+                GroupNode reloaded;
+                try {
+                    reloaded = loader.reload(changed);
+                } catch (TestLoadingException e) {
+                    fail(e);
+                    continue;
+                }
+                Set<Node> selected = findAffectedNodes(reloaded, root);
+                root = reloaded;
+                Path reloadedDir = normalize(root.getNodePath());
+                if (!reloadedDir.equals(rootDir)) {
+                    watcher.close();
+                    rootDir = reloadedDir;
+                    watcher = new ProjectWatcher(rootDir);
+                }
+                if (selected.isEmpty()) {
+                    getOutputWriter().println("No test cases were affected.");
+                    continue;
+                }
+                ProjectTest.setRootGroup(root);
+                ProjectTest.setSelectedNodes(selected);
+                result = runConsole(ARGS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return result;
+        } finally {
+            watcher.close();
+        }
+    }
+
+    /**
+     * Finds the root directory of the project containing the start directory
+     * in the same way as the loader, even if the project cannot be loaded.
+     *
+     * @param startDir the directory where to start searching.
+     * @return the directory containing the root group,
+     *         or the start directory if not found.
+     */
+    static Path findRootDir(Path startDir) {
+        startDir = normalize(startDir);
+        for (Path dir = startDir; dir != null; dir = dir.getParent()) {
+            if (Files.isRegularFile(dir.resolve(GroupNode.ROOT_FILE_NAME))) {
+                return dir;
+            } else if (!Files.isRegularFile(dir.resolve(GroupNode.FILE_NAME))) {
+                break;
+            }
+        }
+        return startDir;
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Finds the test cases not shared with the previously loaded tests,
+     * with all of their ancestor groups.
+     *
+     * @param root     the root group of the reloaded tests.
+     * @param previous the root group of the previously loaded tests,
+     *                 or {@code null} if no tests were loaded.
+     * @return the set of the affected nodes.
+     */
+    private static Set<Node> findAffectedNodes(GroupNode root, GroupNode previous) {
+        Set<Node> unchanged = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (previous != null) {
+            collectTestCases(previous, unchanged);
+        }
+        Set<Node> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectAffectedNodes(root, unchanged, affected);
+        return affected;
+    }
+
+    private static void collectTestCases(GroupNode group, Set<Node> found) {
+        found.addAll(group.getTestCases());
+        group.getSubgroups().forEach(subgroup -> collectTestCases(subgroup, found));
+    }
+
+    private static boolean collectAffectedNodes(GroupNode group, Set<Node> unchanged, Set<Node> affected) {
+        boolean found = false;
+        for (CaseNode testCase : group.getTestCases()) {
+            if (!unchanged.contains(testCase)) {
+                affected.add(testCase);
+                found = true;
+            }
+        }
+        for (GroupNode subgroup : group.getSubgroups()) {
+            found |= collectAffectedNodes(subgroup, unchanged, affected);
+        }
+        if (found) {
+            affected.add(group);
+        }
+        return found;
+    }
+
     private PrintWriter getOutputWriter() {
-        return console.getOutputWriter();
+        return getConsole().getOutputWriter();
     }
 
     private PrintWriter getErrorWriter() {
-        return console.getErrorWriter();
+        return getConsole().getErrorWriter();
     }
 
     private int runConsole(String... args) {
@@ -88,31 +304,23 @@ class TestCommand extends AbstractCommand implements Callable<Integer> {
         return fail("No ToolProvider found.");
     }
 
-    private static GroupNode loadTests(Path path) {
-        return TestLoader.loadFrom(path);
+    private boolean hasFilters() {
+        return !includedPaths.isEmpty()
+                || !excludedPaths.isEmpty()
+                || !names.isEmpty()
+                || !tags.isEmpty()
+                || !excludedTags.isEmpty();
     }
 
-    private int fail(String message) {
-        StringBuilder builder = new StringBuilder();
-        builder.append("[ERROR] ")
-               .append(message);
-        getErrorWriter().println(builder.toString());
-        return FAILED;
-    }
-
-    private int fail(TestLoadingException e) {
-        PrintWriter err = getErrorWriter();
-        err.println(e.getMessage());
-        StringBuilder builder = new StringBuilder();
-        for (Problem problem : e.getProblems()) {
-            builder.setLength(0);
-            problem.getPath().ifPresent(path -> {
-                builder.append(path.toString()).append(": ");
-            });
-            builder.append(problem.getDescription());
-            err.println(builder.toString());
-        }
-        return FAILED;
+    private TestLoader createLoader() {
+        return TestLoader.newLoader((bundle != null) ? this.bundle : this.path)
+                .withParallelism(this.loadParallelism)
+                .withCache(this.cache)
+                .withIncludedPaths(this.includedPaths)
+                .withExcludedPaths(this.excludedPaths)
+                .withNames(this.names)
+                .withTags(this.tags)
+                .withExcludedTags(this.excludedTags);
     }
 
     private int fail(Exception e) {
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.leadpony.duel.core.api.CaseExecution;
+import org.leadpony.duel.core.api.ExecutionTimedOutException;
+import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.TestLoader;
+import org.leadpony.duel.fake.server.FakeServer;
+import org.opentest4j.AssertionFailedError;
+import org.opentest4j.IncompleteExecutionException;
+
+/**
+ * @author leadpony
+ */
+public class AsyncExecutionTest {
+
+    private static final Path BASE_PATH = Path.of("src/test/projects/good");
+
+    private static FakeServer server;
+
+    @BeforeAll
+    public static void setUpOnce() throws Exception {
+        server = new FakeServer(8080);
+        server.start();
+    }
+
+    @AfterAll
+    public static void tearDownOnce() throws Exception {
+        server.stop();
+        server = null;
+    }
+
+    @Test
+    public void runAsyncShouldNotifyAllPassedCases() throws Exception {
+        Map<String, Throwable> results = runAsync(BASE_PATH.resolve("concurrency"));
+
+        assertThat(results).hasSize(6);
+        assertThat(results.values()).allMatch(thrown -> thrown == NONE);
+    }
+
+    @Test
+    public void runAsyncShouldNotifyFailedAssertion() throws Exception {
+        Map<String, Throwable> results = runAsync(BASE_PATH.resolve("response/body/json_body_mismatch"));
+
+        assertThat(results.get("body")).isInstanceOf(AssertionFailedError.class);
+    }
+
+    @Test
+    public void runAsyncShouldNotifyTimeout() throws Exception {
+        Map<String, Throwable> results = runAsync(BASE_PATH.resolve("timeout"));
+
+        assertThat(results.get("fast")).isSameAs(NONE);
+        assertThat(results.get("slow")).isInstanceOf(ExecutionTimedOutException.class);
+        assertThat(results.get("stalled")).isInstanceOf(ExecutionTimedOutException.class);
+    }
+
+    @Test
+    public void runShouldTimeOutIfBodyStalled() {
+        CaseExecution stalled = TestLoader.loadFrom(BASE_PATH.resolve("timeout"))
+                .createExecution()
+                .testCases()
+                .filter(execution -> execution.getName().equals("stalled"))
+                .findFirst()
+                .get();
+
+        Throwable thrown = catchThrowable(stalled::run);
+
+        assertThat(thrown).isInstanceOf(ExecutionTimedOutException.class);
+    }
+
+    /**
+     * The server stalls in the middle of the body as {@code /delay?bodyMillis=} does,
+     * and detects the connection closed by the client, which Jetty cannot do while stalling.
+     */
+    @Test
+    public void runShouldCloseConnectionIfBodyStalled(@TempDir Path dir) throws Exception {
+        try (ServerSocket listener = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Files.writeString(dir.resolve("root.json"),
+                    "{\"scheme\": \"http\", \"host\": \"127.0.0.1\", \"port\": " + listener.getLocalPort()
+                    + ", \"timeout\": \"500ms\"}");
+            Files.writeString(dir.resolve("stalled.test.json"), "{\"path\": \"/stalled\"}");
+            CaseExecution stalled = TestLoader.loadFrom(dir).createExecution().testCases().findFirst().get();
+            CompletableFuture<Boolean> closed = CompletableFuture.supplyAsync(() -> serveStalledBody(listener));
+
+            Throwable thrown = catchThrowable(stalled::run);
+
+            assertThat(thrown).isInstanceOf(ExecutionTimedOutException.class);
+            assertThat(closed.get(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    /**
+     * Sends a part of the body and waits for the client to close the connection.
+     *
+     * @return {@code true} if the client closed the connection before the server gave up.
+     */
+    private static boolean serveStalledBody(ServerSocket listener) {
+        try (Socket socket = listener.accept()) {
+            InputStream in = socket.getInputStream();
+            // skips the request, which has no body.
+            int last = 0;
+            while (last != 0x0d0a0d0a) {
+                int b = in.read();
+                if (b < 0) {
+                    return false;
+                }
+                last = (last << 8) | b;
+            }
+            OutputStream out = socket.getOutputStream();
+            out.write(("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: 100\r\n\r\nstalled")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            socket.setSoTimeout(5000);
+            return in.read() < 0;
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            // the connection was reset by the client.
+            return true;
+        }
+    }
+
+    @Test
+    public void runAsyncShouldFailJsonAssertionOnSpilledBody() throws Exception {
+        Map<String, Throwable> results = runAsync(BASE_PATH.resolve("response/size/size_spilled_json"));
+
+        assertThat(results.get("buffered"))
+            .isInstanceOf(AssertionFailedError.class)
+            .hasMessageContaining("was not parsed as JSON");
+        assertThat(results.get("streaming"))
+            .isInstanceOf(AssertionFailedError.class)
+            .hasMessageContaining("was not parsed as JSON");
+    }
+
+    @Test
+    public void runAsyncShouldSendFileCreatedAfterFailure(@TempDir Path dir) throws Exception {
+        Files.writeString(dir.resolve("root.json"),
+                "{\"scheme\": \"http\", \"host\": \"localhost\", \"port\": 8080}");
+        Files.writeString(dir.resolve("post.test.json"),
+                "{\"path\": \"/digest\", \"method\": \"POST\","
+                + " \"request\": {\"body\": {\"file\": \"payload.bin\"}},"
+                + " \"response\": {\"status\": 200, \"body\": {\"data\": {\"length\": 3,"
+                + " \"sha256\": \"039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81\"}}}}");
+        CaseExecution execution = TestLoader.loadFrom(dir).createExecution().testCases().findFirst().get();
+
+        Throwable first = catchThrowable(() -> execution.runAsync().toCompletableFuture().join());
+        Throwable second = catchThrowable(() -> execution.runAsync().toCompletableFuture().join());
+        Files.write(dir.resolve("payload.bin"), new byte[] {1, 2, 3});
+        Throwable third = catchThrowable(() -> execution.runAsync().toCompletableFuture().join());
+
+        assertThat(first).hasCauseInstanceOf(IncompleteExecutionException.class);
+        assertThat(second.getCause()).isNotSameAs(first.getCause());
+        assertThat(third).isNull();
+    }
+
+    @Test
+    public void runAsyncShouldNotifyNetworkFailure() throws Exception {
+        GroupNode root = TestLoader.loadFrom(BASE_PATH.resolve("concurrency"));
+        server.stop();
+        try {
+            Map<String, Throwable> results = runAsync(root);
+            assertThat(results.values()).allMatch(thrown -> thrown instanceof IncompleteExecutionException);
+        } finally {
+            server.start();
+        }
+    }
+
+    private static final Throwable NONE = new Throwable();
+
+    private static Map<String, Throwable> runAsync(Path path) throws Exception {
+        return runAsync(TestLoader.loadFrom(path));
+    }
+
+    private static Map<String, Throwable> runAsync(GroupNode root) throws Exception {
+        Map<String, Throwable> results = new ConcurrentHashMap<>();
+        root.createExecution()
+            .runAsync((execution, thrown) -> results.put(execution.getName(), (thrown != null) ? thrown : NONE))
+            .toCompletableFuture()
+            .get(30, TimeUnit.SECONDS);
+        return results;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.leadpony.duel.core.api.CaseExecution;
+import org.leadpony.duel.core.api.GroupExecution;
+import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.TestLoader;
+import org.leadpony.duel.fake.server.FakeServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the test cases per second and the peak RSS of the virtual threads
+ * with those of a pool of platform threads, running the cases against the
+ * fake server.
+ * <p>
+ * The peak RSS is printed at the end of each fork, and is available only on
+ * Linux. The virtual threads fall back to the platform threads if the JVM
+ * does not support them.
+ * </p>
+ *
+ * @author leadpony
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaseExecutionBenchmark {
+
+    private static final int PORT = 18080;
+    private static final int CASES = 1000;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"64", "1000"})
+    public int concurrency;
+
+    private FakeServer server;
+    private Path projectDir;
+    private GroupExecution execution;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new FakeServer(PORT);
+        server.start();
+        projectDir = createProject();
+        GroupNode root = TestLoader.loadFrom(projectDir);
+        execution = root.createExecution();
+        executor = execution.createExecutorService(concurrency);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        server.stop();
+        deleteProject();
+        System.out.println();
+        System.out.println("Peak RSS: " + readPeakRss());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CASES)
+    public void runCases() throws InterruptedException, ExecutionException {
+        List<Future<?>> futures = new ArrayList<>(CASES);
+        execution.testCases().forEach(testCase -> futures.add(executor.submit((CaseExecution) testCase)));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private Path createProject() throws IOException {
+        Path dir = Files.createTempDirectory("duel-benchmark");
+        Files.writeString(dir.resolve(GroupNode.ROOT_FILE_NAME),
+                "{ \"port\": " + PORT + ", \"basePath\": \"/report\", \"threads\": \"" + threads + "\" }");
+        for (int i = 0; i < CASES; i++) {
+            Files.writeString(dir.resolve(String.format("case%04d.test.json", i)),
+                    "{ \"path\": \"/" + i + "\", \"response\": { \"status\": 200 } }");
+        }
+        return dir;
+    }
+
+    private void deleteProject() throws IOException {
+        try (Stream<Path> stream = Files.walk(projectDir)) {
+            for (Path path : (Iterable<Path>) stream.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static String readPeakRss() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.isRegularFile(status)) {
+            return "unknown";
+        }
+        try (Stream<String> lines = Files.lines(status)) {
+            return lines.filter(line -> line.startsWith("VmHWM:"))
+                    .map(line -> line.substring("VmHWM:".length()).trim())
+                    .findFirst()
+                    .orElse("unknown");
+        }
+    }
+}
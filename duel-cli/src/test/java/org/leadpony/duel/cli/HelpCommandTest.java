@@ -42,4 +42,10 @@ public class HelpCommandTest extends AbstractCommandTest {
         int actual = execute("help", "test");
         assertThat(actual).isEqualTo(0);
     }
+
+    @Test
+    public void runShouldShowLoadHelp() {
+        int actual = execute("help", "load");
+        assertThat(actual).isEqualTo(0);
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * @author leadpony
+ */
+public class LatencyHistogramTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 255, 256, 257, 1000, 123_456, 9_999_999, LatencyHistogram.HIGHEST_TRACKABLE_VALUE})
+    public void bucketShouldContainValue(long value) {
+        int index = LatencyHistogram.indexOf(value);
+
+        assertThat(LatencyHistogram.lowestEquivalentValue(index)).isLessThanOrEqualTo(value);
+        assertThat(LatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(value);
+        assertThat(LatencyHistogram.indexOf(LatencyHistogram.highestEquivalentValue(index) + 1))
+            .isEqualTo(index + 1);
+    }
+
+    @Test
+    public void getValueAtPercentileShouldReturnValueWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(100_000);
+        assertThat((double) histogram.getValueAtPercentile(50.0)).isCloseTo(50_000, within(500.0));
+        assertThat((double) histogram.getValueAtPercentile(99.0)).isCloseTo(99_000, within(990.0));
+        assertThat((double) histogram.getValueAtPercentile(99.9)).isCloseTo(99_900, within(999.0));
+        assertThat(histogram.getValueAtPercentile(100.0)).isEqualTo(100_000);
+        assertThat(histogram.getMaxValue()).isEqualTo(100_000);
+    }
+
+    @Test
+    public void getValueAtPercentileShouldReturnZeroIfEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getValueAtPercentile(99.0)).isEqualTo(0);
+        assertThat(histogram.getMaxValue()).isEqualTo(0);
+    }
+
+    @Test
+    public void addShouldMergeValues() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(20);
+        second.record(30);
+
+        first.add(second);
+
+        assertThat(first.getTotalCount()).isEqualTo(3);
+        assertThat(first.getValueAtPercentile(50.0)).isEqualTo(20);
+        assertThat(first.getMaxValue()).isEqualTo(30);
+    }
+}
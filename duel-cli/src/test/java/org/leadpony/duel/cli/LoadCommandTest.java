@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.leadpony.duel.fake.server.FakeServer;
+
+/**
+ * @author leadpony
+ */
+public class LoadCommandTest extends AbstractCommandTest {
+
+    private static FakeServer server;
+
+    @BeforeAll
+    public static void setUpOnce() throws Exception {
+        server = new FakeServer(8080);
+        server.start();
+    }
+
+    @AfterAll
+    public static void tearDownOnce() throws Exception {
+        server.stop();
+        server = null;
+    }
+
+    @Test
+    public void loadShouldReturn0IfAllRequestsSucceeded() {
+        int actual = execute("load", "-p", "src/test/projects/good/concurrency",
+                "--rate", "100", "--ramp-up", "200ms", "--duration", "300ms");
+        assertThat(actual).isEqualTo(0);
+    }
+
+    @Test
+    public void loadShouldReturn0IfAssertionsAreNotSampled() {
+        int actual = execute("load", "-p", "src/test/projects/good/response/body/json_body_mismatch",
+                "--rate", "50", "--duration", "200ms", "--sample-assertions", "0");
+        assertThat(actual).isEqualTo(0);
+    }
+
+    @Test
+    public void loadShouldReturn1IfAssertionsFailed() {
+        int actual = execute("load", "-p", "src/test/projects/good/response/body/json_body_mismatch",
+                "--rate", "50", "--duration", "200ms");
+        assertThat(actual).isEqualTo(1);
+    }
+
+    @Test
+    public void loadShouldReturn2IfRateIsInvalid() {
+        int actual = execute("load", "-p", "src/test/projects/good/concurrency", "--rate", "0");
+        assertThat(actual).isEqualTo(2);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.leadpony.duel.core.api.CaseExecution;
+import org.leadpony.duel.core.api.TestLoader;
+import org.leadpony.duel.fake.server.FakeServer;
+
+/**
+ * @author leadpony
+ */
+public class LoadGeneratorTest {
+
+    private static final Path DELAY_PROJECT = Path.of("src/test/projects/good/delay");
+    private static final long DELAY_MICROS = 100_000;
+
+    private static FakeServer server;
+
+    @BeforeAll
+    public static void setUpOnce() throws Exception {
+        server = new FakeServer(8080);
+        server.start();
+    }
+
+    @AfterAll
+    public static void tearDownOnce() throws Exception {
+        server.stop();
+        server = null;
+    }
+
+    @Test
+    public void runShouldCorrectCoordinatedOmission() throws Exception {
+        // Only one request in flight can serve 10 requests/s at most.
+        LoadGenerator generator = new LoadGenerator(loadCases(DELAY_PROJECT),
+                20, Duration.ZERO, Duration.ofMillis(500), 1.0, 1);
+
+        LoadGenerator.Statistics statistics = generator.run().get(0);
+
+        assertThat(statistics.getRequests()).isEqualTo(10);
+        assertThat(statistics.getErrors()).isEqualTo(0);
+        LatencyHistogram uncorrected = statistics.getUncorrectedLatencies();
+        LatencyHistogram corrected = statistics.getLatencies();
+        assertThat(uncorrected.getValueAtPercentile(50.0)).isGreaterThanOrEqualTo(DELAY_MICROS);
+        assertThat(corrected.getMaxValue()).isGreaterThan(uncorrected.getMaxValue() + 3 * DELAY_MICROS);
+        assertThat(corrected.getValueAtPercentile(90.0))
+            .isGreaterThan(uncorrected.getValueAtPercentile(90.0) + 2 * DELAY_MICROS);
+    }
+
+    @Test
+    public void runShouldNotDelayRequestsIfInFlightIsUnlimited() throws Exception {
+        LoadGenerator generator = new LoadGenerator(loadCases(DELAY_PROJECT),
+                20, Duration.ZERO, Duration.ofMillis(500), 1.0, 0);
+
+        LoadGenerator.Statistics statistics = generator.run().get(0);
+
+        assertThat(statistics.getRequests()).isEqualTo(10);
+        assertThat(statistics.getLatencies().getValueAtPercentile(50.0))
+            .isLessThan(statistics.getUncorrectedLatencies().getValueAtPercentile(50.0) + DELAY_MICROS);
+    }
+
+    private static List<CaseExecution> loadCases(Path path) {
+        return TestLoader.loadFrom(path).createExecution()
+                .testCases()
+                .collect(Collectors.toList());
+    }
+}
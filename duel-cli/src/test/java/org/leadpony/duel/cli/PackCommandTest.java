@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leadpony.duel.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.leadpony.duel.fake.server.FakeServer;
+
+/**
+ * @author leadpony
+ */
+public class PackCommandTest extends AbstractCommandTest {
+
+    private static final String PROJECT = "src/test/projects/good/request/body";
+
+    private static FakeServer server;
+
+    @TempDir
+    public Path tempDir;
+
+    @BeforeAll
+    public static void setUpOnce() throws Exception {
+        server = new FakeServer(8080);
+        server.start();
+    }
+
+    @AfterAll
+    public static void tearDownOnce() throws Exception {
+        server.stop();
+        server = null;
+    }
+
+    @Test
+    public void packShouldWriteBundleToRun() {
+        Path bundle = tempDir.resolve("body.duelpack");
+
+        int packed = execute("pack", "-p", PROJECT, "-o", bundle.toString());
+        int actual = execute("test", "--bundle", bundle.toString());
+
+        assertThat(packed).isEqualTo(0);
+        assertThat(bundle).exists();
+        assertThat(actual).isEqualTo(0);
+    }
+
+    @Test
+    public void packShouldReturn2IfNoProjectFound() {
+        Path bundle = tempDir.resolve("nonexistent.duelpack");
+
+        int actual = execute("pack", "-p", "src/test/projects/nonexistent", "-o", bundle.toString());
+
+        assertThat(actual).isEqualTo(2);
+        assertThat(bundle).doesNotExist();
+    }
+
+    @Test
+    public void testShouldReturn2IfBundleIsFiltered() {
+        Path bundle = tempDir.resolve("body.duelpack");
+        execute("pack", "-p", PROJECT, "-o", bundle.toString());
+
+        int actual = execute("test", "--bundle", bundle.toString(), "--name", "binary");
+
+        assertThat(actual).isEqualTo(2);
+    }
+}
@@ -27,6 +27,7 @@ import java.util.Properties;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.leadpony.duel.fake.server.FakeServer;
 
@@ -63,6 +64,63 @@ public class TestCommandTest extends AbstractCommandTest {
         return Integer.valueOf(properties.getProperty("exit"));
     }
 
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ProjectSource("src/test/projects/good")
+    public void launchShouldReturnExpectedCodeInParallel(String name, Path dir) throws IOException {
+        int actual = execute("test", "-p", dir.toString(), "--parallel", "4");
+        int expected = getExpectetExitCode(dir);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void launchShouldReturn1IfDeadlineExceeded() {
+        Path dir = Path.of("src/test/projects/good/delay");
+        int actual = execute("test", "-p", dir.toString(), "--deadline", "50ms");
+        assertThat(actual).isEqualTo(1);
+    }
+
+    @Test
+    public void launchShouldReturn1IfDeadlineExceededInParallel() {
+        Path dir = Path.of("src/test/projects/good/delay");
+        int actual = execute("test", "-p", dir.toString(), "--deadline", "50ms", "--parallel", "2");
+        assertThat(actual).isEqualTo(1);
+    }
+
+    @Test
+    public void launchShouldReturn0IfDeadlineNotExceeded() {
+        Path dir = Path.of("src/test/projects/good/delay");
+        int actual = execute("test", "-p", dir.toString(), "--deadline", "10s");
+        assertThat(actual).isEqualTo(0);
+    }
+
+    /**
+     * The requests must be sent one after another, because only the requests
+     * sent after the upgrade of the connection are served over HTTP/2.
+     */
+    @Test
+    public void launchShouldUseHttp2AfterUpgrade() {
+        Path dir = Path.of("src/test/projects/protocol");
+        int actual = execute("test", "-p", dir.toString());
+        assertThat(actual).isEqualTo(0);
+    }
+
+    @Test
+    public void findRootDirShouldFindRootAboveNestedGroup(@TempDir Path dir) throws IOException {
+        Path nested = Files.createDirectories(dir.resolve("users/admin"));
+        Files.writeString(dir.resolve("root.json"), "{ broken");
+        Files.writeString(dir.resolve("users/group.json"), "{}");
+        Files.writeString(nested.resolve("group.json"), "{}");
+
+        assertThat(TestCommand.findRootDir(nested)).isEqualTo(dir.toAbsolutePath().normalize());
+    }
+
+    @Test
+    public void findRootDirShouldReturnStartDirIfNoRootFound(@TempDir Path dir) throws IOException {
+        Path nested = Files.createDirectories(dir.resolve("users"));
+
+        assertThat(TestCommand.findRootDir(nested)).isEqualTo(nested.toAbsolutePath().normalize());
+    }
+
     @ParameterizedTest(name = "[{index}] {0}")
     @ProjectSource("src/test/projects/bad")
     public void launchShouldReturn2IfProjectIsBad(String name, Path dir) throws IOException {
@@ -26,7 +26,7 @@ module org.leadpony.duel.core {
     requires transitive java.json;
     requires static java.logging;
     requires java.net.http;
-    requires org.opentest4j;
+    requires transitive org.opentest4j;
 
     uses org.leadpony.duel.core.spi.AssertionFactoryProvider;
 }
\ No newline at end of file
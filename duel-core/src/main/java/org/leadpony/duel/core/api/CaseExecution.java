@@ -16,6 +16,8 @@
 
 package org.leadpony.duel.core.api;
 
+import java.util.concurrent.CompletionStage;
+
 /**
  * @author leadpony
  */
@@ -30,4 +32,28 @@ public interface CaseExecution extends Execution, Runnable {
      */
     @Override
     void run();
+
+    /**
+     * Runs this test case asynchronously without blocking the calling thread.
+     * <p>
+     * The assertions are run in the returned stage after the response was
+     * received.
+     * </p>
+     *
+     * @return the stage which completes normally if the test case passed,
+     *         or exceptionally with {@code AssertionFailedError} if an assertion
+     *         failed or with {@code IncompleteExecutionException} if the
+     *         execution of the test was incomplete.
+     */
+    CompletionStage<Void> runAsync();
+
+    /**
+     * Sends the request of this test case asynchronously without running
+     * any assertions on the response.
+     *
+     * @return the stage which completes normally if the response was received,
+     *         or exceptionally with {@code IncompleteExecutionException} if the
+     *         execution of the test was incomplete.
+     */
+    CompletionStage<Void> sendAsync();
 }
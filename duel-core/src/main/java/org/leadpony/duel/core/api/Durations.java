@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.api;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.json.JsonNumber;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * A utility class for parsing durations in the configurations.
+ * <p>
+ * A duration is a non-negative integer followed by one of the units
+ * {@code ms}, {@code s}, {@code m} and {@code h}.
+ * </p>
+ *
+ * @author leadpony
+ */
+public final class Durations {
+
+    private static final Pattern PATTERN = Pattern.compile("(\\d+)(ms|s|m|h)");
+
+    private Durations() {
+    }
+
+    /**
+     * Parses the duration such as {@code "250ms"}, {@code "30s"} or {@code "5m"}.
+     * The number without any unit is in milliseconds.
+     *
+     * @param value the JSON value to parse.
+     * @return the parsed duration, or empty if the value is not a duration.
+     * @throws NullPointerException if {@code value} is {@code null}.
+     */
+    public static Optional<Duration> parse(JsonValue value) {
+        requireNonNull(value, "value must not be null.");
+        switch (value.getValueType()) {
+        case NUMBER:
+            JsonNumber number = (JsonNumber) value;
+            if (number.isIntegral() && number.longValue() >= 0) {
+                return Optional.of(Duration.ofMillis(number.longValue()));
+            }
+            return Optional.empty();
+        case STRING:
+            return parse(((JsonString) value).getString());
+        default:
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Parses the duration such as {@code "250ms"}, {@code "30s"} or {@code "5m"}.
+     *
+     * @param value the string to parse.
+     * @return the parsed duration, or empty if the value is not a duration.
+     * @throws NullPointerException if {@code value} is {@code null}.
+     */
+    public static Optional<Duration> parse(String value) {
+        requireNonNull(value, "value must not be null.");
+        Matcher m = PATTERN.matcher(value);
+        if (!m.matches()) {
+            return Optional.empty();
+        }
+        try {
+            long amount = Long.parseLong(m.group(1));
+            switch (m.group(2)) {
+            case "ms":
+                return Optional.of(Duration.ofMillis(amount));
+            case "s":
+                return Optional.of(Duration.ofSeconds(amount));
+            case "m":
+                return Optional.of(Duration.ofMinutes(amount));
+            default:
+                return Optional.of(Duration.ofHours(amount));
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
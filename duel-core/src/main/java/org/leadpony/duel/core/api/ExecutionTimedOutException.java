@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.api;
+
+import org.opentest4j.IncompleteExecutionException;
+
+/**
+ * An exception thrown when the execution of a test did not complete in time,
+ * for example when the request or the connection timed out.
+ *
+ * @author leadpony
+ */
+public class ExecutionTimedOutException extends IncompleteExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExecutionTimedOutException(String message) {
+        super(message);
+    }
+
+    public ExecutionTimedOutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -16,6 +16,9 @@
 
 package org.leadpony.duel.core.api;
 
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
 /**
@@ -26,4 +29,42 @@ public interface GroupExecution extends Execution {
     Stream<CaseExecution> testCases();
 
     Stream<GroupExecution> subgroups();
+
+    /**
+     * Creates an executor service for running the test cases concurrently.
+     * <p>
+     * If {@code threads} parameter of the root group is {@code "virtual"} and
+     * the JVM supports virtual threads, each test case runs on its own virtual
+     * thread, and the HTTP client also runs on virtual threads. Otherwise the
+     * test cases run on a pool of platform threads.
+     * </p>
+     * <p>
+     * Note that the test cases run one after another on the calling thread
+     * unless this method is called, so the {@code threads} parameter has no
+     * effect on the test cases without a concurrency greater than 1.
+     * </p>
+     *
+     * @param concurrency the maximum number of the test cases running at once.
+     * @return the newly created executor service, which should be shut down by the caller.
+     * @throws IllegalArgumentException if {@code concurrency} is less than 1.
+     */
+    ExecutorService createExecutorService(int concurrency);
+
+    /**
+     * Runs all of the test cases in this group and its descendant groups
+     * asynchronously without blocking the calling thread.
+     * <p>
+     * All the test cases are started at once, and the listener is notified
+     * of the result of each test case when it completed, in any order and on
+     * any thread. The listener receives {@code null} as the second argument if
+     * the test case passed, otherwise the exception thrown by
+     * {@link CaseExecution#run()}.
+     * </p>
+     *
+     * @param listener the listener to be notified of the results of the test cases.
+     * @return the stage which completes after all of the test cases completed
+     *         and the listener was notified of their results.
+     * @throws NullPointerException if {@code listener} is {@code null}.
+     */
+    CompletionStage<Void> runAsync(BiConsumer<? super CaseExecution, ? super Throwable> listener);
 }
@@ -51,6 +51,15 @@ public interface GroupNode extends Node, Iterable<Node> {
      */
     Collection<GroupNode> getSubgroups();
 
+    /**
+     * Returns the maximum number of the test cases executed concurrently,
+     * which is specified by {@code concurrency} parameter.
+     *
+     * @return the maximum number of the concurrent test cases,
+     *         1 means the test cases are executed one at a time.
+     */
+    int getConcurrency();
+
     /**
      * Creates an execution of this group.
      *
@@ -20,6 +20,7 @@ import java.net.URI;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.json.JsonObject;
 import javax.json.JsonValue;
@@ -90,10 +91,27 @@ public interface Node {
      */
     Map<String, String> getProperties();
 
+    /**
+     * Returns the tags of this node.
+     * <p>
+     * The tags of a node include all the tags declared by its ancestors.
+     * </p>
+     *
+     * @return the immutable set of the tags, never be {@code null}.
+     */
+    Set<String> getTags();
+
     /**
      * Returns the original configuration as a JSON object.
+     * <p>
+     * The configuration is not retained by the node but read again from its file
+     * at the time of this call. Therefore it reflects the content of the file
+     * at that time, which may not match the effective configuration
+     * if the file was modified after the node was loaded.
+     * </p>
      *
-     * @return the JSON object representing the original configuration.
+     * @return the JSON object representing the original configuration,
+     *         which is empty if the file cannot be read or parsed.
      */
     JsonObject getOriginalConfigurationAsJson();
 
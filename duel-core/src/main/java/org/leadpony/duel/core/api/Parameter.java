@@ -30,4 +30,14 @@ public class Parameter {
     public static final String BASE_PATH = "basePath";
     public static final String METHOD = "method";
     public static final String PATH = "path";
+    public static final String TAGS = "tags";
+    public static final String CONCURRENCY = "concurrency";
+    public static final String THREADS = "threads";
+    public static final String PROTOCOL = "protocol";
+    public static final String TIMEOUT = "timeout";
+    public static final String CONNECT_TIMEOUT = "connectTimeout";
+    public static final String JSON_PARSING = "jsonParsing";
+    public static final String MAX_RESPONSE_SIZE = "maxResponseSize";
+    public static final String OVERSIZED_RESPONSE = "oversizedResponse";
+    public static final String COMPRESSION = "compression";
 }
@@ -16,7 +16,9 @@
 
 package org.leadpony.duel.core.api;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Objects;
 
 import org.leadpony.duel.core.internal.node.DefaultTestLoader;
@@ -28,6 +30,11 @@ import org.leadpony.duel.core.internal.node.DefaultTestLoader;
  */
 public interface TestLoader {
 
+    /**
+     * The file extension of the bundles written by {@link #writeBundle(GroupNode, Path)}.
+     */
+    String BUNDLE_FILE_EXTENSION = ".duelpack";
+
     /**
      * Loads tests from the specified path.
      *
@@ -37,10 +44,166 @@ public interface TestLoader {
      * @throws NullPointerException if {@code startPath} is {@code null}.
      */
     static GroupNode loadFrom(Path startPath) {
+        return newLoader(startPath).load();
+    }
+
+    /**
+     * Creates a new loader which will load tests from the specified path.
+     * <p>
+     * If the path is a regular file, it is opened as a bundle written by
+     * {@link #writeBundle(GroupNode, Path)}. Only the options given to the
+     * loader which wrote the bundle are applied to the tests in it,
+     * and the loader of a bundle reports a problem if any filter is given.
+     * </p>
+     *
+     * @param startPath the path from which the project will be loaded,
+     *                  or the path to the bundle.
+     * @return the newly created loader.
+     * @throws NullPointerException if {@code startPath} is {@code null}.
+     */
+    static TestLoader newLoader(Path startPath) {
         Objects.requireNonNull(startPath, "startPath must not be null.");
-        return new DefaultTestLoader(startPath).load();
+        return new DefaultTestLoader(startPath);
+    }
+
+    /**
+     * Writes the loaded tests into a single bundle file.
+     * <p>
+     * The bundle contains the original and the effective configurations of
+     * all the nodes. The tests are loaded from the bundle without reading any
+     * files of the original project, and each node in the bundle is decoded
+     * only when it is requested for the first time.
+     * The files sent as the request bodies are also packed into the bundle.
+     * The paths of the nodes loaded from the bundle are the locations
+     * at the time of writing, relative to the directory of the bundle.
+     * </p>
+     *
+     * @param root the root group of the tests to write.
+     * @param file the path to the bundle to write.
+     * @throws IOException if an I/O error occurred while writing the bundle.
+     * @throws NullPointerException if any of the arguments is {@code null}.
+     */
+    static void writeBundle(GroupNode root, Path file) throws IOException {
+        Objects.requireNonNull(root, "root must not be null.");
+        Objects.requireNonNull(file, "file must not be null.");
+        DefaultTestLoader.writeBundle(root, file);
     }
 
+    /**
+     * Specifies the number of threads used for loading the tests.
+     * <p>
+     * If the value is greater than 1, the directories and the files in the
+     * project are discovered, parsed and expanded in parallel. The order of
+     * the loaded tests is the same as in sequential loading.
+     * </p>
+     *
+     * @param parallelism the number of threads, 1 means sequential loading.
+     * @return this loader.
+     * @throws IllegalArgumentException if {@code parallelism} is less than 1.
+     */
+    TestLoader withParallelism(int parallelism);
+
+    /**
+     * Specifies whether the persistent cache of the project is used or not.
+     * <p>
+     * If enabled, the compiled configurations of the nodes are stored in the
+     * {@code .duel/cache} directory under the root directory of the project,
+     * and are reused in the next loading as long as the files of the nodes and
+     * their ancestors are not changed.
+     * </p>
+     *
+     * @param enabled {@code true} to use the cache, {@code false} otherwise.
+     * @return this loader.
+     */
+    TestLoader withCache(boolean enabled);
+
+    /**
+     * Specifies whether the tests are loaded lazily or not.
+     * <p>
+     * If enabled, the test cases and the subgroups of a group are read and
+     * expanded only when they are requested for the first time. Any problems
+     * found in the lazily loaded nodes are reported by
+     * {@link TestLoadingException} thrown at that time instead of by
+     * {@link #load()}. The lazily loaded nodes also use the persistent cache
+     * if enabled, which is saved each time the nodes are loaded.
+     * </p>
+     *
+     * @param enabled {@code true} to load the tests lazily, {@code false} otherwise.
+     * @return this loader.
+     */
+    TestLoader withLazyLoading(boolean enabled);
+
+    /**
+     * Adds the glob patterns of the paths to include.
+     * <p>
+     * The paths are relative to the root directory of the project and
+     * separated by {@code /}. A test case is included if its file or any of
+     * its ancestor directories matches any of the patterns. The directories
+     * which cannot contain any matching paths are not read at all.
+     * If no patterns are given, all the paths are included.
+     * </p>
+     *
+     * @param globs the glob patterns of the paths to include.
+     * @return this loader.
+     * @throws NullPointerException if {@code globs} is {@code null}.
+     */
+    TestLoader withIncludedPaths(Collection<String> globs);
+
+    /**
+     * Adds the glob patterns of the paths to exclude.
+     * <p>
+     * The directories matching any of the patterns are skipped with all of
+     * their contents.
+     * </p>
+     *
+     * @param globs the glob patterns of the paths to exclude.
+     * @return this loader.
+     * @throws NullPointerException if {@code globs} is {@code null}.
+     */
+    TestLoader withExcludedPaths(Collection<String> globs);
+
+    /**
+     * Adds the glob patterns of the names to include.
+     * <p>
+     * The names are derived from the file names, that is, the name of a test
+     * case is its file name without {@code .test.json} and the name of a group
+     * is its directory name. A test case is included if the name of itself or
+     * any of its ancestor groups matches any of the patterns.
+     * </p>
+     *
+     * @param patterns the glob patterns of the names to include.
+     * @return this loader.
+     * @throws NullPointerException if {@code patterns} is {@code null}.
+     */
+    TestLoader withNames(Collection<String> patterns);
+
+    /**
+     * Adds the tags to include.
+     * <p>
+     * A test case is included if it has any of the tags, including the tags
+     * inherited from its ancestor groups. The tags are declared by
+     * {@code tags} parameter of the nodes.
+     * </p>
+     *
+     * @param tags the tags to include.
+     * @return this loader.
+     * @throws NullPointerException if {@code tags} is {@code null}.
+     */
+    TestLoader withTags(Collection<String> tags);
+
+    /**
+     * Adds the tags to exclude.
+     * <p>
+     * The nodes having any of the tags are skipped with all of their
+     * descendants.
+     * </p>
+     *
+     * @param tags the tags to exclude.
+     * @return this loader.
+     * @throws NullPointerException if {@code tags} is {@code null}.
+     */
+    TestLoader withExcludedTags(Collection<String> tags);
+
     /**
      * Loads tests.
      *
@@ -48,4 +211,23 @@ public interface TestLoader {
      * @throws TestLoadingException if any problem was found while loading the tests.
      */
     GroupNode load();
+
+    /**
+     * Reloads the tests after some files of the project were changed.
+     * <p>
+     * Only the nodes affected by the changes are loaded again, that is, the
+     * nodes whose files were changed and all of their descendants, because
+     * the configuration of a group is merged into its descendants. The other
+     * nodes are shared with the tests loaded previously by this loader.
+     * If the tests were not loaded yet, or were loaded lazily, all of the
+     * tests are loaded again.
+     * </p>
+     *
+     * @param changedPaths the paths of the files and the directories which
+     *                     were created, modified or deleted.
+     * @return the root group of the reloaded tests.
+     * @throws TestLoadingException if any problem was found while loading the tests.
+     * @throws NullPointerException if {@code changedPaths} is {@code null}.
+     */
+    GroupNode reload(Collection<Path> changedPaths);
 }
@@ -70,10 +70,90 @@ public final class Message {
         return format("ReadingDirectoryFailed", path);
     }
 
+    public static String thatReadingBundleFailed(Path path) {
+        return format("ReadingBundleFailed", path);
+    }
+
+    public static String thatBundleCannotBeFiltered(Path path) {
+        return format("BundleCannotBeFiltered", path);
+    }
+
     public static String thatEndpointUrlIsInValid() {
         return format("EndpointUrlIsInValid");
     }
 
+    public static String thatProtocolIsUnknown(String protocol) {
+        return format("ProtocolIsUnknown", protocol);
+    }
+
+    public static String thatRequestBodyFileIsNotFound(Path path) {
+        return format("RequestBodyFileIsNotFound", path);
+    }
+
+    public static String thatJsonParsingIsUnknown(String parsing) {
+        return format("JsonParsingIsUnknown", parsing);
+    }
+
+    public static String thatJsonCharacterIsUnexpected(String character, long offset) {
+        return format("JsonCharacterIsUnexpected", character, offset);
+    }
+
+    public static String thatJsonNumberIsInvalid(String number, long offset) {
+        return format("JsonNumberIsInvalid", number, offset);
+    }
+
+    public static String thatJsonEndIsUnexpected(long offset) {
+        return format("JsonEndIsUnexpected", offset);
+    }
+
+    public static String thatResponseBodyIsNotRetained() {
+        return format("ResponseBodyIsNotRetained");
+    }
+
+    public static String thatSizeIsInvalid(String name, String value) {
+        return format("SizeIsInvalid", name, value);
+    }
+
+    public static String thatOversizedResponseIsUnknown(String policy) {
+        return format("OversizedResponseIsUnknown", policy);
+    }
+
+    public static String thatResponseSizeExceeded(long maxSize) {
+        return format("ResponseSizeExceeded", maxSize);
+    }
+
+    public static String thatResponseBodyIsSpilled(long size) {
+        return format("ResponseBodyIsSpilled", size);
+    }
+
+    public static String thatCompressionIsUnknown(String compression) {
+        return format("CompressionIsUnknown", compression);
+    }
+
+    public static String thatContentEncodingIsBroken(String encoding) {
+        return format("ContentEncodingIsBroken", encoding);
+    }
+
+    public static String thatSpilledResponseSizeExceeded(long maxSize) {
+        return format("SpilledResponseSizeExceeded", maxSize);
+    }
+
+    public static String thatResponseBodyIsTooLargeToParse(long size) {
+        return format("ResponseBodyIsTooLargeToParse", size);
+    }
+
+    public static String thatDurationIsInvalid(String name, String value) {
+        return format("DurationIsInvalid", name, value);
+    }
+
+    public static String thatRequestTimedOut(URI remote, long millis) {
+        return format("RequestTimedOut", remote, millis);
+    }
+
+    public static String thatConnectionTimedOut(URI remote, long millis) {
+        return format("ConnectionTimedOut", remote, millis);
+    }
+
     public static String thatNetworkConnectionFailed(URI remote) {
         return format("NetworkConnectionFailed", remote);
     }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import javax.json.JsonArray;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * A skeletal implementation of read-only {@link JsonArray}.
+ * <p>
+ * The subclasses need to implement only the methods of {@link java.util.List}
+ * such as {@link #get(int)} and {@link #size()}.
+ * </p>
+ *
+ * @author leadpony
+ */
+public abstract class AbstractJsonArray extends AbstractList<JsonValue> implements JsonArray {
+
+    private final JsonBuilderFactory builderFactory;
+
+    protected AbstractJsonArray(JsonBuilderFactory builderFactory) {
+        this.builderFactory = builderFactory;
+    }
+
+    /* As a JsonValue */
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.ARRAY;
+    }
+
+    /* As a JsonArray */
+
+    @Override
+    public JsonObject getJsonObject(int index) {
+        return (JsonObject) get(index);
+    }
+
+    @Override
+    public JsonArray getJsonArray(int index) {
+        return (JsonArray) get(index);
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(int index) {
+        return (JsonNumber) get(index);
+    }
+
+    @Override
+    public JsonString getJsonString(int index) {
+        return (JsonString) get(index);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends JsonValue> List<T> getValuesAs(Class<T> clazz) {
+        return (List<T>) this;
+    }
+
+    @Override
+    public String getString(int index) {
+        return getJsonString(index).getString();
+    }
+
+    @Override
+    public String getString(int index, String defaultValue) {
+        if (index >= 0 && index < size()) {
+            JsonValue value = get(index);
+            if (value instanceof JsonString) {
+                return ((JsonString) value).getString();
+            }
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public int getInt(int index) {
+        return getJsonNumber(index).intValue();
+    }
+
+    @Override
+    public int getInt(int index, int defaultValue) {
+        if (index >= 0 && index < size()) {
+            JsonValue value = get(index);
+            if (value instanceof JsonNumber) {
+                return ((JsonNumber) value).intValue();
+            }
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        JsonValue value = get(index);
+        if (value == JsonValue.TRUE) {
+            return true;
+        } else if (value == JsonValue.FALSE) {
+            return false;
+        }
+        throw new ClassCastException();
+    }
+
+    @Override
+    public boolean getBoolean(int index, boolean defaultValue) {
+        if (index >= 0 && index < size()) {
+            JsonValue value = get(index);
+            if (value == JsonValue.TRUE) {
+                return true;
+            } else if (value == JsonValue.FALSE) {
+                return false;
+            }
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return get(index) == JsonValue.NULL;
+    }
+
+    @Override
+    public String toString() {
+        return builderFactory.createArrayBuilder(this).build().toString();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.util.AbstractMap;
+
+import javax.json.JsonArray;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * A skeletal implementation of read-only {@link JsonObject}.
+ * <p>
+ * The subclasses need to implement only the methods of {@link java.util.Map}
+ * such as {@link #get(Object)} and {@link #entrySet()}.
+ * </p>
+ *
+ * @author leadpony
+ */
+public abstract class AbstractJsonObject extends AbstractMap<String, JsonValue> implements JsonObject {
+
+    private final JsonBuilderFactory builderFactory;
+
+    protected AbstractJsonObject(JsonBuilderFactory builderFactory) {
+        this.builderFactory = builderFactory;
+    }
+
+    /* As a JsonValue */
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.OBJECT;
+    }
+
+    /* As a JsonObject */
+
+    @Override
+    public JsonArray getJsonArray(String name) {
+        return (JsonArray) get(name);
+    }
+
+    @Override
+    public JsonObject getJsonObject(String name) {
+        return (JsonObject) get(name);
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(String name) {
+        return (JsonNumber) get(name);
+    }
+
+    @Override
+    public JsonString getJsonString(String name) {
+        return (JsonString) get(name);
+    }
+
+    @Override
+    public String getString(String name) {
+        return getJsonString(name).getString();
+    }
+
+    @Override
+    public String getString(String name, String defaultValue) {
+        JsonValue value = get(name);
+        if (value instanceof JsonString) {
+            return ((JsonString) value).getString();
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public int getInt(String name) {
+        return getJsonNumber(name).intValue();
+    }
+
+    @Override
+    public int getInt(String name, int defaultValue) {
+        JsonValue value = get(name);
+        if (value instanceof JsonNumber) {
+            return ((JsonNumber) value).intValue();
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(String name) {
+        JsonValue value = get(name);
+        if (value == null) {
+            throw new NullPointerException();
+        } else if (value == JsonValue.TRUE) {
+            return true;
+        } else if (value == JsonValue.FALSE) {
+            return false;
+        }
+        throw new ClassCastException();
+    }
+
+    @Override
+    public boolean getBoolean(String name, boolean defaultValue) {
+        JsonValue value = get(name);
+        if (value == JsonValue.TRUE) {
+            return true;
+        } else if (value == JsonValue.FALSE) {
+            return false;
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public boolean isNull(String name) {
+        JsonValue value = get(name);
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        return value == JsonValue.NULL;
+    }
+
+    @Override
+    public String toString() {
+        return builderFactory.createObjectBuilder(this).build().toString();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+
+/**
+ * A reader of JSON values written by {@link BinaryJsonWriter}.
+ *
+ * @author leadpony
+ */
+public class BinaryJsonReader {
+
+    private final DataInput in;
+    private final JsonProvider jsonProvider;
+    private final JsonBuilderFactory builderFactory;
+    private final List<String> strings = new ArrayList<>();
+
+    public BinaryJsonReader(DataInput in, JsonProvider jsonProvider) {
+        this.in = in;
+        this.jsonProvider = jsonProvider;
+        this.builderFactory = jsonProvider.createBuilderFactory(Collections.emptyMap());
+    }
+
+    public JsonValue read() throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+        case BinaryJsonWriter.NULL:
+            return JsonValue.NULL;
+        case BinaryJsonWriter.TRUE:
+            return JsonValue.TRUE;
+        case BinaryJsonWriter.FALSE:
+            return JsonValue.FALSE;
+        case BinaryJsonWriter.INT:
+            return jsonProvider.createValue(in.readInt());
+        case BinaryJsonWriter.LONG:
+            return jsonProvider.createValue(in.readLong());
+        case BinaryJsonWriter.DECIMAL:
+            return jsonProvider.createValue(new BigDecimal(readString()));
+        case BinaryJsonWriter.STRING:
+        case BinaryJsonWriter.STRING_REF:
+            return jsonProvider.createValue(readString(tag));
+        case BinaryJsonWriter.ARRAY:
+            return readArray();
+        case BinaryJsonWriter.OBJECT:
+            return readObjectBody();
+        default:
+            throw new IOException("Unknown tag: " + tag);
+        }
+    }
+
+    public JsonObject readObject() throws IOException {
+        int tag = in.readUnsignedByte();
+        if (tag != BinaryJsonWriter.OBJECT) {
+            throw new IOException("Unexpected tag: " + tag);
+        }
+        return readObjectBody();
+    }
+
+    public String readString() throws IOException {
+        return readString(in.readUnsignedByte());
+    }
+
+    public int readVarInt() throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private String readString(int tag) throws IOException {
+        if (tag == BinaryJsonWriter.STRING_REF) {
+            return strings.get(readVarInt());
+        } else if (tag != BinaryJsonWriter.STRING) {
+            throw new IOException("Unexpected tag: " + tag);
+        }
+        byte[] bytes = new byte[readVarInt()];
+        in.readFully(bytes);
+        String string = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(string);
+        return string;
+    }
+
+    private JsonValue readArray() throws IOException {
+        final int size = readVarInt();
+        if (size == 0) {
+            return JsonValue.EMPTY_JSON_ARRAY;
+        }
+        JsonArrayBuilder builder = builderFactory.createArrayBuilder();
+        for (int i = 0; i < size; i++) {
+            builder.add(read());
+        }
+        return builder.build();
+    }
+
+    private JsonObject readObjectBody() throws IOException {
+        final int size = readVarInt();
+        if (size == 0) {
+            return JsonValue.EMPTY_JSON_OBJECT;
+        }
+        JsonObjectBuilder builder = builderFactory.createObjectBuilder();
+        for (int i = 0; i < size; i++) {
+            String name = readString();
+            builder.add(name, read());
+        }
+        return builder.build();
+    }
+}
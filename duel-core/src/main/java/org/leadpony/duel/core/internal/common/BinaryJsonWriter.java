@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * A writer of JSON values in the compact binary form.
+ * <p>
+ * Each string is written only once per writer, and any later occurrences of
+ * the same string are written as references to the first one.
+ * The values written by this class can be read by {@link BinaryJsonReader}.
+ * </p>
+ *
+ * @author leadpony
+ */
+public class BinaryJsonWriter {
+
+    static final int NULL = 0;
+    static final int TRUE = 1;
+    static final int FALSE = 2;
+    static final int INT = 3;
+    static final int LONG = 4;
+    static final int DECIMAL = 5;
+    static final int STRING = 6;
+    static final int STRING_REF = 7;
+    static final int ARRAY = 8;
+    static final int OBJECT = 9;
+
+    private final DataOutput out;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    public BinaryJsonWriter(DataOutput out) {
+        this.out = out;
+    }
+
+    public void write(JsonValue value) throws IOException {
+        switch (value.getValueType()) {
+        case ARRAY:
+            writeArray(value.asJsonArray());
+            break;
+        case OBJECT:
+            writeObject(value.asJsonObject());
+            break;
+        case STRING:
+            writeString(((JsonString) value).getString());
+            break;
+        case NUMBER:
+            writeNumber((JsonNumber) value);
+            break;
+        case TRUE:
+            out.writeByte(TRUE);
+            break;
+        case FALSE:
+            out.writeByte(FALSE);
+            break;
+        default:
+            out.writeByte(NULL);
+            break;
+        }
+    }
+
+    public void writeString(String string) throws IOException {
+        Integer index = strings.get(string);
+        if (index != null) {
+            out.writeByte(STRING_REF);
+            writeVarInt(index);
+        } else {
+            strings.put(string, strings.size());
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STRING);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    public void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private void writeArray(JsonArray array) throws IOException {
+        out.writeByte(ARRAY);
+        writeVarInt(array.size());
+        for (JsonValue item : array) {
+            write(item);
+        }
+    }
+
+    private void writeObject(JsonObject object) throws IOException {
+        out.writeByte(OBJECT);
+        writeVarInt(object.size());
+        for (Map.Entry<String, JsonValue> entry : object.entrySet()) {
+            writeString(entry.getKey());
+            write(entry.getValue());
+        }
+    }
+
+    private void writeNumber(JsonNumber number) throws IOException {
+        if (number.isIntegral()) {
+            try {
+                long value = number.longValueExact();
+                if (value == (int) value) {
+                    out.writeByte(INT);
+                    out.writeInt((int) value);
+                } else {
+                    out.writeByte(LONG);
+                    out.writeLong(value);
+                }
+                return;
+            } catch (ArithmeticException e) {
+                // falls through
+            }
+        }
+        out.writeByte(DECIMAL);
+        writeString(number.bigDecimalValue().toString());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor service which limits the number of the tasks running at once.
+ * <p>
+ * Each task waits for a permit on the thread given by the underlying executor,
+ * which is intended to be a cheap virtual thread.
+ * </p>
+ *
+ * @author leadpony
+ */
+public class BoundedExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    /**
+     * Constructs this executor service.
+     *
+     * @param executor the underlying executor which runs the tasks.
+     * @param limit    the maximum number of the tasks running at once.
+     */
+    public BoundedExecutorService(ExecutorService executor, int limit) {
+        this.executor = executor;
+        this.permits = new Semaphore(limit);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.json.JsonNumber;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * A utility class for parsing data sizes in the configurations.
+ *
+ * @author leadpony
+ */
+public final class DataSizes {
+
+    private static final Pattern PATTERN = Pattern.compile("(\\d+)(B|KB|MB|GB)");
+
+    private DataSizes() {
+    }
+
+    /**
+     * Parses the data size such as {@code "512KB"}, {@code "10MB"} or {@code "1GB"}.
+     * The units are the multiples of 1024 bytes.
+     * The number without any unit is in bytes.
+     *
+     * @param value the JSON value to parse.
+     * @return the parsed size in bytes, or empty if the value is not a data size.
+     */
+    public static OptionalLong parse(JsonValue value) {
+        requireNonNull(value, "value must not be null.");
+        switch (value.getValueType()) {
+        case NUMBER:
+            JsonNumber number = (JsonNumber) value;
+            if (number.isIntegral() && number.longValue() >= 0) {
+                return OptionalLong.of(number.longValue());
+            }
+            return OptionalLong.empty();
+        case STRING:
+            Matcher m = PATTERN.matcher(((JsonString) value).getString());
+            if (!m.matches()) {
+                return OptionalLong.empty();
+            }
+            long amount = Long.parseLong(m.group(1));
+            switch (m.group(2)) {
+            case "B":
+                return OptionalLong.of(amount);
+            case "KB":
+                return OptionalLong.of(amount << 10);
+            case "MB":
+                return OptionalLong.of(amount << 20);
+            default:
+                return OptionalLong.of(amount << 30);
+            }
+        default:
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.regex.Pattern;
+
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonException;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+
+import org.leadpony.duel.core.internal.Message;
+
+/**
+ * A JSON parser which is fed with the bytes encoded in UTF-8 as they arrive.
+ * <p>
+ * The parser builds the JSON value incrementally, so the bytes already fed
+ * do not need to be retained. This parser is not thread-safe.
+ * </p>
+ *
+ * @author leadpony
+ */
+public class IncrementalJsonParser {
+
+    private static final Pattern NUMBER_PATTERN =
+            Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+
+    private static final String TRUE = "true";
+    private static final String FALSE = "false";
+    private static final String NULL = "null";
+
+    private static final int INITIAL_BUFFER_SIZE = 64;
+
+    /**
+     * The states of the parser.
+     */
+    private enum State {
+        VALUE,
+        FIRST_ITEM,
+        FIRST_KEY,
+        KEY,
+        COLON,
+        AFTER_VALUE,
+        STRING,
+        ESCAPE,
+        UNICODE,
+        NUMBER,
+        LITERAL
+    }
+
+    private final JsonProvider jsonProvider;
+    private final JsonBuilderFactory builderFactory;
+    private final Deque<Container> containers = new ArrayDeque<>();
+
+    private State state = State.VALUE;
+    private long offset;
+    private JsonValue result;
+
+    // the bytes of the current string or number
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int length;
+    // the characters decoded from the current string, used only if escaped
+    private StringBuilder decoded;
+    private boolean parsingKey;
+    private int codePoint;
+    private int hexDigits;
+    private String literal;
+    private int literalIndex;
+
+    /**
+     * Constructs this parser.
+     *
+     * @param jsonProvider the JSON provider which creates the JSON values.
+     */
+    public IncrementalJsonParser(JsonProvider jsonProvider) {
+        this.jsonProvider = jsonProvider;
+        this.builderFactory = jsonProvider.createBuilderFactory(Collections.emptyMap());
+    }
+
+    /**
+     * Feeds the next bytes to this parser.
+     * The position of the buffer is advanced to its limit.
+     *
+     * @param bytes the next bytes of the JSON.
+     * @throws JsonException if the JSON is ill-formed.
+     */
+    public void feed(ByteBuffer bytes) {
+        while (bytes.hasRemaining()) {
+            int b = bytes.get() & 0xff;
+            boolean consumed;
+            do {
+                // the byte may be consumed again in the new state.
+                consumed = consume(b);
+            } while (!consumed);
+            offset++;
+        }
+    }
+
+    /**
+     * Ends the input and returns the JSON value.
+     *
+     * @return the JSON value parsed.
+     * @throws JsonException if the JSON is ill-formed or incomplete.
+     */
+    public JsonValue end() {
+        if (state == State.NUMBER) {
+            completeValue(createNumber());
+        }
+        if (state != State.AFTER_VALUE || !containers.isEmpty()) {
+            throw new JsonException(Message.thatJsonEndIsUnexpected(offset));
+        }
+        return result;
+    }
+
+    /**
+     * Consumes a byte.
+     *
+     * @param b the byte to consume.
+     * @return {@code true} if the byte was consumed,
+     *         {@code false} if the byte needs to be consumed again.
+     */
+    private boolean consume(int b) {
+        switch (state) {
+        case VALUE:
+            return startValue(b);
+        case FIRST_ITEM:
+            if (isWhitespace(b)) {
+                return true;
+            } else if (b == ']') {
+                endContainer();
+                return true;
+            }
+            state = State.VALUE;
+            return false;
+        case FIRST_KEY:
+            if (b == '}') {
+                endContainer();
+                return true;
+            }
+            return startKey(b);
+        case KEY:
+            return startKey(b);
+        case COLON:
+            if (b == ':') {
+                state = State.VALUE;
+            } else if (!isWhitespace(b)) {
+                throw unexpected(b);
+            }
+            return true;
+        case AFTER_VALUE:
+            afterValue(b);
+            return true;
+        case STRING:
+            consumeString(b);
+            return true;
+        case ESCAPE:
+            consumeEscape(b);
+            return true;
+        case UNICODE:
+            consumeHexDigit(b);
+            return true;
+        case NUMBER:
+            if (isNumberPart(b)) {
+                append(b);
+                return true;
+            }
+            completeValue(createNumber());
+            return false;
+        case LITERAL:
+            consumeLiteral(b);
+            return true;
+        default:
+            throw new IllegalStateException();
+        }
+    }
+
+    private boolean startValue(int b) {
+        switch (b) {
+        case '{':
+            containers.push(new Container(builderFactory.createObjectBuilder()));
+            state = State.FIRST_KEY;
+            break;
+        case '[':
+            containers.push(new Container(builderFactory.createArrayBuilder()));
+            state = State.FIRST_ITEM;
+            break;
+        case '"':
+            startString(false);
+            break;
+        case 't':
+            startLiteral(TRUE);
+            break;
+        case 'f':
+            startLiteral(FALSE);
+            break;
+        case 'n':
+            startLiteral(NULL);
+            break;
+        default:
+            if (b == '-' || isDigit(b)) {
+                length = 0;
+                append(b);
+                state = State.NUMBER;
+            } else if (!isWhitespace(b)) {
+                throw unexpected(b);
+            }
+            break;
+        }
+        return true;
+    }
+
+    private boolean startKey(int b) {
+        if (b == '"') {
+            startString(true);
+        } else if (!isWhitespace(b)) {
+            throw unexpected(b);
+        }
+        return true;
+    }
+
+    private void afterValue(int b) {
+        Container container = containers.peek();
+        if (isWhitespace(b)) {
+            return;
+        } else if (container == null) {
+            throw unexpected(b);
+        } else if (b == ',') {
+            state = container.isObject() ? State.KEY : State.VALUE;
+        } else if (b == (container.isObject() ? '}' : ']')) {
+            endContainer();
+        } else {
+            throw unexpected(b);
+        }
+    }
+
+    private void endContainer() {
+        completeValue(containers.pop().build());
+    }
+
+    private void completeValue(JsonValue value) {
+        Container container = containers.peek();
+        if (container == null) {
+            result = value;
+        } else {
+            container.add(value);
+        }
+        state = State.AFTER_VALUE;
+    }
+
+    private void startString(boolean key) {
+        parsingKey = key;
+        length = 0;
+        decoded = null;
+        state = State.STRING;
+    }
+
+    private void consumeString(int b) {
+        if (b == '"') {
+            String string = decodeString();
+            if (parsingKey) {
+                containers.peek().key = string;
+                state = State.COLON;
+            } else {
+                completeValue(jsonProvider.createValue(string));
+            }
+        } else if (b == '\\') {
+            state = State.ESCAPE;
+        } else if (b < 0x20) {
+            throw unexpected(b);
+        } else {
+            append(b);
+        }
+    }
+
+    private void consumeEscape(int b) {
+        char c;
+        switch (b) {
+        case '"':
+        case '\\':
+        case '/':
+            c = (char) b;
+            break;
+        case 'b':
+            c = '\b';
+            break;
+        case 'f':
+            c = '\f';
+            break;
+        case 'n':
+            c = '\n';
+            break;
+        case 'r':
+            c = '\r';
+            break;
+        case 't':
+            c = '\t';
+            break;
+        case 'u':
+            codePoint = 0;
+            hexDigits = 0;
+            state = State.UNICODE;
+            return;
+        default:
+            throw unexpected(b);
+        }
+        appendDecoded(c);
+        state = State.STRING;
+    }
+
+    private void consumeHexDigit(int b) {
+        int digit = Character.digit(b, 16);
+        if (digit < 0) {
+            throw unexpected(b);
+        }
+        codePoint = (codePoint << 4) | digit;
+        if (++hexDigits == 4) {
+            appendDecoded((char) codePoint);
+            state = State.STRING;
+        }
+    }
+
+    /**
+     * Appends the character decoded from an escape sequence.
+     * The bytes preceding the sequence are decoded first,
+     * which never split a multi-byte character.
+     */
+    private void appendDecoded(char c) {
+        if (decoded == null) {
+            decoded = new StringBuilder(length + 16);
+        }
+        decoded.append(new String(buffer, 0, length, StandardCharsets.UTF_8)).append(c);
+        length = 0;
+    }
+
+    private String decodeString() {
+        String string = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        if (decoded != null) {
+            string = decoded.append(string).toString();
+            decoded = null;
+        }
+        return string;
+    }
+
+    private JsonValue createNumber() {
+        String string = new String(buffer, 0, length, StandardCharsets.US_ASCII);
+        if (!NUMBER_PATTERN.matcher(string).matches()) {
+            throw new JsonException(Message.thatJsonNumberIsInvalid(string, offset - length));
+        }
+        return JsonValues.createNumber(jsonProvider, string);
+    }
+
+    private void startLiteral(String literal) {
+        this.literal = literal;
+        this.literalIndex = 1;
+        state = State.LITERAL;
+    }
+
+    private void consumeLiteral(int b) {
+        if (b != literal.charAt(literalIndex)) {
+            throw unexpected(b);
+        }
+        if (++literalIndex == literal.length()) {
+            if (literal == TRUE) {
+                completeValue(JsonValue.TRUE);
+            } else if (literal == FALSE) {
+                completeValue(JsonValue.FALSE);
+            } else {
+                completeValue(JsonValue.NULL);
+            }
+        }
+    }
+
+    private void append(int b) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, length * 2);
+        }
+        buffer[length++] = (byte) b;
+    }
+
+    private JsonException unexpected(int b) {
+        String found = (b >= 0x20 && b < 0x7f) ? "'" + (char) b + "'" : String.format("0x%02x", b);
+        return new JsonException(Message.thatJsonCharacterIsUnexpected(found, offset));
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static boolean isDigit(int b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isNumberPart(int b) {
+        return isDigit(b) || b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-';
+    }
+
+    /**
+     * A JSON object or array being built.
+     *
+     * @author leadpony
+     */
+    private static final class Container {
+
+        private final JsonObjectBuilder objectBuilder;
+        private final JsonArrayBuilder arrayBuilder;
+        private String key;
+
+        Container(JsonObjectBuilder objectBuilder) {
+            this.objectBuilder = objectBuilder;
+            this.arrayBuilder = null;
+        }
+
+        Container(JsonArrayBuilder arrayBuilder) {
+            this.objectBuilder = null;
+            this.arrayBuilder = arrayBuilder;
+        }
+
+        boolean isObject() {
+            return objectBuilder != null;
+        }
+
+        void add(JsonValue value) {
+            if (objectBuilder != null) {
+                objectBuilder.add(key, value);
+            } else {
+                arrayBuilder.add(value);
+            }
+        }
+
+        JsonValue build() {
+            return (objectBuilder != null) ? objectBuilder.build() : arrayBuilder.build();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import javax.json.JsonValue;
+
+/**
+ * A JSON array backed by {@link JsonIndex}.
+ * The items are decoded when accessed for the first time.
+ *
+ * @author leadpony
+ */
+class IndexedJsonArray extends AbstractJsonArray {
+
+    private final JsonIndex index;
+    private final int[] positions;
+    private final JsonValue[] items;
+
+    IndexedJsonArray(JsonIndex index, int position) {
+        super(index.getBuilderFactory());
+        this.index = index;
+        this.positions = findItems(index, position);
+        this.items = new JsonValue[positions.length];
+    }
+
+    /* As a List */
+
+    @Override
+    public int size() {
+        return positions.length;
+    }
+
+    @Override
+    public JsonValue get(int i) {
+        JsonValue item = items[i];
+        if (item == null) {
+            // decoding twice by the concurrent threads is harmless.
+            item = index.getValue(positions[i]);
+            items[i] = item;
+        }
+        return item;
+    }
+
+    private static int[] findItems(JsonIndex index, int position) {
+        int end = index.skip(position);
+        int size = 0;
+        for (int i = position + 1; i < end; i = index.skip(i)) {
+            size++;
+        }
+        int[] found = new int[size];
+        int next = 0;
+        for (int i = position + 1; i < end; i = index.skip(i)) {
+            found[next++] = i;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.json.JsonValue;
+
+/**
+ * A JSON object backed by {@link JsonIndex}.
+ * <p>
+ * The keys are decoded when the object itself is visited,
+ * and each value is decoded when it is accessed for the first time.
+ * If a key appears more than once, the last value wins.
+ * </p>
+ *
+ * @author leadpony
+ */
+class IndexedJsonObject extends AbstractJsonObject {
+
+    // the objects up to this size are searched without hashing.
+    private static final int MAX_LINEAR_SEARCH = 8;
+
+    private final JsonIndex index;
+    private final String[] keys;
+    private final int[] positions;
+    private final JsonValue[] values;
+    private final Map<String, Integer> lookup;
+    private int size;
+    private Set<Map.Entry<String, JsonValue>> entrySet;
+
+    IndexedJsonObject(JsonIndex index, int position) {
+        super(index.getBuilderFactory());
+        this.index = index;
+        int end = index.skip(position);
+        int capacity = 0;
+        for (int i = position + 1; i < end; i = index.skip(i + 1)) {
+            capacity++;
+        }
+        this.keys = new String[capacity];
+        this.positions = new int[capacity];
+        this.lookup = (capacity > MAX_LINEAR_SEARCH) ? new HashMap<>() : null;
+        for (int i = position + 1; i < end; i = index.skip(i + 1)) {
+            addProperty(index.getString(i), i + 1);
+        }
+        this.values = new JsonValue[size];
+    }
+
+    /* As a Map */
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public JsonValue get(Object key) {
+        int i = find(key);
+        return (i >= 0) ? getValue(i) : null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, JsonValue>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private void addProperty(String key, int position) {
+        int found = find(key);
+        if (found >= 0) {
+            positions[found] = position;
+            return;
+        }
+        keys[size] = key;
+        positions[size] = position;
+        if (lookup != null) {
+            lookup.put(key, size);
+        }
+        size++;
+    }
+
+    private int find(Object key) {
+        if (lookup != null) {
+            Integer i = lookup.get(key);
+            return (i != null) ? i : -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private JsonValue getValue(int i) {
+        JsonValue value = values[i];
+        if (value == null) {
+            // decoding twice by the concurrent threads is harmless.
+            value = index.getValue(positions[i]);
+            values[i] = value;
+        }
+        return value;
+    }
+
+    /**
+     * The entries in the order of appearance.
+     *
+     * @author leadpony
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<String, JsonValue>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, JsonValue>> iterator() {
+            return new Iterator<>() {
+
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Map.Entry<String, JsonValue> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int i = next++;
+                    return new SimpleImmutableEntry<>(keys[i], getValue(i));
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonException;
+import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+
+import org.leadpony.duel.core.internal.Message;
+
+/**
+ * A structural index over a JSON encoded in UTF-8.
+ * <p>
+ * The index is built by a single pass over the bytes, which validates the JSON
+ * and records the offsets of all values without decoding them.
+ * The JSON values provided by the index are decoded only when visited.
+ * </p>
+ * <p>
+ * Each value is identified by its position in document order.
+ * A property of an object occupies two positions, the key and the value.
+ * </p>
+ *
+ * @author leadpony
+ */
+public final class JsonIndex {
+
+    static final byte OBJECT = 1;
+    static final byte ARRAY = 2;
+    static final byte STRING = 3;
+    static final byte ESCAPED_STRING = 4;
+    static final byte NUMBER = 5;
+    static final byte TRUE = 6;
+    static final byte FALSE = 7;
+    static final byte NULL = 8;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final byte[] bytes;
+    private final JsonProvider jsonProvider;
+    private final JsonBuilderFactory builderFactory;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    // the offsets of the first bytes
+    private int[] starts = new int[INITIAL_CAPACITY];
+    // the positions next to the last descendants, only for containers
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private JsonIndex(byte[] bytes, JsonProvider jsonProvider) {
+        this.bytes = bytes;
+        this.jsonProvider = jsonProvider;
+        this.builderFactory = jsonProvider.createBuilderFactory(Collections.emptyMap());
+    }
+
+    /**
+     * Builds the index over the specified bytes.
+     *
+     * @param bytes        the JSON encoded in UTF-8, which must not be modified later.
+     * @param jsonProvider the JSON provider which creates the scalar values.
+     * @return the index built.
+     * @throws JsonException if the JSON is ill-formed.
+     */
+    public static JsonIndex build(byte[] bytes, JsonProvider jsonProvider) {
+        JsonIndex index = new JsonIndex(bytes, jsonProvider);
+        index.scan();
+        return index;
+    }
+
+    /**
+     * Returns the root value of the JSON.
+     *
+     * @return the root value.
+     */
+    public JsonValue getRoot() {
+        return getValue(0);
+    }
+
+    /* Used by the containers */
+
+    JsonBuilderFactory getBuilderFactory() {
+        return builderFactory;
+    }
+
+    /**
+     * Returns the position next to the value and all of its descendants.
+     */
+    int skip(int position) {
+        byte type = types[position];
+        return (type == OBJECT || type == ARRAY) ? ends[position] : position + 1;
+    }
+
+    JsonValue getValue(int position) {
+        switch (types[position]) {
+        case OBJECT:
+            return new IndexedJsonObject(this, position);
+        case ARRAY:
+            return new IndexedJsonArray(this, position);
+        case STRING:
+        case ESCAPED_STRING:
+            return jsonProvider.createValue(getString(position));
+        case NUMBER:
+            return JsonValues.createNumber(jsonProvider, getNumber(position));
+        case TRUE:
+            return JsonValue.TRUE;
+        case FALSE:
+            return JsonValue.FALSE;
+        default:
+            return JsonValue.NULL;
+        }
+    }
+
+    String getString(int position) {
+        int start = starts[position] + 1;
+        if (types[position] == STRING) {
+            return new String(bytes, start, findStringEnd(start) - start, StandardCharsets.UTF_8);
+        }
+        return unescape(start);
+    }
+
+    /* Scanning */
+
+    private void scan() {
+        // the positions of the open containers
+        int[] containers = new int[16];
+        int depth = 0;
+        int offset = skipWhitespace(0);
+        boolean expectsValue = true;
+        while (true) {
+            if (expectsValue) {
+                int b = byteAt(offset);
+                if (b == '{' || b == '[') {
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                    }
+                    containers[depth++] = add(b == '{' ? OBJECT : ARRAY, offset);
+                    offset = skipWhitespace(offset + 1);
+                    if (byteAt(offset) == (b == '{' ? '}' : ']')) {
+                        ends[containers[--depth]] = size;
+                        offset++;
+                        expectsValue = false;
+                    } else if (b == '{') {
+                        offset = scanKey(offset);
+                    }
+                    continue;
+                }
+                offset = scanScalar(b, offset);
+                expectsValue = false;
+            } else {
+                offset = skipWhitespace(offset);
+                if (depth == 0) {
+                    if (offset < bytes.length) {
+                        throw unexpected(offset);
+                    }
+                    return;
+                }
+                int container = containers[depth - 1];
+                int b = byteAt(offset);
+                if (b == ',') {
+                    offset = skipWhitespace(offset + 1);
+                    if (types[container] == OBJECT) {
+                        offset = scanKey(offset);
+                    }
+                    expectsValue = true;
+                } else if (b == (types[container] == OBJECT ? '}' : ']')) {
+                    ends[container] = size;
+                    depth--;
+                    offset++;
+                } else {
+                    throw unexpected(offset);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans a key and the following colon.
+     *
+     * @return the offset of the value.
+     */
+    private int scanKey(int offset) {
+        if (byteAt(offset) != '"') {
+            throw unexpected(offset);
+        }
+        offset = scanString(offset);
+        offset = skipWhitespace(offset);
+        if (byteAt(offset) != ':') {
+            throw unexpected(offset);
+        }
+        return skipWhitespace(offset + 1);
+    }
+
+    private int scanScalar(int b, int offset) {
+        switch (b) {
+        case '"':
+            return scanString(offset);
+        case 't':
+            return scanLiteral(offset, "true", TRUE);
+        case 'f':
+            return scanLiteral(offset, "false", FALSE);
+        case 'n':
+            return scanLiteral(offset, "null", NULL);
+        default:
+            if (b == '-' || isDigit(b)) {
+                return scanNumber(offset);
+            }
+            throw unexpected(offset);
+        }
+    }
+
+    private int scanString(int offset) {
+        int position = add(STRING, offset);
+        int i = offset + 1;
+        while (true) {
+            int b = byteAt(i);
+            if (b == '"') {
+                return i + 1;
+            } else if (b == '\\') {
+                types[position] = ESCAPED_STRING;
+                int escaped = byteAt(i + 1);
+                if (escaped == 'u') {
+                    for (int j = i + 2; j < i + 6; j++) {
+                        if (Character.digit(byteAt(j), 16) < 0) {
+                            throw unexpected(j);
+                        }
+                    }
+                    i += 6;
+                } else if ("\"\\/bfnrt".indexOf(escaped) >= 0) {
+                    i += 2;
+                } else {
+                    throw unexpected(i + 1);
+                }
+            } else if (b < 0x20) {
+                throw unexpected(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private int scanNumber(int offset) {
+        add(NUMBER, offset);
+        int i = offset;
+        if (byteAt(i) == '-') {
+            i++;
+        }
+        if (byteAt(i) == '0') {
+            i++;
+        } else {
+            i = scanDigits(i);
+        }
+        if (i < bytes.length && bytes[i] == '.') {
+            i = scanDigits(i + 1);
+        }
+        if (i < bytes.length && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            if (i < bytes.length && (bytes[i] == '+' || bytes[i] == '-')) {
+                i++;
+            }
+            i = scanDigits(i);
+        }
+        return i;
+    }
+
+    private int scanDigits(int offset) {
+        if (!isDigit(byteAt(offset))) {
+            throw unexpected(offset);
+        }
+        int i = offset + 1;
+        while (i < bytes.length && isDigit(bytes[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private int scanLiteral(int offset, String literal, byte type) {
+        add(type, offset);
+        for (int i = 1; i < literal.length(); i++) {
+            if (byteAt(offset + i) != literal.charAt(i)) {
+                throw unexpected(offset + i);
+            }
+        }
+        return offset + literal.length();
+    }
+
+    private int add(byte type, int offset) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        types[size] = type;
+        starts[size] = offset;
+        return size++;
+    }
+
+    private int skipWhitespace(int offset) {
+        while (offset < bytes.length) {
+            byte b = bytes[offset];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                break;
+            }
+            offset++;
+        }
+        return offset;
+    }
+
+    private int byteAt(int offset) {
+        if (offset >= bytes.length) {
+            throw new JsonException(Message.thatJsonEndIsUnexpected(offset));
+        }
+        return bytes[offset] & 0xff;
+    }
+
+    private JsonException unexpected(int offset) {
+        int b = bytes[offset] & 0xff;
+        String found = (b >= 0x20 && b < 0x7f) ? "'" + (char) b + "'" : String.format("0x%02x", b);
+        return new JsonException(Message.thatJsonCharacterIsUnexpected(found, offset));
+    }
+
+    private static boolean isDigit(int b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /* Decoding */
+
+    private String getNumber(int position) {
+        int start = starts[position];
+        int end = start + 1;
+        while (end < bytes.length && isNumberPart(bytes[end])) {
+            end++;
+        }
+        return new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Finds the closing quotation mark of the string without any escapes.
+     */
+    private int findStringEnd(int start) {
+        int i = start;
+        while (bytes[i] != '"') {
+            i++;
+        }
+        return i;
+    }
+
+    private String unescape(int start) {
+        StringBuilder builder = new StringBuilder();
+        int chunk = start;
+        int i = start;
+        while (bytes[i] != '"') {
+            if (bytes[i] != '\\') {
+                i++;
+                continue;
+            }
+            builder.append(new String(bytes, chunk, i - chunk, StandardCharsets.UTF_8));
+            int escaped = bytes[i + 1];
+            if (escaped == 'u') {
+                builder.append((char) Integer.parseInt(
+                        new String(bytes, i + 2, 4, StandardCharsets.US_ASCII), 16));
+                i += 6;
+            } else {
+                builder.append(unescapeCharacter(escaped));
+                i += 2;
+            }
+            chunk = i;
+        }
+        builder.append(new String(bytes, chunk, i - chunk, StandardCharsets.UTF_8));
+        return builder.toString();
+    }
+
+    private static char unescapeCharacter(int escaped) {
+        switch (escaped) {
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        default:
+            return (char) escaped;
+        }
+    }
+
+    private static boolean isNumberPart(int b) {
+        return isDigit(b) || b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-';
+    }
+}
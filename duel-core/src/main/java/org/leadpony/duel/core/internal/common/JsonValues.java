@@ -18,9 +18,14 @@ package org.leadpony.duel.core.internal.common;
 
 import static java.util.Objects.requireNonNull;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import javax.json.JsonNumber;
 import javax.json.JsonString;
 import javax.json.JsonValue;
 import javax.json.JsonValue.ValueType;
+import javax.json.spi.JsonProvider;
 
 /**
  * @author leadpony
@@ -38,4 +43,25 @@ public final class JsonValues {
             return value.toString();
         }
     }
+
+    /**
+     * Creates a JSON number from its well-formed representation in JSON.
+     * The integral numbers are created from {@code int} or {@code long} if possible.
+     *
+     * @param jsonProvider the JSON provider which creates the number.
+     * @param number       the number as written in JSON.
+     * @return the newly created JSON number.
+     */
+    public static JsonNumber createNumber(JsonProvider jsonProvider, String number) {
+        if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+            int length = number.length();
+            if (length <= 9) {
+                return jsonProvider.createValue(Integer.parseInt(number));
+            } else if (length <= 18) {
+                return jsonProvider.createValue(Long.parseLong(number));
+            }
+            return jsonProvider.createValue(new BigInteger(number));
+        }
+        return jsonProvider.createValue(new BigDecimal(number));
+    }
 }
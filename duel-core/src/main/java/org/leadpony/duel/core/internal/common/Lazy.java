@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.util.function.Supplier;
+
+/**
+ * A supplier which computes its value only once when first requested.
+ * <p>
+ * If the computation fails, the same exception is thrown again on every
+ * later request.
+ * </p>
+ *
+ * @param <T> the type of the value.
+ * @author leadpony
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private Supplier<? extends T> supplier;
+    private volatile boolean done;
+    private T value;
+    private RuntimeException failure;
+
+    private Lazy(Supplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Creates a lazy supplier.
+     *
+     * @param <T>      the type of the value.
+     * @param supplier the supplier which computes the value.
+     * @return the newly created lazy supplier.
+     */
+    public static <T> Lazy<T> of(Supplier<? extends T> supplier) {
+        return new Lazy<>(supplier);
+    }
+
+    @Override
+    public T get() {
+        if (!done) {
+            compute();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether the value was already computed or not.
+     *
+     * @return {@code true} if the value was computed, {@code false} otherwise.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    private synchronized void compute() {
+        if (done) {
+            return;
+        }
+        try {
+            value = supplier.get();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        supplier = null;
+        done = true;
+    }
+}
@@ -21,7 +21,6 @@ import java.util.Collections;
 import javax.json.JsonArray;
 import javax.json.JsonBuilderFactory;
 import javax.json.JsonObject;
-import javax.json.JsonObjectBuilder;
 import javax.json.JsonValue;
 import javax.json.JsonValue.ValueType;
 import javax.json.spi.JsonProvider;
@@ -82,25 +81,19 @@ class MergingJsonCombiner implements JsonCombiner {
         return array;
     }
 
+    /**
+     * Merges the two objects.
+     * <p>
+     * The returned object shares the given objects and any nested objects
+     * existing in the both are merged only when they are accessed.
+     * </p>
+     */
     private JsonObject merge(JsonObject base, JsonObject object) {
         if (base.isEmpty()) {
             return object;
         } else if (object.isEmpty()) {
             return base;
         }
-        JsonObjectBuilder builder = builderFactory.createObjectBuilder();
-        base.forEach((name, value) -> {
-            if (!object.containsKey(name)) {
-                builder.add(name, value);
-            }
-        });
-        object.forEach((name, value) -> {
-            if (base.containsKey(name)) {
-                builder.add(name, merge(base.get(name), value));
-            } else {
-                builder.add(name, value);
-            }
-        });
-        return builder.build();
+        return new OverlayJsonObject(base, object, this, builderFactory);
     }
 }
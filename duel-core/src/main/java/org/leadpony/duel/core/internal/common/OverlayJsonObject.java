@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+/**
+ * A read-only JSON object which overlays the properties of a child object
+ * on the properties of its base object.
+ * <p>
+ * This object shares the both objects instead of copying their properties.
+ * A property existing in the both objects is merged only when it is accessed
+ * for the first time. The properties are ordered in the same way as
+ * {@link MergingJsonCombiner} does, that is, the properties found only in the
+ * base object come first.
+ * </p>
+ *
+ * @author leadpony
+ */
+class OverlayJsonObject extends AbstractJsonObject {
+
+    private final JsonObject base;
+    private final JsonObject overlay;
+    private final MergingJsonCombiner combiner;
+    private final int size;
+    private final Map<String, JsonValue> merged = new ConcurrentHashMap<>();
+    private Set<Map.Entry<String, JsonValue>> entrySet;
+
+    OverlayJsonObject(JsonObject base, JsonObject overlay,
+            MergingJsonCombiner combiner, JsonBuilderFactory builderFactory) {
+        super(builderFactory);
+        this.base = base;
+        this.overlay = overlay;
+        this.combiner = combiner;
+        this.size = countSize(base, overlay);
+    }
+
+    /* As a Map */
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return overlay.containsKey(key) || base.containsKey(key);
+    }
+
+    @Override
+    public JsonValue get(Object key) {
+        JsonValue value = overlay.get(key);
+        if (value == null) {
+            return base.get(key);
+        }
+        JsonValue baseValue = base.get(key);
+        if (baseValue == null || !isMergeable(baseValue, value)) {
+            return value;
+        }
+        return merged.computeIfAbsent((String) key, k -> combiner.apply(baseValue, value));
+    }
+
+    @Override
+    public Set<Map.Entry<String, JsonValue>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private static boolean isMergeable(JsonValue base, JsonValue value) {
+        return base.getValueType() == ValueType.OBJECT
+                && value.getValueType() == ValueType.OBJECT;
+    }
+
+    private static int countSize(JsonObject base, JsonObject overlay) {
+        int size = base.size();
+        for (String name : overlay.keySet()) {
+            if (!base.containsKey(name)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The entries of the overlay object.
+     *
+     * @author leadpony
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<String, JsonValue>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, JsonValue>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    /**
+     * An iterator over the entries which visits the properties found only in
+     * the base object, and then the properties of the overlay object.
+     *
+     * @author leadpony
+     */
+    private class EntryIterator implements Iterator<Map.Entry<String, JsonValue>> {
+
+        private final Iterator<String> baseKeys = base.keySet().iterator();
+        private final Iterator<String> overlayKeys = overlay.keySet().iterator();
+        private String nextKey;
+
+        @Override
+        public boolean hasNext() {
+            if (nextKey != null) {
+                return true;
+            }
+            while (baseKeys.hasNext()) {
+                String key = baseKeys.next();
+                if (!overlay.containsKey(key)) {
+                    nextKey = key;
+                    return true;
+                }
+            }
+            if (overlayKeys.hasNext()) {
+                nextKey = overlayKeys.next();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Map.Entry<String, JsonValue> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String key = nextKey;
+            nextKey = null;
+            return new AbstractMap.SimpleImmutableEntry<>(key, get(key));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.leadpony.duel.core.internal.Message;
+
+/**
+ * A buffer which keeps the bytes in memory up to the threshold and spills
+ * all of them to a temporary file beyond the threshold.
+ * <p>
+ * The spilled bytes are read through a memory-mapped buffer, so the heap used
+ * by this buffer never exceeds the threshold regardless of the size of the bytes.
+ * The temporary file is deleted when this buffer is closed,
+ * while the mapped buffer remains available.
+ * </p>
+ *
+ * @author leadpony
+ */
+public class SpillableBuffer implements Closeable {
+
+    /**
+     * The maximum number of the bytes which can be read back
+     * as a single buffer after spilled.
+     */
+    public static final long MAX_SPILLED_SIZE = Integer.MAX_VALUE;
+
+    private static final int INITIAL_CAPACITY = 8192;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final String TEMP_FILE_PREFIX = "duel-";
+    private static final String TEMP_FILE_SUFFIX = ".body";
+
+    private final long threshold;
+    private byte[] memory;
+    private long size;
+    private FileChannel channel;
+
+    /**
+     * Constructs this buffer.
+     *
+     * @param threshold the maximum number of the bytes kept in memory,
+     *                  which is limited by the maximum size of arrays.
+     */
+    public SpillableBuffer(long threshold) {
+        this.threshold = Math.min(threshold, MAX_ARRAY_SIZE);
+        this.memory = new byte[(int) Math.min(INITIAL_CAPACITY, threshold)];
+    }
+
+    /**
+     * Returns the number of the bytes written.
+     *
+     * @return the number of the bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the bytes were spilled to a file.
+     *
+     * @return {@code true} if the bytes were spilled, {@code false} otherwise.
+     */
+    public boolean isSpilled() {
+        return channel != null;
+    }
+
+    /**
+     * Writes all of the remaining bytes in the buffer.
+     *
+     * @param src the buffer containing the bytes to write.
+     * @throws IOException if an I/O error occurred while spilling.
+     */
+    public void write(ByteBuffer src) throws IOException {
+        int length = src.remaining();
+        if (channel == null && size + length > threshold) {
+            spill();
+        }
+        if (channel != null) {
+            while (src.hasRemaining()) {
+                channel.write(src);
+            }
+        } else {
+            ensureCapacity((int) size + length);
+            src.get(memory, (int) size, length);
+        }
+        size += length;
+    }
+
+    /**
+     * Returns the bytes kept in memory.
+     *
+     * @return the byte array containing all of the bytes.
+     * @throws IllegalStateException if the bytes were spilled.
+     */
+    public byte[] toByteArray() {
+        if (channel != null) {
+            throw new IllegalStateException();
+        }
+        return (memory.length == size) ? memory : Arrays.copyOf(memory, (int) size);
+    }
+
+    /**
+     * Returns all of the bytes as a read-only buffer.
+     * The buffer is mapped to the file if the bytes were spilled.
+     *
+     * @return the read-only buffer containing all of the bytes.
+     * @throws IOException if the file cannot be mapped,
+     *                     or the bytes exceeded {@link #MAX_SPILLED_SIZE}.
+     */
+    public ByteBuffer toByteBuffer() throws IOException {
+        if (channel == null) {
+            return ByteBuffer.wrap(memory, 0, (int) size).asReadOnlyBuffer();
+        } else if (size > MAX_SPILLED_SIZE) {
+            throw new IOException(Message.thatSpilledResponseSizeExceeded(MAX_SPILLED_SIZE));
+        }
+        return channel.map(MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * Deletes the temporary file if spilled.
+     */
+    @Override
+    public void close() throws IOException {
+        memory = null;
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void spill() throws IOException {
+        Path file = Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        channel = FileChannel.open(file,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        ByteBuffer kept = ByteBuffer.wrap(memory, 0, (int) size);
+        while (kept.hasRemaining()) {
+            channel.write(kept);
+        }
+        memory = null;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > memory.length) {
+            int capacity = (int) Math.min(Math.max(memory.length * 2L, required), threshold);
+            memory = Arrays.copyOf(memory, capacity);
+        }
+    }
+}
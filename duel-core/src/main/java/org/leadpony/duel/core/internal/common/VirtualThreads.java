@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A helper class for virtual threads.
+ * <p>
+ * The virtual threads are created reflectively because this library is
+ * compiled for the Java releases which do not provide them.
+ * </p>
+ *
+ * @author leadpony
+ */
+public final class VirtualThreads {
+
+    private static final Method FACTORY = findFactory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Checks whether the virtual threads are available in the running JVM.
+     *
+     * @return {@code true} if the virtual threads are available.
+     */
+    public static boolean isAvailable() {
+        return FACTORY != null;
+    }
+
+    /**
+     * Creates an executor which runs each task on its own virtual thread.
+     *
+     * @return the newly created executor.
+     * @throws IllegalStateException if the virtual threads are not available.
+     */
+    public static ExecutorService newExecutor() {
+        if (FACTORY == null) {
+            throw new IllegalStateException("Virtual threads are not available.");
+        }
+        try {
+            return (ExecutorService) FACTORY.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Method findFactory() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            // Fails if the virtual threads are a preview feature not enabled.
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -22,8 +22,11 @@ import java.net.URI;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import javax.json.JsonNumber;
 import javax.json.JsonObject;
@@ -44,15 +47,13 @@ abstract class AbstractNode implements Node {
     private static final int DEFAULT_VERSION = 1;
 
     private final Path path;
-    private final JsonObject json;
-    @SuppressWarnings("unused")
-    private final JsonObject merged;
+    // the original configuration is not retained but supplied on request.
+    private final Supplier<JsonObject> original;
     private final JsonObject expanded;
 
-    protected AbstractNode(Path path, JsonObject json, JsonObject merged, JsonObject expanded) {
+    protected AbstractNode(Path path, Supplier<JsonObject> original, JsonObject expanded) {
         this.path = path;
-        this.json = json;
-        this.merged = merged;
+        this.original = original;
         this.expanded = expanded;
     }
 
@@ -125,9 +126,16 @@ abstract class AbstractNode implements Node {
         return Collections.emptyMap();
     }
 
+    @Override
+    public Set<String> getTags() {
+        return getValue(Parameter.TAGS)
+                .map(AbstractNode::toTags)
+                .orElse(Collections.emptySet());
+    }
+
     @Override
     public final JsonObject getOriginalConfigurationAsJson() {
-        return json;
+        return original.get();
     }
 
     @Override
@@ -141,4 +149,27 @@ abstract class AbstractNode implements Node {
     }
 
     protected abstract String getDefaultName();
+
+    /**
+     * Converts the value of {@code tags} parameter into a set of tags.
+     *
+     * @param value the value of the parameter, which may be a string or an array of strings.
+     * @return the immutable set of tags.
+     */
+    static Set<String> toTags(JsonValue value) {
+        switch (value.getValueType()) {
+        case STRING:
+            return Set.of(JsonValues.asString(value));
+        case ARRAY:
+            Set<String> tags = new LinkedHashSet<>();
+            for (JsonValue item : value.asJsonArray()) {
+                if (item.getValueType() == ValueType.STRING) {
+                    tags.add(JsonValues.asString(item));
+                }
+            }
+            return Collections.unmodifiableSet(tags);
+        default:
+            return Collections.emptySet();
+        }
+    }
 }
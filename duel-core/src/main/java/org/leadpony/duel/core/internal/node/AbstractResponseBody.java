@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.leadpony.duel.core.spi.MediaType;
+import org.leadpony.duel.core.spi.ResponseBody;
+import org.leadpony.duel.core.spi.ResponseSize;
+import org.leadpony.duel.core.spi.ResponseTiming;
+
+/**
+ * A skeletal implementation of {@link ResponseBody}.
+ *
+ * @author leadpony
+ */
+abstract class AbstractResponseBody implements ResponseBody, ResponseTiming, ResponseSize {
+
+    /**
+     * The wire size of the body which was not encoded.
+     */
+    static final long NOT_ENCODED = -1;
+
+    private final Optional<MediaType> mediaType;
+    private final long wireSize;
+    private final long nanosToHeaders;
+    private final long nanosToBody;
+
+    /**
+     * Constructs this response body.
+     *
+     * @param mediaType      the media type of the body.
+     * @param wireSize       the size of the encoded body as received,
+     *                       or {@link #NOT_ENCODED} if the body was not encoded.
+     * @param nanosToHeaders the time taken to receive the header fields, in nanoseconds.
+     * @param nanosToBody    the time taken to receive the whole body, in nanoseconds.
+     */
+    protected AbstractResponseBody(Optional<MediaType> mediaType, long wireSize,
+            long nanosToHeaders, long nanosToBody) {
+        this.mediaType = mediaType;
+        this.wireSize = wireSize;
+        this.nanosToHeaders = nanosToHeaders;
+        this.nanosToBody = nanosToBody;
+    }
+
+    @Override
+    public Optional<MediaType> getMediaType() {
+        return mediaType;
+    }
+
+    @Override
+    public ResponseTiming getTiming() {
+        return this;
+    }
+
+    @Override
+    public Duration getTimeToHeaders() {
+        return Duration.ofNanos(nanosToHeaders);
+    }
+
+    @Override
+    public Duration getTimeToBody() {
+        return Duration.ofNanos(nanosToBody);
+    }
+
+    @Override
+    public ResponseSize getSize() {
+        return this;
+    }
+
+    @Override
+    public long getWireSize() {
+        return (wireSize != NOT_ENCODED) ? wireSize : getDecodedSize();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.leadpony.duel.core.api.CaseNode;
+import org.leadpony.duel.core.spi.Assertion;
+import org.leadpony.duel.core.spi.AssertionFactory;
+import org.leadpony.duel.core.spi.ResponseBody;
+
+/**
+ * The assertions of a test case compiled from its configuration.
+ * <p>
+ * The plan is immutable and is shared by all of the executions of the test case,
+ * which may run concurrently in multiple threads.
+ * </p>
+ *
+ * @author leadpony
+ */
+class AssertionPlan {
+
+    private final AssertionFactory factory;
+    private final List<Assertion> assertions;
+    private final boolean requiresByteArray;
+
+    private AssertionPlan(AssertionFactory factory, List<Assertion> assertions) {
+        this.factory = factory;
+        this.assertions = assertions;
+        this.requiresByteArray = assertions.stream().anyMatch(Assertion::requiresByteArray);
+    }
+
+    /**
+     * Compiles the assertions of the test case.
+     *
+     * @param node    the test case to compile.
+     * @param factory the factory which creates the assertions.
+     * @return the compiled plan.
+     */
+    static AssertionPlan compile(CaseNode node, AssertionFactory factory) {
+        List<Assertion> assertions = factory.createAssertions(node)
+                .collect(Collectors.toUnmodifiableList());
+        return new AssertionPlan(factory, assertions);
+    }
+
+    /**
+     * Checks whether this plan was compiled by the specified factory.
+     *
+     * @param factory the factory of the assertions.
+     * @return {@code true} if compiled by the factory, {@code false} otherwise.
+     */
+    boolean isCompiledBy(AssertionFactory factory) {
+        return this.factory == factory;
+    }
+
+    /**
+     * Checks whether any of the assertions requires the response body as a byte array.
+     *
+     * @return {@code true} if the bytes of the body must be retained.
+     */
+    boolean requiresByteArray() {
+        return requiresByteArray;
+    }
+
+    /**
+     * Asserts on the response in the order of the assertions.
+     *
+     * @param response the response to assert on.
+     */
+    void assertOn(HttpResponse<ResponseBody> response) {
+        for (Assertion assertion : assertions) {
+            assertion.assertOn(response);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.io.IOException;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow.Subscription;
+
+import org.leadpony.duel.core.internal.Message;
+import org.leadpony.duel.core.internal.common.SpillableBuffer;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * A subscriber of the response body whose size is limited.
+ * <p>
+ * The body exceeding the maximum size either fails as soon as detected,
+ * or is spilled to a temporary file. The body is provided as a byte buffer,
+ * which has a backing array unless spilled. Even if spilled, the body fails
+ * as soon as it exceeds {@link SpillableBuffer#MAX_SPILLED_SIZE}.
+ * </p>
+ *
+ * @author leadpony
+ */
+class BoundedBodySubscriber implements BodySubscriber<ByteBuffer> {
+
+    private final long maxSize;
+    private final boolean spills;
+    private final SpillableBuffer buffer;
+    private final CompletableFuture<ByteBuffer> result = new CompletableFuture<>();
+    private Subscription subscription;
+
+    /**
+     * Constructs this subscriber.
+     *
+     * @param maxSize the maximum size of the body kept in memory.
+     * @param spills  {@code true} if the body exceeding the maximum size is spilled,
+     *                {@code false} if the body fails.
+     */
+    BoundedBodySubscriber(long maxSize, boolean spills) {
+        this.maxSize = maxSize;
+        this.spills = spills;
+        this.buffer = new SpillableBuffer(maxSize);
+    }
+
+    @Override
+    public CompletionStage<ByteBuffer> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            for (ByteBuffer bytes : item) {
+                long size = buffer.size() + bytes.remaining();
+                if (!spills && size > maxSize) {
+                    fail(new AssertionFailedError(Message.thatResponseSizeExceeded(maxSize)));
+                    return;
+                } else if (size > SpillableBuffer.MAX_SPILLED_SIZE) {
+                    fail(new AssertionFailedError(
+                            Message.thatSpilledResponseSizeExceeded(SpillableBuffer.MAX_SPILLED_SIZE)));
+                    return;
+                }
+                buffer.write(bytes);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        release();
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            ByteBuffer body = buffer.isSpilled()
+                    ? buffer.toByteBuffer()
+                    : ByteBuffer.wrap(buffer.toByteArray());
+            release();
+            result.complete(body);
+        } catch (IOException e) {
+            release();
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Stops receiving the rest of the body.
+     */
+    private void fail(Throwable thrown) {
+        subscription.cancel();
+        release();
+        result.completeExceptionally(thrown);
+    }
+
+    private void release() {
+        try {
+            buffer.close();
+        } catch (IOException e) {
+            // nothing more can be done for the temporary file.
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow.Subscription;
+
+/**
+ * A subscriber of the response body which can be cancelled by others,
+ * such as the timer of the request.
+ * <p>
+ * The HTTP client keeps receiving the body even after the future of the
+ * response was completed by others. Cancelling this subscriber cancels the
+ * subscription, which closes the connection, and fails the downstream
+ * subscriber, which releases its buffers and temporary files.
+ * The signals are passed to the downstream subscriber one at a time,
+ * so that it never releases its resources while receiving the bytes.
+ * </p>
+ *
+ * @param <T> the type of the response body.
+ * @author leadpony
+ */
+class CancellableSubscriber<T> implements BodySubscriber<T> {
+
+    private final BodySubscriber<T> downstream;
+    private Subscription subscription;
+    private boolean done;
+
+    /**
+     * Constructs this subscriber.
+     *
+     * @param downstream the subscriber receiving the body.
+     */
+    CancellableSubscriber(BodySubscriber<T> downstream) {
+        this.downstream = downstream;
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return downstream.getBody();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        synchronized (this) {
+            this.subscription = subscription;
+            if (!done) {
+                downstream.onSubscribe(subscription);
+                return;
+            }
+        }
+        // cancelled before subscribed.
+        subscription.cancel();
+    }
+
+    @Override
+    public synchronized void onNext(List<ByteBuffer> item) {
+        if (!done) {
+            downstream.onNext(item);
+        }
+    }
+
+    @Override
+    public synchronized void onError(Throwable throwable) {
+        if (!done) {
+            done = true;
+            downstream.onError(throwable);
+        }
+    }
+
+    @Override
+    public synchronized void onComplete() {
+        if (!done) {
+            done = true;
+            downstream.onComplete();
+        }
+    }
+
+    /**
+     * Stops receiving the rest of the body.
+     *
+     * @param cause the reason of the cancellation, given to the downstream subscriber.
+     */
+    void cancel(Throwable cause) {
+        Subscription subscription;
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            done = true;
+            subscription = this.subscription;
+            downstream.onError(cause);
+        }
+        // cancels outside of the lock which the thread delivering the bytes may wait for.
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import javax.json.JsonObject;
+
+/**
+ * The configuration of a node compiled from its file.
+ *
+ * @author leadpony
+ */
+class CompiledConfig {
+
+    private final JsonObject merged;
+    private final JsonObject expanded;
+    private final PropertyTable properties;
+    private final long fingerprint;
+
+    /**
+     * Constructs this configuration.
+     *
+     * @param merged      the configuration merged with the ancestors.
+     * @param expanded    the merged configuration with the properties expanded.
+     * @param fingerprint the fingerprint of the file and all of its ancestors.
+     */
+    CompiledConfig(JsonObject merged, JsonObject expanded, long fingerprint) {
+        this(merged, expanded, null, fingerprint);
+    }
+
+    /**
+     * Constructs this configuration with the resolved properties.
+     *
+     * @param merged      the configuration merged with the ancestors.
+     * @param expanded    the merged configuration with the properties expanded.
+     * @param properties  the table of the resolved properties, may be {@code null}.
+     * @param fingerprint the fingerprint of the file and all of its ancestors.
+     */
+    CompiledConfig(JsonObject merged, JsonObject expanded, PropertyTable properties, long fingerprint) {
+        this.merged = merged;
+        this.expanded = expanded;
+        this.properties = properties;
+        this.fingerprint = fingerprint;
+    }
+
+    JsonObject getMerged() {
+        return merged;
+    }
+
+    JsonObject getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Returns the table of the resolved properties, which is not available
+     * if the configuration was restored from the cache.
+     *
+     * @return the table of the resolved properties, or {@code null}.
+     */
+    PropertyTable getProperties() {
+        return properties;
+    }
+
+    long getFingerprint() {
+        return fingerprint;
+    }
+}
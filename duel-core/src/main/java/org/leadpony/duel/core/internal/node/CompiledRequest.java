@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.opentest4j.IncompleteExecutionException;
+
+/**
+ * The request of a test case compiled from its configuration.
+ * <p>
+ * The request is immutable and is sent repeatedly without being built again,
+ * including its URI, header fields and the body already encoded.
+ * Only the request sending a file is built on every send, which opens the file.
+ * </p>
+ *
+ * @author leadpony
+ */
+class CompiledRequest {
+
+    private final Supplier<HttpRequest> request;
+    private final Duration connectTimeout;
+    private final String jsonParsing;
+    private final long maxResponseSize;
+    private final boolean spillsResponse;
+    private final boolean decompressesResponse;
+
+    /**
+     * Constructs this request.
+     *
+     * @param request        the supplier of the HTTP request to send.
+     * @param connectTimeout the connect timeout, may be {@code null}.
+     * @param jsonParsing    how the response body is parsed as a JSON.
+     * @param maxResponseSize the maximum size of the response body,
+     *                       or {@link Long#MAX_VALUE} if unlimited.
+     * @param spillsResponse {@code true} if the response body exceeding the maximum size
+     *                       is spilled to a file, {@code false} if it fails.
+     * @param decompressesResponse {@code true} if the compressed response body
+     *                       is decoded while it is received.
+     */
+    CompiledRequest(Supplier<HttpRequest> request, Duration connectTimeout, String jsonParsing,
+            long maxResponseSize, boolean spillsResponse, boolean decompressesResponse) {
+        this.request = request;
+        this.connectTimeout = connectTimeout;
+        this.jsonParsing = jsonParsing;
+        this.maxResponseSize = maxResponseSize;
+        this.spillsResponse = spillsResponse;
+        this.decompressesResponse = decompressesResponse;
+    }
+
+    /**
+     * Returns the HTTP request to send.
+     *
+     * @return the HTTP request.
+     * @throws IncompleteExecutionException if the file to send is not found.
+     */
+    HttpRequest getRequest() {
+        return request.get();
+    }
+
+    /**
+     * Returns the connect timeout of the HTTP client which sends this request.
+     *
+     * @return the connect timeout, or {@code null} for no timeout.
+     */
+    Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Returns how the response body is parsed as a JSON.
+     *
+     * @return one of the constants defined in {@link TestCase}.
+     */
+    String getJsonParsing() {
+        return jsonParsing;
+    }
+
+    /**
+     * Returns the maximum size of the response body.
+     *
+     * @return the maximum size in bytes, or {@link Long#MAX_VALUE} if unlimited.
+     */
+    long getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    /**
+     * Checks whether the response body exceeding the maximum size is spilled to a file.
+     *
+     * @return {@code true} if spilled, {@code false} if the response fails.
+     */
+    boolean spillsResponse() {
+        return spillsResponse;
+    }
+
+    /**
+     * Checks whether the response body compressed with gzip or deflate
+     * is decoded while it is received.
+     *
+     * @return {@code true} if decoded, {@code false} if received as is.
+     */
+    boolean decompressesResponse() {
+        return decompressesResponse;
+    }
+}
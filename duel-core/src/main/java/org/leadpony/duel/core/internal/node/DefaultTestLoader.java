@@ -16,19 +16,37 @@
 
 package org.leadpony.duel.core.internal.node;
 
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.json.JsonArrayBuilder;
 import javax.json.JsonException;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
@@ -37,11 +55,14 @@ import javax.json.JsonValue.ValueType;
 import javax.json.spi.JsonProvider;
 
 import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.Parameter;
 import org.leadpony.duel.core.api.Problem;
 import org.leadpony.duel.core.api.TestLoader;
 import org.leadpony.duel.core.api.TestLoadingException;
 import org.leadpony.duel.core.internal.Message;
 import org.leadpony.duel.core.internal.common.JsonCombiner;
+import org.leadpony.duel.core.internal.common.Lazy;
+import org.leadpony.duel.core.spi.AssertionFactory;
 
 /**
  * An implementation of {@link TestLoader}.
@@ -50,32 +71,150 @@ import org.leadpony.duel.core.internal.common.JsonCombiner;
  */
 public class DefaultTestLoader implements TestLoader {
 
+    private static final System.Logger LOG = System.getLogger(DefaultTestLoader.class.getName());
+
     private static final String DEFAULT_JSON_NAME = "default.json";
 
     private final Path startPath;
 
     private final JsonProvider jsonProvider;
-    private final JsonObject defaultProject;
+    private final CompiledConfig defaultConfig;
 
     private final JsonExpander jsonExpander;
     private final JsonCombiner jsonCombiner;
 
-    private final List<Problem> problems = new ArrayList<>();
+    private final List<Problem> problems = Collections.synchronizedList(new ArrayList<>());
+
+    private int parallelism = 1;
+    private ForkJoinPool pool;
+    private boolean cacheEnabled;
+    private ProjectCache cache;
+    private boolean lazy;
+
+    private final List<String> includedPaths = new ArrayList<>();
+    private final List<String> excludedPaths = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final Set<String> includedTags = new LinkedHashSet<>();
+    private final Set<String> excludedTags = new LinkedHashSet<>();
+    private NodeFilter filter;
+    private final Map<Path, Boolean> candidates = new ConcurrentHashMap<>();
+
+    private final Map<Path, LoadedNode> loadedNodes = new ConcurrentHashMap<>();
+    private ChangeSet changes;
+
+    /*
+     * The assertion factory shared by all of the root groups loaded by this loader,
+     * so that the assertions compiled by the unchanged test cases survive reloading.
+     */
+    private final Lazy<AssertionFactory> assertionFactory;
+    private volatile GroupNode rootGroup;
 
     public DefaultTestLoader(Path startPath) {
         this.startPath = startPath;
         this.jsonProvider = loadJsonProvider();
-        this.defaultProject = loadDefaultJson(this.jsonProvider);
+        this.defaultConfig = createDefaultConfig(loadDefaultJson(this.jsonProvider));
         this.jsonExpander = new JsonExpander(this.jsonProvider);
         this.jsonCombiner = JsonCombiner.merging(this.jsonProvider);
+        this.assertionFactory = Lazy.of(() -> new RootAssertionFactory(
+                new RootTestGroup.AssertionContext(() -> this.rootGroup, this.jsonProvider)));
+    }
+
+    /**
+     * Writes the tests into a bundle.
+     *
+     * @param root the root group of the tests to write.
+     * @param file the path to the bundle to write.
+     * @throws IOException if an I/O error occurred while writing the bundle.
+     */
+    public static void writeBundle(GroupNode root, Path file) throws IOException {
+        ProjectBundle.write(root, file);
+    }
+
+    @Override
+    public TestLoader withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than 0.");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    @Override
+    public TestLoader withCache(boolean enabled) {
+        this.cacheEnabled = enabled;
+        return this;
+    }
+
+    @Override
+    public TestLoader withLazyLoading(boolean enabled) {
+        this.lazy = enabled;
+        return this;
+    }
+
+    @Override
+    public TestLoader withIncludedPaths(Collection<String> globs) {
+        requireNonNull(globs, "globs must not be null.");
+        this.includedPaths.addAll(globs);
+        return this;
+    }
+
+    @Override
+    public TestLoader withExcludedPaths(Collection<String> globs) {
+        requireNonNull(globs, "globs must not be null.");
+        this.excludedPaths.addAll(globs);
+        return this;
+    }
+
+    @Override
+    public TestLoader withNames(Collection<String> patterns) {
+        requireNonNull(patterns, "patterns must not be null.");
+        this.names.addAll(patterns);
+        return this;
+    }
+
+    @Override
+    public TestLoader withTags(Collection<String> tags) {
+        requireNonNull(tags, "tags must not be null.");
+        this.includedTags.addAll(tags);
+        return this;
+    }
+
+    @Override
+    public TestLoader withExcludedTags(Collection<String> tags) {
+        requireNonNull(tags, "tags must not be null.");
+        this.excludedTags.addAll(tags);
+        return this;
     }
 
     @Override
     public GroupNode load() {
+        this.loadedNodes.clear();
+        return loadProject(null);
+    }
+
+    @Override
+    public GroupNode reload(Collection<Path> changedPaths) {
+        requireNonNull(changedPaths, "changedPaths must not be null.");
+        if (lazy || loadedNodes.isEmpty()) {
+            return load();
+        }
+        return loadProject(changedPaths);
+    }
+
+    /**
+     * Loads the project.
+     *
+     * @param changedPaths the paths changed since the last loading,
+     *                     or {@code null} if all nodes should be loaded.
+     * @return the root group of the loaded tests.
+     */
+    private GroupNode loadProject(Collection<Path> changedPaths) {
+        problems.clear();
         GroupNode loaded = null;
-        List<Path> paths = findRootGroup(this.startPath);
-        if (!paths.isEmpty()) {
-            loaded = loadGroup(paths.iterator(), true);
+        if (Files.isRegularFile(this.startPath)) {
+            loaded = loadBundle(this.startPath);
+        } else {
+            loaded = loadDirectory(changedPaths);
         }
         if (problems.isEmpty()) {
             return loaded;
@@ -85,6 +224,61 @@ public class DefaultTestLoader implements TestLoader {
                 Collections.unmodifiableList(problems));
     }
 
+    private GroupNode loadBundle(Path file) {
+        if (hasFilters()) {
+            addProblem(file, Message.thatBundleCannotBeFiltered(file));
+            return null;
+        }
+        try {
+            return ProjectBundle.open(file, this.jsonProvider);
+        } catch (IOException e) {
+            addProblem(file, Message.thatReadingBundleFailed(file));
+            return null;
+        }
+    }
+
+    private boolean hasFilters() {
+        return !includedPaths.isEmpty()
+                || !excludedPaths.isEmpty()
+                || !names.isEmpty()
+                || !includedTags.isEmpty()
+                || !excludedTags.isEmpty();
+    }
+
+    private GroupNode loadDirectory(Collection<Path> changedPaths) {
+        GroupNode loaded = null;
+        List<Path> paths = findRootGroup(this.startPath);
+        if (!paths.isEmpty()) {
+            final Path rootDir = paths.get(0).getParent();
+            this.filter = createFilter(rootDir);
+            this.candidates.clear();
+            if (changedPaths != null) {
+                this.changes = new ChangeSet(rootDir, changedPaths);
+                forgetDeletedNodes(this.changes);
+            }
+            if (cacheEnabled) {
+                this.cache = ProjectCache.open(rootDir, this.jsonProvider);
+            }
+            try {
+                loaded = loadRootGroup(paths);
+                this.rootGroup = loaded;
+                if (cache != null) {
+                    cache.save();
+                }
+            } finally {
+                this.cache = null;
+                this.changes = null;
+            }
+        }
+        return loaded;
+    }
+
+    private NodeFilter createFilter(Path rootDir) {
+        NodeFilter filter = new NodeFilter(rootDir,
+                includedPaths, excludedPaths, names, includedTags, excludedTags);
+        return filter.isEmpty() ? null : filter;
+    }
+
     private List<Path> findRootGroup(Path startDir) {
         var paths = new LinkedList<Path>();
         for (Path dir = startDir; dir != null; dir = dir.getParent()) {
@@ -105,101 +299,364 @@ public class DefaultTestLoader implements TestLoader {
         return Collections.emptyList();
     }
 
-    private TestGroup loadGroup(Iterator<Path> it, boolean isRoot) {
-        final Path path = it.next();
-
-        final JsonObject raw = loadConfig(path);
-        final JsonObject merged = mergeJson(this.defaultProject, raw);
-        final JsonObject expanded = expandJson(path, merged);
+    private TestGroup loadRootGroup(List<Path> paths) {
+        if (parallelism <= 1) {
+            return loadGroup(paths.iterator(), this.defaultConfig, true);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(ForkJoinTask.adapt(() -> loadGroup(paths.iterator(), this.defaultConfig, true)));
+        } finally {
+            pool.shutdown();
+            this.pool = null;
+        }
+    }
 
+    private TestGroup loadGroup(Iterator<Path> it, CompiledConfig base, boolean isRoot) {
+        final Path path = it.next();
+        final LoadedNode unchanged = findUnchanged(path, base);
+        final CompiledConfig config = (unchanged != null) ? unchanged.config : compile(path, base);
         final Path dir = path.getParent();
 
-        List<TestCase> cases;
-        List<TestGroup> subgroups;
+        Supplier<List<TestCase>> cases;
+        Supplier<List<TestGroup>> subgroups;
 
         if (it.hasNext()) {
-            cases = Collections.emptyList();
-            subgroups = Arrays.asList(loadGroup(it, false));
+            List<TestGroup> loaded = Arrays.asList(loadGroup(it, config, false));
+            cases = Collections::emptyList;
+            subgroups = () -> loaded;
+        } else if (lazy) {
+            cases = defer(() -> loadCases(dir, config));
+            subgroups = defer(() -> loadSubgroups(dir, config));
         } else {
-            cases = loadCases(dir, merged);
-            subgroups = loadSubgroups(dir, merged);
+            Supplier<List<TestGroup>> forked = forkSubgroups(dir, config);
+            List<TestCase> loadedCases = loadCases(dir, config);
+            List<TestGroup> loadedSubgroups = forked.get();
+            cases = () -> loadedCases;
+            subgroups = () -> loadedSubgroups;
         }
 
+        TestGroup group;
         if (isRoot) {
-            return new RootTestGroup(
-                    dir, raw, merged, expanded, cases, subgroups, this.jsonProvider);
+            group = new RootTestGroup(
+                    dir, originalOf(path), config.getExpanded(),
+                    cases, subgroups, this.jsonProvider, this.assertionFactory);
         } else {
-            return new TestGroup(dir, raw, merged, expanded, cases, subgroups);
+            group = new TestGroup(dir, originalOf(path), config.getExpanded(),
+                    cases, subgroups);
         }
+        recordNode(path, base, config, group);
+        return group;
+    }
+
+    private List<TestCase> loadCases(Path dir, CompiledConfig base) {
+        return loadAll(findCases(dir), path -> createCase(path, base));
+    }
+
+    private List<TestGroup> loadSubgroups(Path dir, CompiledConfig base) {
+        return loadAll(findSubgroups(dir), path -> createSubgroup(path, base));
     }
 
-    private List<TestCase> loadCases(Path dir, JsonObject base) {
-        List<TestCase> cases = new ArrayList<>();
-        for (Path path : findCases(dir)) {
-            cases.add(createCase(path, base));
+    /**
+     * Starts loading the subgroups of the specified directory.
+     * The subgroups are loaded asynchronously only if this loader runs in parallel,
+     * otherwise they are loaded when the returned supplier is called.
+     *
+     * @param dir  the directory containing the subgroups.
+     * @param base the configuration inherited by the subgroups.
+     * @return the supplier of the loaded subgroups.
+     */
+    private Supplier<List<TestGroup>> forkSubgroups(Path dir, CompiledConfig base) {
+        if (isParallel()) {
+            ForkJoinTask<List<TestGroup>> task = ForkJoinTask.adapt(() -> loadSubgroups(dir, base)).fork();
+            return task::join;
         }
-        return cases;
+        return () -> loadSubgroups(dir, base);
     }
 
-    private List<TestGroup> loadSubgroups(Path dir, JsonObject base) {
-        List<TestGroup> groups = new ArrayList<>();
-        for (Path path : findSubgroups(dir)) {
-            groups.add(createSubgroup(path, base));
+    /**
+     * Loads the nodes from the specified paths, keeping the order of the paths.
+     *
+     * @param <T>    the type of the nodes.
+     * @param paths  the sorted paths of the nodes.
+     * @param loader the function to load a node, which returns {@code null}
+     *               if the node was not selected.
+     * @return the list of loaded nodes.
+     */
+    private <T> List<T> loadAll(List<Path> paths, Function<Path, T> loader) {
+        if (!isParallel() || paths.size() < 2) {
+            List<T> nodes = new ArrayList<>();
+            for (Path path : paths) {
+                T node = loader.apply(path);
+                if (node != null) {
+                    nodes.add(node);
+                }
+            }
+            return nodes;
         }
-        return groups;
+        List<ForkJoinTask<T>> tasks = paths.stream()
+                .map(path -> ForkJoinTask.adapt(() -> loader.apply(path)))
+                .collect(Collectors.toList());
+        ForkJoinTask.invokeAll(tasks);
+        return tasks.stream()
+                .map(ForkJoinTask::join)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private boolean isParallel() {
+        return pool != null;
     }
 
     private List<Path> findCases(Path dir) {
+        try {
+            return listCases(dir);
+        } catch (IOException e) {
+            addProblem(dir, Message.thatReadingDirectoryFailed(dir));
+            return Collections.emptyList();
+        }
+    }
+
+    private List<Path> findSubgroups(Path dir) {
+        try {
+            List<Path> children = listSubgroups(dir);
+            if (filter != null && filter.requiresDiscovery()) {
+                children.removeIf(child -> !hasCandidates(child));
+            }
+            return children;
+        } catch (IOException e) {
+            addProblem(dir, Message.thatReadingDirectoryFailed(dir));
+            return Collections.emptyList();
+        }
+    }
+
+    private List<Path> listCases(Path dir) throws IOException {
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, TestCase.FILE_PATTERN)) {
             List<Path> children = new ArrayList<>();
             for (Path path : stream) {
-                if (Files.isRegularFile(path)) {
+                if (Files.isRegularFile(path) && isSelectedCase(path)) {
                     children.add(path);
                 }
             }
             Collections.sort(children);
             return children;
-        } catch (IOException e) {
-            addProblem(dir, Message.thatReadingDirectoryFailed(dir));
-            return Collections.emptyList();
         }
     }
 
-    private List<Path> findSubgroups(Path dir) {
+    private List<Path> listSubgroups(Path dir) throws IOException {
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
             List<Path> children = new ArrayList<>();
             for (Path path : stream) {
-                if (isSubgroup(path)) {
+                if (isSubgroup(path) && (filter == null || filter.acceptsDirectory(path))) {
                     children.add(path);
                 }
             }
             Collections.sort(children);
             return children;
-        } catch (IOException e) {
-            addProblem(dir, Message.thatReadingDirectoryFailed(dir));
-            return Collections.emptyList();
         }
     }
 
-    private TestCase createCase(Path path, JsonObject base) {
-        JsonObject json = loadConfig(path);
-        JsonObject merged = mergeJson(base, json);
-        JsonObject expanded = expandJson(path, merged);
+    private boolean isSelectedCase(Path path) {
+        if (filter == null) {
+            return true;
+        }
+        String fileName = path.getFileName().toString();
+        String name = fileName.substring(0, fileName.length() - TestCase.FILE_SUFFIX_LENGTH);
+        return filter.acceptsCase(path, name);
+    }
+
+    /**
+     * Checks whether the directory contains any test cases selected by the
+     * filter, without reading any configuration files.
+     *
+     * @param dir the directory to search.
+     * @return {@code true} if any selected test cases were found.
+     */
+    private boolean hasCandidates(Path dir) {
+        Boolean found = candidates.get(dir);
+        if (found == null) {
+            found = searchCandidates(dir);
+            candidates.put(dir, found);
+        }
+        return found;
+    }
+
+    private boolean searchCandidates(Path dir) {
+        try {
+            if (!listCases(dir).isEmpty()) {
+                return true;
+            }
+            for (Path child : listSubgroups(dir)) {
+                if (hasCandidates(child)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            // The problem will be reported while loading the directory.
+            return true;
+        }
+    }
 
-        return new TestCase(path, json, merged, expanded);
+    private TestCase createCase(Path path, CompiledConfig base) {
+        LoadedNode unchanged = findUnchanged(path, base);
+        if (unchanged != null) {
+            return (TestCase) unchanged.node;
+        }
+        CompiledConfig config = compile(path, base);
+        if (filter != null && !filter.acceptsTags(tagsOf(config))) {
+            return null;
+        }
+        TestCase testCase = new TestCase(path, originalOf(path), config.getExpanded());
+        recordNode(path, base, null, testCase);
+        return testCase;
     }
 
-    private TestGroup createSubgroup(Path dir, JsonObject base) {
+    private TestGroup createSubgroup(Path dir, CompiledConfig base) {
         Path path = dir.resolve(GroupNode.FILE_NAME);
+        LoadedNode unchanged = findUnchanged(path, base);
+        if (unchanged != null && !changes.affects(dir)) {
+            return (TestGroup) unchanged.node;
+        }
+        CompiledConfig config = (unchanged != null) ? unchanged.config : compile(path, base);
+        if (filter != null && filter.rejectsTags(tagsOf(config))) {
+            return null;
+        }
+
+        if (lazy) {
+            return new TestGroup(dir, originalOf(path), config.getExpanded(),
+                    defer(() -> loadCases(dir, config)),
+                    defer(() -> loadSubgroups(dir, config)));
+        }
+
+        Supplier<List<TestGroup>> forked = forkSubgroups(dir, config);
+        List<TestCase> cases = loadCases(dir, config);
+        List<TestGroup> subgroups = forked.get();
 
-        JsonObject json = loadConfig(path);
-        JsonObject merged = mergeJson(base, json);
-        JsonObject expanded = expandJson(path, merged);
+        if (filter != null && cases.isEmpty() && subgroups.isEmpty()) {
+            return null;
+        }
+
+        TestGroup group = new TestGroup(dir, originalOf(path), config.getExpanded(),
+                () -> cases, () -> subgroups);
+        recordNode(path, base, config, group);
+        return group;
+    }
 
-        List<TestCase> cases = loadCases(dir, merged);
-        List<TestGroup> subgroups = loadSubgroups(dir, merged);
+    /**
+     * Records the loaded node, which may be reused by the next reloading.
+     * The node is not recorded if any problem was found in its configuration,
+     * or in any of its descendants if the node is a group,
+     * so that the problem is reported again by the next reloading.
+     *
+     * @param path   the path to the configuration file of the node.
+     * @param base   the compiled configuration of the parent node.
+     * @param config the compiled configuration of the node, which is needed only for groups.
+     * @param node   the loaded node.
+     */
+    private void recordNode(Path path, CompiledConfig base, CompiledConfig config, AbstractNode node) {
+        Path scope = (node instanceof TestGroup) ? path.getParent() : path;
+        if (!lazy && !hasProblemIn(scope)) {
+            loadedNodes.put(path, new LoadedNode(base, config, node));
+        }
+    }
 
-        return new TestGroup(dir, json, merged, expanded, cases, subgroups);
+    /**
+     * Checks whether any problem was found in the specified file or directory.
+     */
+    private boolean hasProblemIn(Path scope) {
+        synchronized (problems) {
+            for (Problem problem : problems) {
+                if (problem.getPath().filter(path -> path.startsWith(scope)).isPresent()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets the nodes loaded previously whose files or directories were deleted.
+     *
+     * @param changes the paths changed since the last loading.
+     */
+    private void forgetDeletedNodes(ChangeSet changes) {
+        for (Path changed : changes.getChanged()) {
+            if (Files.notExists(changed)) {
+                loadedNodes.keySet().removeIf(path -> path.startsWith(changed));
+            }
+        }
+    }
+
+    /**
+     * Finds the node loaded previously which is not affected by the changes.
+     * A node is affected if its file was changed or the configuration of its
+     * parent was compiled again.
+     * The node found is not looked up in the cache, whose entry is carried
+     * forward by {@link ProjectCache#save()} instead.
+     *
+     * @param path the path to the configuration file of the node.
+     * @param base the compiled configuration of the parent node.
+     * @return the previously loaded node, or {@code null} if not found or affected.
+     */
+    private LoadedNode findUnchanged(Path path, CompiledConfig base) {
+        if (changes == null) {
+            return null;
+        }
+        LoadedNode loaded = loadedNodes.get(path);
+        if (loaded == null || loaded.base != base || changes.contains(path)) {
+            return null;
+        }
+        return loaded;
+    }
+
+    private static Set<String> tagsOf(CompiledConfig config) {
+        JsonValue value = config.getExpanded().get(Parameter.TAGS);
+        return (value != null) ? AbstractNode.toTags(value) : Collections.emptySet();
+    }
+
+    /**
+     * Defers loading the children of a group until they are first requested.
+     *
+     * @param <T>    the type of the children.
+     * @param loader the function to load the children.
+     * @return the supplier of the children.
+     */
+    private <T> Supplier<List<T>> defer(Supplier<List<T>> loader) {
+        // the children are compiled with the cache of the loading which deferred them.
+        final ProjectCache deferredCache = this.cache;
+        return Lazy.of(() -> loadLazily(loader, deferredCache));
+    }
+
+    /**
+     * Loads the children of a group lazily.
+     *
+     * @param <T>    the type of the children.
+     * @param loader the function to load the children.
+     * @param cache  the cache to use and to save after loading, or {@code null} if disabled.
+     * @return the loaded children.
+     * @throws TestLoadingException if any problem was found while loading the children.
+     */
+    private synchronized <T> List<T> loadLazily(Supplier<List<T>> loader, ProjectCache cache) {
+        problems.clear();
+        List<T> children;
+        this.cache = cache;
+        try {
+            children = loader.get();
+            if (cache != null) {
+                cache.save();
+            }
+        } finally {
+            this.cache = null;
+        }
+        if (problems.isEmpty()) {
+            return children;
+        }
+        List<Problem> found = new ArrayList<>(problems);
+        problems.clear();
+        throw new TestLoadingException(
+                Message.thatLoadingProjectFailed(found.size()),
+                Collections.unmodifiableList(found));
     }
 
     private static boolean isSubgroup(Path dir) {
@@ -209,6 +666,102 @@ public class DefaultTestLoader implements TestLoader {
         return Files.isRegularFile(dir.resolve(GroupNode.FILE_NAME));
     }
 
+    /**
+     * Compiles the configuration of a node.
+     *
+     * @param path the path to the configuration file of the node.
+     * @param base the compiled configuration of the parent node.
+     * @return the compiled configuration of the node.
+     */
+    private CompiledConfig compile(Path path, CompiledConfig base) {
+        if (cache != null) {
+            return compileWithCache(path, base);
+        }
+        return compile(path, loadConfig(path), base, 0L);
+    }
+
+    private CompiledConfig compile(Path path, JsonObject raw, CompiledConfig base, long fingerprint) {
+        JsonObject merged = mergeJson(base.getMerged(), raw);
+        try {
+            return expandJson(merged, raw, base, fingerprint);
+        } catch (PropertyException e) {
+            addProblem(path, Message.thatPropertyIsIllegal(e));
+            return new CompiledConfig(merged, merged, fingerprint);
+        }
+    }
+
+    /**
+     * Compiles the configuration of a node, reusing the cached one if the
+     * node and its ancestors are not changed.
+     *
+     * @param path the path to the configuration file of the node.
+     * @param base the compiled configuration of the parent node.
+     * @return the compiled configuration of the node.
+     */
+    private CompiledConfig compileWithCache(Path path, CompiledConfig base) {
+        final long parent = base.getFingerprint();
+        BasicFileAttributes attributes;
+        byte[] content;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            CompiledConfig cached = cache.findUnmodified(path, attributes, parent);
+            if (cached != null) {
+                return cached;
+            }
+            content = Files.readAllBytes(path);
+        } catch (IOException e) {
+            addProblem(path, Message.thatReadingFileFailed(path));
+            return compile(path, JsonValue.EMPTY_JSON_OBJECT, base, 0L);
+        }
+
+        final long contentHash = ProjectCache.hash(content);
+        CompiledConfig cached = cache.findUnchanged(path, attributes, contentHash, parent);
+        if (cached != null) {
+            return cached;
+        }
+
+        JsonObject raw = parseConfig(path, new ByteArrayInputStream(content));
+        if (raw == null) {
+            return compile(path, JsonValue.EMPTY_JSON_OBJECT, base, 0L);
+        }
+        JsonObject merged = mergeJson(base.getMerged(), raw);
+        final long fingerprint = ProjectCache.fingerprint(parent, contentHash);
+        try {
+            CompiledConfig config = expandJson(merged, raw, base, fingerprint);
+            cache.store(path, attributes, contentHash, parent, config);
+            return config;
+        } catch (PropertyException e) {
+            addProblem(path, Message.thatPropertyIsIllegal(e));
+            return new CompiledConfig(merged, merged, fingerprint);
+        }
+    }
+
+    /**
+     * Returns the supplier of the original configuration of a node.
+     * The configuration is not retained by the node but read again from the
+     * file whenever it is requested, so the supplied value is the content
+     * of the file at the time of reading.
+     *
+     * @param path the path to the configuration file of the node.
+     * @return the supplier of the original configuration.
+     */
+    private Supplier<JsonObject> originalOf(Path path) {
+        final JsonProvider jsonProvider = this.jsonProvider;
+        return () -> readOriginalConfig(path, jsonProvider);
+    }
+
+    private static JsonObject readOriginalConfig(Path path, JsonProvider jsonProvider) {
+        try (JsonReader reader = jsonProvider.createReader(Files.newInputStream(path))) {
+            JsonValue value = reader.readValue();
+            if (value.getValueType() == ValueType.OBJECT) {
+                return value.asJsonObject();
+            }
+        } catch (IOException | JsonException e) {
+            LOG.log(System.Logger.Level.WARNING, Message.thatReadingFileFailed(path), e);
+        }
+        return JsonValue.EMPTY_JSON_OBJECT;
+    }
+
     /**
      * Loads a configuration JSON.
      *
@@ -216,8 +769,26 @@ public class DefaultTestLoader implements TestLoader {
      * @return the loaded configuration JSON if succeeded, otherwise empty JSON object.
      */
     private JsonObject loadConfig(Path path) {
-        try (InputStream in = Files.newInputStream(path);
-             JsonReader reader = jsonProvider.createReader(in)) {
+        try (InputStream in = Files.newInputStream(path)) {
+            JsonObject config = parseConfig(path, in);
+            if (config != null) {
+                return config;
+            }
+        } catch (IOException e) {
+            addProblem(path, Message.thatReadingFileFailed(path));
+        }
+        return JsonValue.EMPTY_JSON_OBJECT;
+    }
+
+    /**
+     * Parses a configuration JSON.
+     *
+     * @param path the path from which the configuration is read.
+     * @param in   the stream to read.
+     * @return the parsed configuration JSON if succeeded, otherwise {@code null}.
+     */
+    private JsonObject parseConfig(Path path, InputStream in) {
+        try (JsonReader reader = jsonProvider.createReader(in)) {
             JsonValue value = reader.readValue();
             if (value.getValueType() == ValueType.OBJECT) {
                 return value.asJsonObject();
@@ -225,30 +796,52 @@ public class DefaultTestLoader implements TestLoader {
             addProblem(path, Message.thatJsonValueTypeMismatched(value.getValueType()));
         } catch (JsonException e) {
             addProblem(path, Message.thatJsonIsIllFormed(e));
-        } catch (IOException e) {
-            addProblem(path, Message.thatReadingFileFailed(path));
         }
-        return JsonValue.EMPTY_JSON_OBJECT;
+        return null;
     }
 
     private JsonObject mergeJson(JsonObject base, JsonObject json) {
-        return jsonCombiner.apply(base, json);
+        return jsonCombiner.apply(base, inheritTags(base, json));
     }
 
     /**
-     * Expands all of the properties in the specified JSON.
+     * Adds the tags of the parent node to the tags of the node,
+     * because the tags are accumulated instead of overridden.
      *
-     * @param path the path to the JSON.
-     * @param json the JSON to be expanded.
-     * @return the expanded JSON if succeeded, otherwise original JSON.
+     * @param base the configuration of the parent node.
+     * @param json the configuration of the node.
+     * @return the configuration of the node with the inherited tags.
      */
-    private JsonObject expandJson(Path path, JsonObject json) {
-        try {
-            return jsonExpander.apply(json);
-        } catch (PropertyException e) {
-            addProblem(path, Message.thatPropertyIsIllegal(e));
+    private JsonObject inheritTags(JsonObject base, JsonObject json) {
+        JsonValue tags = json.get(Parameter.TAGS);
+        JsonValue inherited = base.get(Parameter.TAGS);
+        if (tags == null || inherited == null) {
             return json;
         }
+        Set<String> union = new LinkedHashSet<>(AbstractNode.toTags(inherited));
+        union.addAll(AbstractNode.toTags(tags));
+        JsonArrayBuilder builder = jsonProvider.createArrayBuilder();
+        union.forEach(builder::add);
+        return jsonProvider.createObjectBuilder(json)
+                .add(Parameter.TAGS, builder)
+                .build();
+    }
+
+    /**
+     * Expands all of the properties in the merged configuration.
+     * The properties already resolved by the parent node are reused if available.
+     *
+     * @param merged      the configuration to be expanded.
+     * @param raw         the configuration of the node as written in the file.
+     * @param base        the compiled configuration of the parent node.
+     * @param fingerprint the fingerprint of the node.
+     * @return the compiled configuration.
+     * @throws PropertyException if an illegal property was detected.
+     */
+    private CompiledConfig expandJson(JsonObject merged, JsonObject raw, CompiledConfig base, long fingerprint) {
+        PropertyTable properties = jsonExpander.resolveProperties(merged, raw, base.getProperties());
+        JsonObject expanded = jsonExpander.expand(merged, properties);
+        return new CompiledConfig(merged, expanded, properties, fingerprint);
     }
 
     private void addProblem(String message) {
@@ -270,6 +863,82 @@ public class DefaultTestLoader implements TestLoader {
         }
     }
 
+    private static CompiledConfig createDefaultConfig(JsonObject json) {
+        long fingerprint = ProjectCache.hash(json.toString().getBytes(StandardCharsets.UTF_8));
+        return new CompiledConfig(json, json, fingerprint);
+    }
+
+    /**
+     * A node loaded previously.
+     *
+     * @author leadpony
+     */
+    private static class LoadedNode {
+
+        final CompiledConfig base;
+        final CompiledConfig config;
+        final AbstractNode node;
+
+        LoadedNode(CompiledConfig base, CompiledConfig config, AbstractNode node) {
+            this.base = base;
+            this.config = config;
+            this.node = node;
+        }
+    }
+
+    /**
+     * The paths changed since the last loading.
+     *
+     * @author leadpony
+     */
+    private static class ChangeSet {
+
+        private final Set<Path> changed = new HashSet<>();
+        private final Set<Path> affectedDirs = new HashSet<>();
+
+        /**
+         * Constructs this set.
+         *
+         * @param rootDir the root directory of the project.
+         * @param paths   the changed paths in any form.
+         */
+        ChangeSet(Path rootDir, Collection<Path> paths) {
+            final Path absoluteRoot = rootDir.toAbsolutePath().normalize();
+            for (Path path : paths) {
+                Path absolute = path.toAbsolutePath().normalize();
+                if (!absolute.startsWith(absoluteRoot)) {
+                    continue;
+                }
+                // Converts to the same form as the paths found by the loader.
+                Path found = rootDir.resolve(absoluteRoot.relativize(absolute).toString());
+                changed.add(found);
+                for (Path dir = found.getParent(); dir != null; dir = dir.getParent()) {
+                    if (!affectedDirs.add(dir)) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        boolean contains(Path path) {
+            return changed.contains(path);
+        }
+
+        Set<Path> getChanged() {
+            return changed;
+        }
+
+        /**
+         * Checks whether any descendants of the directory were changed.
+         *
+         * @param dir the directory to check.
+         * @return {@code true} if the directory or any of its descendants were changed.
+         */
+        boolean affects(Path dir) {
+            return affectedDirs.contains(dir) || changed.contains(dir);
+        }
+    }
+
     private static class ConfigurationProblem implements Problem {
 
         private final String description;
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import javax.json.JsonValue;
+
+import org.leadpony.duel.core.internal.common.JsonIndex;
+import org.leadpony.duel.core.spi.MediaType;
+
+/**
+ * A response body buffered as a byte array, which provides a JSON value
+ * decoded lazily through {@link JsonIndex}.
+ * <p>
+ * Only the parts of the JSON visited by the assertions are decoded.
+ * The body in a charset other than UTF-8 is parsed eagerly.
+ * </p>
+ *
+ * @author leadpony
+ */
+class IndexedResponseBody extends ResponseBodyImpl {
+
+    private final TestExecutionContext context;
+
+    IndexedResponseBody(byte[] byteArray, Optional<MediaType> mediaType, TestExecutionContext context,
+            long wireSize, long nanosToHeaders, long nanosToBody) {
+        super(byteArray, mediaType, context, wireSize, nanosToHeaders, nanosToBody);
+        this.context = context;
+    }
+
+    @Override
+    protected JsonValue getJsonValue() {
+        if (!guessEncoding().equals(StandardCharsets.UTF_8)) {
+            return super.getJsonValue();
+        }
+        return JsonIndex.build(asByteArray(), context.getJsonProvider()).getRoot();
+    }
+}
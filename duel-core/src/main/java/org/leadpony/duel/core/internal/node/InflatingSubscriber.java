@@ -0,0 +1,373 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.io.IOException;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow.Subscription;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.leadpony.duel.core.internal.Message;
+
+/**
+ * A subscriber of the response body which decompresses the body encoded
+ * with gzip or deflate while the bytes are arriving,
+ * and passes the decoded bytes to the downstream subscriber.
+ * <p>
+ * The gzip members concatenated are decoded one after another,
+ * while any bytes following the deflate stream break the body.
+ * The body without any bytes is passed as empty.
+ * </p>
+ *
+ * @param <T> the type of the response body.
+ * @author leadpony
+ */
+class InflatingSubscriber<T> implements BodySubscriber<T> {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private static final int OUTPUT_BUFFER_SIZE = 16 * 1024;
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final BodySubscriber<T> downstream;
+    private final String encoding;
+    private final AtomicLong wireSize;
+    private final CRC32 crc = new CRC32();
+    private Inflater inflater;
+    private Subscription subscription;
+    private boolean failed;
+
+    // the part of the gzip header, the gzip trailer or the zlib header received so far
+    private byte[] pending = new byte[0];
+    private boolean headerDone;
+    private boolean trailerDone;
+    // the number of the bytes decoded from the current gzip member
+    private long decodedSize;
+
+    /**
+     * Constructs this subscriber.
+     *
+     * @param downstream the subscriber receiving the decoded bytes.
+     * @param encoding   the content encoding, either {@link #GZIP} or {@link #DEFLATE}.
+     * @param wireSize   the counter of the bytes received before decoding.
+     */
+    InflatingSubscriber(BodySubscriber<T> downstream, String encoding, AtomicLong wireSize) {
+        this.downstream = downstream;
+        this.encoding = encoding;
+        this.wireSize = wireSize;
+        this.headerDone = !encoding.equals(GZIP);
+    }
+
+    /**
+     * Checks whether the content encoding is supported or not.
+     *
+     * @param encoding the value of the Content-Encoding header field.
+     * @return {@code true} if the encoding is supported.
+     */
+    static boolean supports(String encoding) {
+        return encoding.equals(GZIP) || encoding.equals(DEFLATE);
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return downstream.getBody();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        downstream.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        if (failed) {
+            return;
+        }
+        List<ByteBuffer> decoded = new ArrayList<>();
+        try {
+            for (ByteBuffer buffer : item) {
+                wireSize.addAndGet(buffer.remaining());
+                decode(buffer, decoded);
+            }
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        if (decoded.isEmpty()) {
+            // the demand of the downstream is not consumed.
+            subscription.request(1);
+        } else {
+            downstream.onNext(decoded);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (failed) {
+            return;
+        }
+        end();
+        downstream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (failed) {
+            return;
+        }
+        // the body may be empty even if the encoding is given, as in the response to HEAD.
+        boolean empty = inflater == null && pending.length == 0;
+        boolean complete = empty || (inflater != null && inflater.finished()
+                && (!encoding.equals(GZIP) || trailerDone));
+        end();
+        if (complete) {
+            downstream.onComplete();
+        } else {
+            downstream.onError(new IOException(Message.thatContentEncodingIsBroken(encoding)));
+        }
+    }
+
+    /**
+     * Decodes the input, which may contain the gzip members one after another.
+     */
+    private void decode(ByteBuffer input, List<ByteBuffer> decoded) throws IOException {
+        while (true) {
+            if (!headerDone) {
+                input = readGzipHeader(input);
+                if (input == null) {
+                    return;
+                } else if (inflater != null) {
+                    // starts the next member.
+                    inflater.reset();
+                }
+            }
+            if (inflater == null) {
+                if (!encoding.equals(GZIP)) {
+                    // needs the first two bytes to detect the zlib header.
+                    input = ByteBuffer.wrap(append(pending, input));
+                    if (input.remaining() < 2) {
+                        pending = input.array();
+                        return;
+                    }
+                    pending = new byte[0];
+                }
+                inflater = createInflater(input);
+            }
+            if (!inflater.finished()) {
+                inflate(input, decoded);
+            }
+            if (!inflater.finished() || !readGzipTrailer(input)) {
+                return;
+            }
+        }
+    }
+
+    private void inflate(ByteBuffer input, List<ByteBuffer> decoded) throws IOException {
+        inflater.setInput(input);
+        try {
+            ByteBuffer output = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+            while (!inflater.finished()) {
+                int length = inflater.inflate(output);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                if (!output.hasRemaining()) {
+                    decoded.add(complete(output));
+                    output = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+                }
+            }
+            if (output.position() > 0) {
+                decoded.add(complete(output));
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(Message.thatContentEncodingIsBroken(encoding), e);
+        }
+        if (inflater.needsDictionary()) {
+            throw new IOException(Message.thatContentEncodingIsBroken(encoding));
+        }
+    }
+
+    private ByteBuffer complete(ByteBuffer output) {
+        output.flip();
+        decodedSize += output.remaining();
+        if (encoding.equals(GZIP)) {
+            crc.update(output.duplicate());
+        }
+        return output;
+    }
+
+    /**
+     * Creates the inflater for the first bytes of the compressed data.
+     * The deflate encoding should be wrapped with zlib,
+     * but the raw deflate sent by some servers is also accepted.
+     */
+    private Inflater createInflater(ByteBuffer input) {
+        if (encoding.equals(GZIP)) {
+            return new Inflater(true);
+        }
+        int cmf = input.get(input.position()) & 0xff;
+        int flg = input.get(input.position() + 1) & 0xff;
+        boolean zlib = (cmf & 0x0f) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new Inflater(!zlib);
+    }
+
+    /**
+     * Reads the gzip header.
+     *
+     * @return the rest of the input following the header,
+     *         or {@code null} if the header is not complete yet.
+     */
+    private ByteBuffer readGzipHeader(ByteBuffer input) throws IOException {
+        byte[] bytes = append(pending, input);
+        int length = measureGzipHeader(bytes);
+        if (length < 0) {
+            pending = bytes;
+            return null;
+        }
+        pending = new byte[0];
+        headerDone = true;
+        return ByteBuffer.wrap(bytes, length, bytes.length - length);
+    }
+
+    /**
+     * Measures the length of the gzip header.
+     *
+     * @return the length of the header, or -1 if more bytes are needed.
+     */
+    private int measureGzipHeader(byte[] bytes) throws IOException {
+        if (bytes.length < GZIP_HEADER_SIZE) {
+            return -1;
+        }
+        int magic = (bytes[0] & 0xff) | ((bytes[1] & 0xff) << 8);
+        if (magic != GZIP_MAGIC || bytes[2] != 8) {
+            throw new IOException(Message.thatContentEncodingIsBroken(encoding));
+        }
+        int flags = bytes[3] & 0xff;
+        int offset = GZIP_HEADER_SIZE;
+        if ((flags & FEXTRA) != 0) {
+            if (bytes.length < offset + 2) {
+                return -1;
+            }
+            offset += 2 + ((bytes[offset] & 0xff) | ((bytes[offset + 1] & 0xff) << 8));
+        }
+        if ((flags & FNAME) != 0) {
+            offset = skipZeroTerminated(bytes, offset);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            offset = skipZeroTerminated(bytes, offset);
+        }
+        if ((flags & FHCRC) != 0 && offset >= 0) {
+            offset += 2;
+        }
+        return (offset >= 0 && offset <= bytes.length) ? offset : -1;
+    }
+
+    private static int skipZeroTerminated(byte[] bytes, int offset) {
+        if (offset < 0) {
+            return offset;
+        }
+        for (int i = offset; i < bytes.length; i++) {
+            if (bytes[i] == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads and verifies the gzip trailer following the compressed data.
+     *
+     * @return {@code true} if the next gzip member follows the trailer,
+     *         {@code false} if more bytes are needed.
+     */
+    private boolean readGzipTrailer(ByteBuffer input) throws IOException {
+        if (!encoding.equals(GZIP)) {
+            if (input.hasRemaining()) {
+                // no bytes are allowed after the compressed data.
+                throw new IOException(Message.thatContentEncodingIsBroken(encoding));
+            }
+            return false;
+        }
+        if (!trailerDone) {
+            int length = Math.min(GZIP_TRAILER_SIZE - pending.length, input.remaining());
+            pending = append(pending, input.slice().limit(length));
+            input.position(input.position() + length);
+            if (pending.length < GZIP_TRAILER_SIZE) {
+                return false;
+            }
+            long expectedCrc = readInt(pending, 0);
+            long expectedSize = readInt(pending, 4);
+            if (expectedCrc != crc.getValue() || expectedSize != (decodedSize & 0xffffffffL)) {
+                throw new IOException(Message.thatContentEncodingIsBroken(encoding));
+            }
+            pending = new byte[0];
+            trailerDone = true;
+        }
+        if (!input.hasRemaining()) {
+            return false;
+        }
+        // the members concatenated are decoded as a single body.
+        headerDone = false;
+        trailerDone = false;
+        crc.reset();
+        decodedSize = 0;
+        return true;
+    }
+
+    private static long readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xffL)
+                | ((bytes[offset + 1] & 0xffL) << 8)
+                | ((bytes[offset + 2] & 0xffL) << 16)
+                | ((bytes[offset + 3] & 0xffL) << 24);
+    }
+
+    private static byte[] append(byte[] bytes, ByteBuffer input) {
+        byte[] result = new byte[bytes.length + input.remaining()];
+        System.arraycopy(bytes, 0, result, 0, bytes.length);
+        input.get(result, bytes.length, input.remaining());
+        return result;
+    }
+
+    private void fail(IOException e) {
+        failed = true;
+        subscription.cancel();
+        end();
+        downstream.onError(e);
+    }
+
+    private void end() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+}
@@ -18,7 +18,11 @@ package org.leadpony.duel.core.internal.node;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -42,6 +46,7 @@ public class JsonExpander implements Function<JsonObject, JsonObject> {
 
     private final JsonProvider jsonProvider;
     private final JsonBuilderFactory builderFactory;
+    private final Template.Cache templates = new Template.Cache();
 
     JsonExpander(JsonProvider jsonProvider) {
         this.jsonProvider = jsonProvider;
@@ -56,11 +61,59 @@ public class JsonExpander implements Function<JsonObject, JsonObject> {
      */
     @Override
     public JsonObject apply(JsonObject object) {
-        JsonObject properties = extractProperties(object);
-        if (properties.isEmpty()) {
+        return expand(object, resolveProperties(object, JsonValue.EMPTY_JSON_OBJECT, null));
+    }
+
+    /**
+     * Expands all the properties in the specified JSON object with the
+     * resolved properties.
+     *
+     * @param object     the JSON object to expand.
+     * @param properties the table of the resolved properties.
+     * @return the JSON with the properties expanded.
+     */
+    JsonObject expand(JsonObject object, PropertyTable properties) {
+        JsonObject values = properties.getValues();
+        if (values.isEmpty()) {
             return object;
         }
-        return expandObject(object, expandProperties(properties));
+        return expandObject(object, values);
+    }
+
+    /**
+     * Resolves the properties of a node.
+     * <p>
+     * If the table of the parent node is given, only the properties
+     * overridden by the node and the properties depending on them are
+     * resolved, and the others are taken from the table of the parent.
+     * </p>
+     *
+     * @param object     the configuration of the node merged with its ancestors.
+     * @param overriding the configuration of the node as written in the file.
+     * @param parent     the table of the parent node, may be {@code null}.
+     * @return the table of the resolved properties.
+     * @throws PropertyException if an illegal property was detected.
+     */
+    PropertyTable resolveProperties(JsonObject object, JsonObject overriding, PropertyTable parent) {
+        JsonObject properties = extractProperties(object);
+        JsonValue overridden = overriding.get(PROPERTIES_KEY);
+        if (parent == null
+                || (overridden != null && overridden.getValueType() != ValueType.OBJECT)) {
+            return resolveAllProperties(properties);
+        } else if (overridden == null || overridden.asJsonObject().isEmpty()) {
+            return parent;
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : overridden.asJsonObject().keySet()) {
+            names.add(name);
+            parent.collectDependents(name, names);
+        }
+
+        Map<String, JsonValue> resolved = new HashMap<>();
+        Map<String, Set<String>> dependencies = new HashMap<>();
+        resolveProperties(properties, names, parent, resolved, dependencies);
+        return new PropertyTable(parent, properties, resolved, dependencies, builderFactory);
     }
 
     private static JsonObject extractProperties(JsonObject object) {
@@ -73,33 +126,51 @@ public class JsonExpander implements Function<JsonObject, JsonObject> {
         return JsonValue.EMPTY_JSON_OBJECT;
     }
 
-    private JsonObject expandProperties(JsonObject properties) {
-        var finder = new ExpandingPropertyFinder(properties, jsonProvider, builderFactory);
+    private PropertyTable resolveAllProperties(JsonObject properties) {
+        if (properties.isEmpty()) {
+            return new PropertyTable(properties, Collections.emptyMap());
+        }
+        Map<String, JsonValue> resolved = new LinkedHashMap<>();
+        Map<String, Set<String>> dependencies = new HashMap<>();
+        resolveProperties(properties, properties.keySet(), null, resolved, dependencies);
         var builder = builderFactory.createObjectBuilder();
+        resolved.forEach(builder::add);
+        return new PropertyTable(builder.build(), dependencies);
+    }
+
+    private void resolveProperties(JsonObject properties, Set<String> names, PropertyTable parent,
+            Map<String, JsonValue> resolved, Map<String, Set<String>> dependencies) {
+        var finder = new ExpandingPropertyFinder(properties, parent, names, jsonProvider, builderFactory, templates);
         var errors = new ArrayList<String>();
 
-        properties.forEach((name, value) -> {
+        for (String name : names) {
+            JsonValue value = properties.get(name);
+            if (value == null) {
+                continue;
+            }
             if (value.getValueType() == ValueType.STRING) {
                 try {
-                    builder.add(name, finder.apply(name));
+                    Set<String> referenced = new HashSet<>();
+                    resolved.put(name, jsonProvider.createValue(finder.resolve(name, referenced)));
+                    if (!referenced.isEmpty()) {
+                        dependencies.put(name, referenced);
+                    }
                 } catch (ExpansionException e) {
                     errors.add(Message.thatPropertyExpansionLoopsInfinite(name, e));
                 }
             } else {
-                builder.add(name, value);
+                resolved.put(name, value);
             }
-        });
+        }
 
-        if (errors.isEmpty()) {
-            return builder.build();
-        } else {
+        if (!errors.isEmpty()) {
             throw new PropertyException(errors);
         }
     }
 
     private JsonObject expandObject(JsonObject object, JsonObject properties) {
         Function<String, String> finder = new SimplePropertyFinder(properties);
-        ValueExpander expander = new ValueExpander(finder, jsonProvider, builderFactory);
+        ValueExpander expander = new ValueExpander(finder, jsonProvider, builderFactory, templates);
         JsonObjectBuilder builder = this.builderFactory.createObjectBuilder();
         builder.add(PROPERTIES_KEY, properties);
         object.forEach((name, value) -> {
@@ -133,18 +204,60 @@ public class JsonExpander implements Function<JsonObject, JsonObject> {
         }
     }
 
+    /**
+     * A property finder which expands the found property recursively.
+     * The properties not to be resolved are taken from the table of the parent.
+     */
     private static class ExpandingPropertyFinder extends SimplePropertyFinder {
 
         final ValueExpander expander;
         final Set<String> nameSet = new LinkedHashSet<>();
+        private final PropertyTable parent;
+        private final Set<String> unresolved;
+        private Set<String> dependencies;
 
-        ExpandingPropertyFinder(JsonObject properties, JsonProvider jsonProvider, JsonBuilderFactory builderFactory) {
+        ExpandingPropertyFinder(JsonObject properties, PropertyTable parent, Set<String> unresolved,
+                JsonProvider jsonProvider, JsonBuilderFactory builderFactory, Template.Cache templates) {
             super(properties);
-            this.expander = new ValueExpander(this, jsonProvider, builderFactory);
+            this.parent = parent;
+            this.unresolved = unresolved;
+            this.expander = new ValueExpander(this, jsonProvider, builderFactory, templates);
+        }
+
+        /**
+         * Resolves the property.
+         *
+         * @param name         the name of the property.
+         * @param dependencies the set to which the names of the referenced
+         *                     properties will be added.
+         * @return the resolved value.
+         */
+        String resolve(String name, Set<String> dependencies) {
+            this.dependencies = dependencies;
+            try {
+                return apply(name);
+            } finally {
+                this.dependencies = null;
+                dependencies.remove(name);
+            }
         }
 
         @Override
         public String apply(String name) {
+            if (dependencies != null) {
+                dependencies.add(name);
+            }
+
+            if (parent != null && !unresolved.contains(name)) {
+                JsonValue value = parent.getValues().get(name);
+                if (value != null && value.getValueType() == ValueType.STRING) {
+                    if (dependencies != null) {
+                        dependencies.addAll(parent.getDependencies(name));
+                    }
+                    return ((JsonString) value).getString();
+                }
+            }
+
             if (nameSet.contains(name)) {
                 var names = new ArrayList<String>(nameSet);
                 names.add(name);
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.io.IOException;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow.Subscription;
+import java.util.function.LongSupplier;
+
+import javax.json.JsonException;
+import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+
+import org.leadpony.duel.core.internal.Message;
+import org.leadpony.duel.core.internal.common.IncrementalJsonParser;
+import org.leadpony.duel.core.internal.common.SpillableBuffer;
+import org.leadpony.duel.core.spi.MediaType;
+import org.leadpony.duel.core.spi.ResponseBody;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * A subscriber of the response body which parses the body as a JSON
+ * while the bytes are arriving.
+ * <p>
+ * The bytes are not retained after parsing unless requested.
+ * If the body is not a valid JSON, the parsing stops at the error
+ * and the rest of the body is discarded.
+ * </p>
+ * <p>
+ * The body exceeding the maximum size either fails as soon as detected,
+ * or has its retained bytes spilled to a temporary file.
+ * In the latter case, the parsing stops at the maximum size
+ * and the body is not available as a JSON.
+ * </p>
+ *
+ * @author leadpony
+ */
+class JsonStreamingSubscriber implements BodySubscriber<ResponseBody> {
+
+    private final IncrementalJsonParser parser;
+    private final SpillableBuffer retained;
+    private final long maxSize;
+    private final boolean spills;
+    private final Optional<MediaType> mediaType;
+    private final LongSupplier wireSize;
+    private final long sent;
+    private final long nanosToHeaders;
+    private final CompletableFuture<ResponseBody> result = new CompletableFuture<>();
+
+    private Subscription subscription;
+    private long size;
+    private JsonException failure;
+
+    /**
+     * Constructs this subscriber.
+     *
+     * @param jsonProvider   the JSON provider which creates the JSON values.
+     * @param retainsBytes   {@code true} if the bytes are retained.
+     * @param maxSize        the maximum size of the body, or {@link Long#MAX_VALUE} if unlimited.
+     * @param spills         {@code true} if the retained bytes exceeding the maximum size are spilled,
+     *                       {@code false} if the body exceeding the maximum size fails.
+     * @param mediaType      the media type of the body.
+     * @param wireSize       the supplier of the size of the encoded body as received.
+     * @param sent           the time when the request was sent, in nanoseconds.
+     * @param nanosToHeaders the time taken to receive the header fields, in nanoseconds.
+     */
+    JsonStreamingSubscriber(JsonProvider jsonProvider, boolean retainsBytes, long maxSize, boolean spills,
+            Optional<MediaType> mediaType, LongSupplier wireSize, long sent, long nanosToHeaders) {
+        this.parser = new IncrementalJsonParser(jsonProvider);
+        this.retained = retainsBytes ? new SpillableBuffer(maxSize) : null;
+        this.maxSize = maxSize;
+        this.spills = spills;
+        this.mediaType = mediaType;
+        this.wireSize = wireSize;
+        this.sent = sent;
+        this.nanosToHeaders = nanosToHeaders;
+    }
+
+    @Override
+    public CompletionStage<ResponseBody> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            for (ByteBuffer buffer : item) {
+                if (!spills && size + buffer.remaining() > maxSize) {
+                    fail(new AssertionFailedError(Message.thatResponseSizeExceeded(maxSize)));
+                    return;
+                } else if (retained != null && size + buffer.remaining() > SpillableBuffer.MAX_SPILLED_SIZE) {
+                    fail(new AssertionFailedError(
+                            Message.thatSpilledResponseSizeExceeded(SpillableBuffer.MAX_SPILLED_SIZE)));
+                    return;
+                }
+                size += buffer.remaining();
+                if (retained != null) {
+                    retained.write(buffer.duplicate());
+                }
+                // stops building the JSON value which would not fit in the maximum size.
+                if (size > maxSize) {
+                    continue;
+                }
+                if (failure == null) {
+                    try {
+                        parser.feed(buffer);
+                    } catch (JsonException e) {
+                        failure = e;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        release();
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (result.isDone()) {
+            return;
+        }
+        long nanosToBody = System.nanoTime() - sent;
+        JsonValue json = null;
+        if (failure == null && size <= maxSize) {
+            try {
+                json = parser.end();
+            } catch (JsonException e) {
+                failure = e;
+            }
+        }
+        ByteBuffer content = null;
+        try {
+            if (retained != null) {
+                content = retained.isSpilled()
+                        ? retained.toByteBuffer()
+                        : ByteBuffer.wrap(retained.toByteArray());
+            }
+        } catch (IOException e) {
+            release();
+            result.completeExceptionally(e);
+            return;
+        }
+        release();
+        result.complete(new StreamedResponseBody(content, size, maxSize, json, failure,
+                mediaType, wireSize.getAsLong(), nanosToHeaders, nanosToBody));
+    }
+
+    /**
+     * Stops receiving the rest of the body.
+     */
+    private void fail(Throwable thrown) {
+        subscription.cancel();
+        release();
+        result.completeExceptionally(thrown);
+    }
+
+    private void release() {
+        if (retained == null) {
+            return;
+        }
+        try {
+            retained.close();
+        } catch (IOException e) {
+            // nothing more can be done for the temporary file.
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A filter which selects the nodes to be loaded.
+ * <p>
+ * The nodes are selected by their paths relative to the root directory of
+ * the project, by their names derived from the file names, and by their tags.
+ * All the criteria except tags are tested without reading any files.
+ * </p>
+ *
+ * @author leadpony
+ */
+class NodeFilter {
+
+    private static final String GLOB_SYNTAX = "glob:";
+    private static final String GLOB_CHARACTERS = "*?[{\\";
+
+    private final Path rootDir;
+    private final List<Glob> includedPaths;
+    private final List<PathMatcher> excludedPaths;
+    private final List<PathMatcher> names;
+    private final Set<String> includedTags;
+    private final Set<String> excludedTags;
+
+    /**
+     * Constructs this filter.
+     *
+     * @param rootDir       the root directory of the project.
+     * @param includedPaths the globs of the paths to include.
+     * @param excludedPaths the globs of the paths to exclude.
+     * @param names         the glob patterns of the names to include.
+     * @param includedTags  the tags to include.
+     * @param excludedTags  the tags to exclude.
+     */
+    NodeFilter(Path rootDir,
+            Collection<String> includedPaths,
+            Collection<String> excludedPaths,
+            Collection<String> names,
+            Set<String> includedTags,
+            Set<String> excludedTags) {
+        this.rootDir = rootDir.toAbsolutePath().normalize();
+        FileSystem fs = rootDir.getFileSystem();
+        this.includedPaths = new ArrayList<>();
+        for (String glob : includedPaths) {
+            this.includedPaths.add(new Glob(fs, glob));
+        }
+        this.excludedPaths = createMatchers(fs, excludedPaths);
+        this.names = createMatchers(fs, names);
+        this.includedTags = includedTags;
+        this.excludedTags = excludedTags;
+    }
+
+    /**
+     * Checks whether this filter selects all the nodes or not.
+     *
+     * @return {@code true} if this filter has no criteria.
+     */
+    boolean isEmpty() {
+        return includedPaths.isEmpty() && excludedPaths.isEmpty() && names.isEmpty()
+                && includedTags.isEmpty() && excludedTags.isEmpty();
+    }
+
+    /**
+     * Checks whether the directories need to be searched for the selected
+     * cases before loading them.
+     *
+     * @return {@code true} if the directories need to be searched.
+     */
+    boolean requiresDiscovery() {
+        return !includedPaths.isEmpty() || !names.isEmpty();
+    }
+
+    /**
+     * Checks whether the directory may contain any selected nodes.
+     *
+     * @param dir the directory to check.
+     * @return {@code true} if the directory may contain selected nodes.
+     */
+    boolean acceptsDirectory(Path dir) {
+        Path relative = relativize(dir);
+        if (matchesAny(excludedPaths, relative)) {
+            return false;
+        }
+        if (includedPaths.isEmpty()) {
+            return true;
+        }
+        for (Glob glob : includedPaths) {
+            if (glob.mayMatchUnder(relative)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the test case is selected by its path and name.
+     *
+     * @param path the path to the file of the test case.
+     * @param name the name of the test case derived from its file name.
+     * @return {@code true} if the test case is selected.
+     */
+    boolean acceptsCase(Path path, String name) {
+        Path relative = relativize(path);
+        if (matchesSelfOrAncestor(excludedPaths, relative)) {
+            return false;
+        }
+        if (!includedPaths.isEmpty()) {
+            boolean included = false;
+            for (Glob glob : includedPaths) {
+                if (matchesSelfOrAncestor(glob.matcher, relative)) {
+                    included = true;
+                    break;
+                }
+            }
+            if (!included) {
+                return false;
+            }
+        }
+        return names.isEmpty() || matchesName(relative, name);
+    }
+
+    /**
+     * Checks whether the test case is selected by its tags.
+     *
+     * @param tags the tags of the test case.
+     * @return {@code true} if the test case is selected.
+     */
+    boolean acceptsTags(Set<String> tags) {
+        if (rejectsTags(tags)) {
+            return false;
+        }
+        return includedTags.isEmpty() || !Collections.disjoint(includedTags, tags);
+    }
+
+    /**
+     * Checks whether the node and all of its descendants are rejected by
+     * the tags.
+     *
+     * @param tags the tags of the node.
+     * @return {@code true} if the node is rejected.
+     */
+    boolean rejectsTags(Set<String> tags) {
+        return !excludedTags.isEmpty() && !Collections.disjoint(excludedTags, tags);
+    }
+
+    private Path relativize(Path path) {
+        return rootDir.relativize(path.toAbsolutePath().normalize());
+    }
+
+    private boolean matchesName(Path relative, String name) {
+        Path fileName = relative.getFileSystem().getPath(name);
+        if (matchesAny(names, fileName)) {
+            return true;
+        }
+        for (Path dir = relative.getParent(); dir != null; dir = dir.getParent()) {
+            if (matchesAny(names, dir.getFileName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<PathMatcher> createMatchers(FileSystem fs, Collection<String> globs) {
+        List<PathMatcher> matchers = new ArrayList<>();
+        for (String glob : globs) {
+            matchers.add(fs.getPathMatcher(GLOB_SYNTAX + glob));
+        }
+        return matchers;
+    }
+
+    private static boolean matchesAny(List<PathMatcher> matchers, Path path) {
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesSelfOrAncestor(List<PathMatcher> matchers, Path path) {
+        for (PathMatcher matcher : matchers) {
+            if (matchesSelfOrAncestor(matcher, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesSelfOrAncestor(PathMatcher matcher, Path path) {
+        for (Path current = path; current != null; current = current.getParent()) {
+            if (matcher.matches(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A glob of the paths to include.
+     *
+     * @author leadpony
+     */
+    private static class Glob {
+
+        final PathMatcher matcher;
+        // the leading segments of the glob without any special characters.
+        final Path literalPrefix;
+
+        Glob(FileSystem fs, String glob) {
+            this.matcher = fs.getPathMatcher(GLOB_SYNTAX + glob);
+            this.literalPrefix = findLiteralPrefix(fs, glob);
+        }
+
+        /**
+         * Checks whether this glob may match the directory or any paths under it.
+         */
+        boolean mayMatchUnder(Path dir) {
+            if (literalPrefix == null || isEmpty(dir)) {
+                return true;
+            }
+            return literalPrefix.startsWith(dir) || dir.startsWith(literalPrefix);
+        }
+
+        private static boolean isEmpty(Path path) {
+            return path.getNameCount() == 1 && path.getFileName().toString().isEmpty();
+        }
+
+        private static Path findLiteralPrefix(FileSystem fs, String glob) {
+            List<String> segments = new ArrayList<>();
+            for (String segment : glob.split("/")) {
+                if (segment.isEmpty() || segment.chars().anyMatch(c -> GLOB_CHARACTERS.indexOf(c) >= 0)) {
+                    break;
+                }
+                segments.add(segment);
+            }
+            if (segments.isEmpty()) {
+                return null;
+            }
+            return fs.getPath(segments.get(0), segments.subList(1, segments.size()).toArray(new String[0]));
+        }
+    }
+}
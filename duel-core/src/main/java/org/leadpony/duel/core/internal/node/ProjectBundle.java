@@ -0,0 +1,402 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.json.JsonObject;
+import javax.json.spi.JsonProvider;
+
+import org.leadpony.duel.core.api.CaseNode;
+import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.Node;
+import org.leadpony.duel.core.api.TestLoader;
+import org.leadpony.duel.core.internal.common.BinaryJsonReader;
+import org.leadpony.duel.core.internal.common.BinaryJsonWriter;
+import org.leadpony.duel.core.internal.common.Lazy;
+
+/**
+ * A single file containing all of the nodes of a project.
+ * <p>
+ * The file starts with the header which points to the record of the root group.
+ * Each record of the nodes consists of the original configuration and the body
+ * holding the path, the effective configuration and the positions of the
+ * child records. Both parts are encoded independently of any other records,
+ * so that any node can be decoded directly from the memory-mapped file only
+ * when it is requested.
+ * </p>
+ * <p>
+ * The files sent as the request bodies are packed after the records, and the
+ * test cases in the bundle send the packed content instead of the files.
+ * The paths of the nodes are the locations at the time of packing, relative to
+ * the directory of the bundle, which need not exist when the bundle is used.
+ * </p>
+ *
+ * @author leadpony
+ */
+class ProjectBundle {
+
+    static final String FILE_EXTENSION = TestLoader.BUNDLE_FILE_EXTENSION;
+
+    private static final int MAGIC = 0x4450414b;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = Integer.BYTES * 4;
+
+    private final Path baseDir;
+    private final ByteBuffer buffer;
+    private final JsonProvider jsonProvider;
+    // the slices of the packed files, keyed by their paths relative to the base directory.
+    private final Map<String, ByteBuffer> resources = new HashMap<>();
+
+    /**
+     * Writes all of the nodes into a bundle.
+     *
+     * @param root the root group of the project.
+     * @param file the path to the bundle to write.
+     * @throws IOException if an I/O error occurred while writing the bundle.
+     */
+    static void write(GroupNode root, Path file) throws IOException {
+        Path rootDir = root.getNodePath().toAbsolutePath().normalize();
+        Path baseDir = rootDir.getParent();
+        if (baseDir == null) {
+            baseDir = rootDir;
+        }
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        Packer packer = new Packer(baseDir, new DataOutputStream(records));
+        int rootOffset = packer.writeGroup(root);
+        int resourcesOffset = packer.writeResources();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                DataOutputStream dataOut = new DataOutputStream(out);
+                dataOut.writeInt(MAGIC);
+                dataOut.writeInt(FORMAT_VERSION);
+                dataOut.writeInt(rootOffset);
+                dataOut.writeInt(resourcesOffset);
+                records.writeTo(dataOut);
+                dataOut.flush();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Opens a bundle and returns its root group.
+     * The nodes other than the root group are decoded when first requested.
+     *
+     * @param file         the path to the bundle.
+     * @param jsonProvider the JSON provider.
+     * @return the root group of the project.
+     * @throws IOException if the bundle cannot be read or is broken.
+     */
+    static RootTestGroup open(Path file, JsonProvider jsonProvider) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.limit() < HEADER_SIZE
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+            throw new IOException("Unsupported bundle: " + file);
+        }
+        ProjectBundle bundle = new ProjectBundle(file.toAbsolutePath().getParent(), buffer, jsonProvider);
+        bundle.readResources(buffer.getInt(Integer.BYTES * 3));
+        return bundle.readRootGroup(buffer.getInt(Integer.BYTES * 2));
+    }
+
+    private ProjectBundle(Path baseDir, ByteBuffer buffer, JsonProvider jsonProvider) {
+        this.baseDir = baseDir;
+        this.buffer = buffer;
+        this.jsonProvider = jsonProvider;
+    }
+
+    private RootTestGroup readRootGroup(int offset) throws IOException {
+        Record record = new Record(offset);
+        return new RootTestGroup(record.path, record.original(), record.expanded,
+                record.testCases(), record.subgroups(), jsonProvider);
+    }
+
+    private TestGroup readGroup(int offset) {
+        Record record = readRecord(offset);
+        return new TestGroup(record.path, record.original(), record.expanded,
+                record.testCases(), record.subgroups());
+    }
+
+    private TestCase readCase(int offset) {
+        Record record = readRecord(offset);
+        return new BundledTestCase(record.path, record.original(), record.expanded);
+    }
+
+    private void readResources(int offset) throws IOException {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset);
+        BinaryJsonReader reader = new BinaryJsonReader(
+                new DataInputStream(new BufferInputStream(slice)), jsonProvider);
+        int count = reader.readVarInt();
+        for (int i = 0; i < count; i++) {
+            String key = reader.readString();
+            int length = reader.readVarInt();
+            ByteBuffer content = slice.slice();
+            content.limit(length);
+            resources.put(key, content);
+            slice.position(slice.position() + length);
+        }
+    }
+
+    private Record readRecord(int offset) {
+        try {
+            return new Record(offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BinaryJsonReader readerAt(int offset) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset);
+        return new BinaryJsonReader(new DataInputStream(new BufferInputStream(slice)), jsonProvider);
+    }
+
+    /**
+     * A decoded record of a node.
+     *
+     * @author leadpony
+     */
+    private class Record {
+
+        final int originalOffset;
+        final Path path;
+        final JsonObject expanded;
+        final int[] testCases;
+        final int[] subgroups;
+
+        Record(int offset) throws IOException {
+            this.originalOffset = offset + Integer.BYTES;
+            int bodyOffset = originalOffset + buffer.getInt(offset);
+            BinaryJsonReader reader = readerAt(bodyOffset);
+            this.path = baseDir.resolve(reader.readString());
+            this.expanded = reader.readObject();
+            this.testCases = readOffsets(reader);
+            this.subgroups = readOffsets(reader);
+        }
+
+        Supplier<JsonObject> original() {
+            final ProjectBundle bundle = ProjectBundle.this;
+            final int offset = this.originalOffset;
+            return () -> {
+                try {
+                    return bundle.readerAt(offset).readObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+        }
+
+        Supplier<List<TestCase>> testCases() {
+            final int[] offsets = this.testCases;
+            return Lazy.of(() -> {
+                List<TestCase> children = new ArrayList<>(offsets.length);
+                for (int offset : offsets) {
+                    children.add(readCase(offset));
+                }
+                return children;
+            });
+        }
+
+        Supplier<List<TestGroup>> subgroups() {
+            final int[] offsets = this.subgroups;
+            return Lazy.of(() -> {
+                List<TestGroup> children = new ArrayList<>(offsets.length);
+                for (int offset : offsets) {
+                    children.add(readGroup(offset));
+                }
+                return children;
+            });
+        }
+
+        private int[] readOffsets(BinaryJsonReader reader) throws IOException {
+            int[] offsets = new int[reader.readVarInt()];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = reader.readVarInt();
+            }
+            return offsets;
+        }
+    }
+
+    private static String relativize(Path baseDir, Path path) {
+        Path relative = baseDir.relativize(path.toAbsolutePath().normalize());
+        return relative.toString().replace(relative.getFileSystem().getSeparator(), "/");
+    }
+
+    /**
+     * A test case decoded from the bundle, which sends the packed files.
+     *
+     * @author leadpony
+     */
+    private class BundledTestCase extends TestCase {
+
+        BundledTestCase(Path path, Supplier<JsonObject> original, JsonObject expanded) {
+            super(path, original, expanded);
+        }
+
+        @Override
+        BodyPublisher createFileBodyPublisher(Path file) {
+            ByteBuffer content = resources.get(relativize(baseDir, file));
+            if (content == null) {
+                return super.createFileBodyPublisher(file);
+            }
+            byte[] bytes = new byte[content.remaining()];
+            content.duplicate().get(bytes);
+            return BodyPublishers.ofByteArray(bytes);
+        }
+    }
+
+    /**
+     * A writer of the records. The children are written before their parent.
+     *
+     * @author leadpony
+     */
+    private static class Packer {
+
+        private final Path baseDir;
+        private final DataOutputStream out;
+        private final Map<String, Path> resources = new LinkedHashMap<>();
+
+        Packer(Path baseDir, DataOutputStream out) {
+            this.baseDir = baseDir;
+            this.out = out;
+        }
+
+        int writeGroup(GroupNode group) throws IOException {
+            List<Integer> testCases = new ArrayList<>();
+            for (CaseNode testCase : group.getTestCases()) {
+                testCases.add(writeRecord(testCase, List.of(), List.of()));
+                if (testCase instanceof TestCase) {
+                    ((TestCase) testCase).getRequestBodyFile().ifPresent(file -> {
+                        resources.putIfAbsent(relativize(baseDir, file), file);
+                    });
+                }
+            }
+            List<Integer> subgroups = new ArrayList<>();
+            for (GroupNode subgroup : group.getSubgroups()) {
+                subgroups.add(writeGroup(subgroup));
+            }
+            return writeRecord(group, testCases, subgroups);
+        }
+
+        private int writeRecord(Node node, List<Integer> testCases, List<Integer> subgroups) throws IOException {
+            final int offset = HEADER_SIZE + out.size();
+
+            ByteArrayOutputStream original = new ByteArrayOutputStream();
+            DataOutputStream originalOut = new DataOutputStream(original);
+            new BinaryJsonWriter(originalOut).write(node.getOriginalConfigurationAsJson());
+            originalOut.flush();
+            out.writeInt(original.size());
+            original.writeTo(out);
+
+            BinaryJsonWriter writer = new BinaryJsonWriter(out);
+            writer.writeString(relativize(baseDir, node.getNodePath()));
+            writer.write(node.getEffectiveConfigurationAsJson());
+            writeOffsets(writer, testCases);
+            writeOffsets(writer, subgroups);
+            return offset;
+        }
+
+        /**
+         * Writes the files referred by the test cases after all of the records.
+         *
+         * @return the offset of the resources.
+         * @throws IOException if an I/O error occurred while reading the files.
+         */
+        int writeResources() throws IOException {
+            final int offset = HEADER_SIZE + out.size();
+            BinaryJsonWriter writer = new BinaryJsonWriter(out);
+            writer.writeVarInt(resources.size());
+            for (Map.Entry<String, Path> entry : resources.entrySet()) {
+                byte[] content = Files.readAllBytes(entry.getValue());
+                writer.writeString(entry.getKey());
+                writer.writeVarInt(content.length);
+                out.write(content);
+            }
+            return offset;
+        }
+
+        private static void writeOffsets(BinaryJsonWriter writer, List<Integer> offsets) throws IOException {
+            writer.writeVarInt(offsets.size());
+            for (int offset : offsets) {
+                writer.writeVarInt(offset);
+            }
+        }
+    }
+
+    /**
+     * An input stream reading from a byte buffer.
+     *
+     * @author leadpony
+     */
+    private static class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int length = Math.min(len, buffer.remaining());
+            buffer.get(b, off, length);
+            return length;
+        }
+    }
+}
@@ -0,0 +1,481 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+import javax.json.spi.JsonProvider;
+
+import org.leadpony.duel.core.internal.common.BinaryJsonReader;
+import org.leadpony.duel.core.internal.common.BinaryJsonWriter;
+import org.leadpony.duel.core.internal.common.Lazy;
+
+/**
+ * A persistent cache of the compiled configurations of a project.
+ * <p>
+ * Each entry is keyed by the path of the configuration file and validated by
+ * the modification time and the size of the file, the hash of its content and
+ * the fingerprint of its ancestors. All entries are stored in a single file
+ * under the {@value #DIRECTORY} directory of the project.
+ * </p>
+ * <p>
+ * The file starts with the index of the entries, which maps each key to the offset
+ * of the entry. Opening the cache reads only the index, and each entry is decoded
+ * when it is first looked up. The compiled configuration of an entry is decoded
+ * only after the entry was found valid.
+ * </p>
+ *
+ * @author leadpony
+ */
+class ProjectCache {
+
+    static final String DIRECTORY = ".duel/cache";
+
+    private static final String FILE_NAME = "project.bin";
+    private static final int MAGIC = 0x4455454c;
+    private static final int FORMAT_VERSION = 3;
+
+    private final Path rootDir;
+    private final Path file;
+    private final JsonProvider jsonProvider;
+    // the offsets of the entries in the data section, keyed by the path.
+    private final Map<String, Integer> previous;
+    // the data section of the cache file.
+    private byte[] data;
+    private int dataOffset;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    private volatile boolean modified;
+    private volatile boolean saved;
+
+    /**
+     * Opens the cache of the project.
+     *
+     * @param rootDir      the root directory of the project.
+     * @param jsonProvider the JSON provider.
+     * @return the opened cache, which is empty if no cache was found or it is broken.
+     */
+    static ProjectCache open(Path rootDir, JsonProvider jsonProvider) {
+        return new ProjectCache(rootDir.toAbsolutePath().normalize(), jsonProvider);
+    }
+
+    /**
+     * Computes the fingerprint of the node from the hash of its content.
+     *
+     * @param parentFingerprint the fingerprint of the parent node.
+     * @param contentHash       the hash of the content of the node.
+     * @return the fingerprint of the node.
+     */
+    static long fingerprint(long parentFingerprint, long contentHash) {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * 2)
+                .putLong(parentFingerprint)
+                .putLong(contentHash);
+        return hash(buffer.array());
+    }
+
+    /**
+     * Computes the 64-bit hash of the specified content.
+     *
+     * @param content the content to hash.
+     * @return the hash of the content.
+     */
+    static long hash(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(content)).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ProjectCache(Path rootDir, JsonProvider jsonProvider) {
+        this.rootDir = rootDir;
+        this.file = rootDir.resolve(DIRECTORY).resolve(FILE_NAME);
+        this.jsonProvider = jsonProvider;
+        this.previous = readIndex();
+    }
+
+    /**
+     * Finds the configuration of the file which was not modified since it was cached.
+     *
+     * @param path       the path to the configuration file.
+     * @param attributes the current attributes of the file.
+     * @param parent     the fingerprint of the parent node.
+     * @return the cached configuration if found, otherwise {@code null}.
+     */
+    CompiledConfig findUnmodified(Path path, BasicFileAttributes attributes, long parent) {
+        String key = keyOf(path);
+        Entry entry = findPrevious(key);
+        if (entry == null
+                || entry.lastModified != attributes.lastModifiedTime().toMillis()
+                || entry.size != attributes.size()
+                || !entry.isValidFor(parent)) {
+            return null;
+        }
+        CompiledConfig config = entry.getConfig();
+        if (config != null) {
+            current.put(key, entry);
+        }
+        return config;
+    }
+
+    /**
+     * Finds the configuration of the file which has the same content as cached.
+     *
+     * @param path        the path to the configuration file.
+     * @param attributes  the current attributes of the file.
+     * @param contentHash the hash of the current content of the file.
+     * @param parent      the fingerprint of the parent node.
+     * @return the cached configuration if found, otherwise {@code null}.
+     */
+    CompiledConfig findUnchanged(Path path, BasicFileAttributes attributes, long contentHash, long parent) {
+        String key = keyOf(path);
+        Entry entry = findPrevious(key);
+        if (entry == null
+                || entry.contentHash != contentHash
+                || !entry.isValidFor(parent)) {
+            return null;
+        }
+        CompiledConfig config = entry.getConfig();
+        if (config != null) {
+            current.put(key, entry.touch(attributes));
+            modified = true;
+        }
+        return config;
+    }
+
+    /**
+     * Stores the compiled configuration of the file.
+     *
+     * @param path        the path to the configuration file.
+     * @param attributes  the attributes of the file.
+     * @param contentHash the hash of the content of the file.
+     * @param parent      the fingerprint of the parent node.
+     * @param config      the compiled configuration.
+     */
+    void store(Path path, BasicFileAttributes attributes, long contentHash, long parent, CompiledConfig config) {
+        Entry entry = new Entry(
+                attributes.lastModifiedTime().toMillis(),
+                attributes.size(),
+                contentHash,
+                parent,
+                findSystemProperties(config.getMerged()),
+                Lazy.of(() -> config));
+        current.put(keyOf(path), entry);
+        modified = true;
+    }
+
+    /**
+     * Saves the entries used while loading the project.
+     * <p>
+     * The entries of the previous cache not used are carried forward
+     * as long as their files still exist, because the nodes not visited
+     * by a partial loading, such as the filtered one, are still valid.
+     * </p>
+     * <p>
+     * This may be called repeatedly, as while loading lazily,
+     * and writes the file again only if any entry was stored since the last call.
+     * </p>
+     */
+    synchronized void save() {
+        if (saved && !modified) {
+            return;
+        }
+        saved = true;
+        // the entries stored after this point will be written by the next call.
+        boolean stored = modified;
+        modified = false;
+        Map<String, Entry> entries = new HashMap<>(current);
+        boolean discarded = false;
+        for (String key : previous.keySet()) {
+            if (entries.containsKey(key)) {
+                continue;
+            }
+            Entry entry = Files.isRegularFile(rootDir.resolve(key)) ? findPrevious(key) : null;
+            if (entry != null && entry.getConfig() != null) {
+                entries.put(key, entry);
+            } else {
+                discarded = true;
+            }
+        }
+        if (!stored && !discarded) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    writeEntries(entries, new DataOutputStream(new BufferedOutputStream(out)));
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // The cache is only an optimization.
+        }
+    }
+
+    private String keyOf(Path path) {
+        Path relative = rootDir.relativize(path.toAbsolutePath().normalize());
+        return relative.toString().replace(relative.getFileSystem().getSeparator(), "/");
+    }
+
+    /**
+     * Finds the system properties which will be referenced while expanding
+     * the specified configuration.
+     *
+     * @param merged the configuration to expand.
+     * @return the names and the current values of the system properties.
+     */
+    private static Map<String, String> findSystemProperties(JsonObject merged) {
+        JsonValue properties = merged.getOrDefault(JsonExpander.PROPERTIES_KEY, JsonValue.EMPTY_JSON_OBJECT);
+        Map<String, String> found = new TreeMap<>();
+        findSystemProperties(merged, properties, found);
+        return found.isEmpty() ? Collections.emptyMap() : found;
+    }
+
+    private static void findSystemProperties(JsonValue value, JsonValue properties, Map<String, String> found) {
+        switch (value.getValueType()) {
+        case ARRAY:
+            value.asJsonArray().forEach(item -> findSystemProperties(item, properties, found));
+            break;
+        case OBJECT:
+            value.asJsonObject().values().forEach(item -> findSystemProperties(item, properties, found));
+            break;
+        case STRING:
+            String string = ((JsonString) value).getString();
+            if (!Template.mayContainPlaceholder(string)) {
+                break;
+            }
+            for (String name : Template.compile(string).getPlaceholders()) {
+                if (properties.getValueType() != ValueType.OBJECT
+                        || !properties.asJsonObject().containsKey(name)) {
+                    found.put(name, System.getProperty(name));
+                }
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    private Map<String, Integer> readIndex() {
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            Map<String, Integer> index = readIndex(in);
+            // The rest of the file is the data section.
+            this.data = bytes;
+            this.dataOffset = bytes.length - in.available();
+            return index;
+        } catch (NoSuchFileException e) {
+            return Collections.emptyMap();
+        } catch (IOException | RuntimeException e) {
+            // The broken cache will be overwritten.
+            return Collections.emptyMap();
+        }
+    }
+
+    private Map<String, Integer> readIndex(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            return Collections.emptyMap();
+        }
+        BinaryJsonReader reader = new BinaryJsonReader(in, jsonProvider);
+        final int size = reader.readVarInt();
+        Map<String, Integer> index = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            String key = reader.readString();
+            index.put(key, reader.readVarInt());
+        }
+        return index;
+    }
+
+    /**
+     * Decodes the entry of the previous cache.
+     *
+     * @param key the key of the entry.
+     * @return the entry found, or {@code null} if not found or broken.
+     */
+    private Entry findPrevious(String key) {
+        Integer offset = previous.get(key);
+        if (offset == null) {
+            return null;
+        }
+        try {
+            return readEntry(dataOffset + offset);
+        } catch (IOException | RuntimeException e) {
+            // The broken entry will be overwritten.
+            return null;
+        }
+    }
+
+    private Entry readEntry(int offset) throws IOException {
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(data, offset, data.length - offset));
+        BinaryJsonReader reader = new BinaryJsonReader(in, jsonProvider);
+        long lastModified = in.readLong();
+        long fileSize = in.readLong();
+        long contentHash = in.readLong();
+        long parent = in.readLong();
+        long fingerprint = in.readLong();
+        Map<String, String> systemProperties = new TreeMap<>();
+        final int properties = reader.readVarInt();
+        for (int j = 0; j < properties; j++) {
+            String name = reader.readString();
+            systemProperties.put(name, in.readBoolean() ? reader.readString() : null);
+        }
+        // The configuration is decoded only when the entry is valid.
+        Lazy<CompiledConfig> config = Lazy.of(() -> {
+            try {
+                JsonObject merged = reader.readObject();
+                JsonObject expanded = reader.readObject();
+                return new CompiledConfig(merged, expanded, fingerprint);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return new Entry(lastModified, fileSize, contentHash, parent, systemProperties, config);
+    }
+
+    private static void writeEntries(Map<String, Entry> entries, DataOutputStream out) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(data);
+        Map<String, Integer> offsets = new HashMap<>();
+        for (Map.Entry<String, Entry> pair : entries.entrySet()) {
+            offsets.put(pair.getKey(), dataOut.size());
+            writeEntry(pair.getValue(), dataOut);
+        }
+        dataOut.flush();
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        BinaryJsonWriter writer = new BinaryJsonWriter(out);
+        writer.writeVarInt(offsets.size());
+        for (Map.Entry<String, Integer> pair : offsets.entrySet()) {
+            writer.writeString(pair.getKey());
+            writer.writeVarInt(pair.getValue());
+        }
+        data.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Writes the entry which can be read independently of the other entries.
+     */
+    private static void writeEntry(Entry entry, DataOutputStream out) throws IOException {
+        // The strings are not shared between the entries.
+        BinaryJsonWriter writer = new BinaryJsonWriter(out);
+        CompiledConfig config = entry.config.get();
+        out.writeLong(entry.lastModified);
+        out.writeLong(entry.size);
+        out.writeLong(entry.contentHash);
+        out.writeLong(entry.parent);
+        out.writeLong(config.getFingerprint());
+        writer.writeVarInt(entry.systemProperties.size());
+        for (Map.Entry<String, String> property : entry.systemProperties.entrySet()) {
+            writer.writeString(property.getKey());
+            String value = property.getValue();
+            out.writeBoolean(value != null);
+            if (value != null) {
+                writer.writeString(value);
+            }
+        }
+        writer.write(config.getMerged());
+        writer.write(config.getExpanded());
+    }
+
+    /**
+     * An entry of this cache.
+     *
+     * @author leadpony
+     */
+    private static class Entry {
+
+        final long lastModified;
+        final long size;
+        final long contentHash;
+        final long parent;
+        final Map<String, String> systemProperties;
+        final Lazy<CompiledConfig> config;
+
+        Entry(long lastModified, long size, long contentHash, long parent,
+                Map<String, String> systemProperties, Lazy<CompiledConfig> config) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.contentHash = contentHash;
+            this.parent = parent;
+            this.systemProperties = systemProperties;
+            this.config = config;
+        }
+
+        boolean isValidFor(long parent) {
+            if (this.parent != parent) {
+                return false;
+            }
+            for (Map.Entry<String, String> property : systemProperties.entrySet()) {
+                if (!Objects.equals(property.getValue(), System.getProperty(property.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the compiled configuration of this entry.
+         *
+         * @return the compiled configuration, or {@code null} if it is broken.
+         */
+        CompiledConfig getConfig() {
+            try {
+                return config.get();
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        Entry touch(BasicFileAttributes attributes) {
+            return new Entry(attributes.lastModifiedTime().toMillis(), attributes.size(),
+                    contentHash, parent, systemProperties, config);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import org.leadpony.duel.core.internal.common.AbstractJsonObject;
+
+/**
+ * The table of the resolved properties of a node.
+ * <p>
+ * The table of a child node holds only the properties resolved by the node
+ * itself and chains to the table of its parent for the other properties.
+ * For each resolved property, the table also records the names of all the
+ * properties referenced directly or indirectly while resolving it, which
+ * allows the child nodes to find the properties to be resolved again.
+ * </p>
+ *
+ * @author leadpony
+ */
+class PropertyTable {
+
+    private final PropertyTable parent;
+    private final JsonObject values;
+    private final Map<String, Set<String>> dependencies;
+    private final Map<String, Set<String>> dependents;
+
+    /**
+     * Constructs a table without parent.
+     *
+     * @param values       all the resolved properties.
+     * @param dependencies the names of the properties referenced by each property.
+     */
+    PropertyTable(JsonObject values, Map<String, Set<String>> dependencies) {
+        this.parent = null;
+        this.values = values;
+        this.dependencies = dependencies;
+        this.dependents = invert(dependencies);
+    }
+
+    /**
+     * Constructs a table chained to the parent.
+     *
+     * @param parent         the table of the parent node.
+     * @param properties     all the properties before resolution, which define
+     *                       the names and the order of the properties.
+     * @param resolved       the properties resolved by this table.
+     * @param dependencies   the names of the properties referenced by each
+     *                       property resolved by this table.
+     * @param builderFactory the factory of JSON builders.
+     */
+    PropertyTable(PropertyTable parent, JsonObject properties,
+            Map<String, JsonValue> resolved, Map<String, Set<String>> dependencies,
+            JsonBuilderFactory builderFactory) {
+        this.parent = parent;
+        this.values = new ChainedValues(properties, resolved, parent.values, builderFactory);
+        this.dependencies = dependencies;
+        this.dependents = invert(dependencies);
+    }
+
+    /**
+     * Returns all the resolved properties.
+     *
+     * @return the JSON object containing the resolved properties.
+     */
+    JsonObject getValues() {
+        return values;
+    }
+
+    /**
+     * Returns the names of the properties referenced while resolving the
+     * specified property.
+     *
+     * @param name the name of the property.
+     * @return the set of the property names, never be {@code null}.
+     */
+    Set<String> getDependencies(String name) {
+        for (PropertyTable table = this; table != null; table = table.parent) {
+            Set<String> found = table.dependencies.get(name);
+            if (found != null) {
+                return found;
+            }
+        }
+        return Collections.emptySet();
+    }
+
+    /**
+     * Adds the names of the properties which referenced the specified property
+     * while they were resolved. The result may contain the properties which
+     * no longer depend on the property.
+     *
+     * @param name   the name of the property.
+     * @param result the set to which the found names will be added.
+     */
+    void collectDependents(String name, Set<String> result) {
+        for (PropertyTable table = this; table != null; table = table.parent) {
+            Set<String> found = table.dependents.get(name);
+            if (found != null) {
+                result.addAll(found);
+            }
+        }
+    }
+
+    private static Map<String, Set<String>> invert(Map<String, Set<String>> dependencies) {
+        if (dependencies.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Set<String>> dependents = new HashMap<>();
+        dependencies.forEach((name, referenced) -> {
+            for (String target : referenced) {
+                dependents.computeIfAbsent(target, k -> new HashSet<>()).add(name);
+            }
+        });
+        return dependents;
+    }
+
+    /**
+     * The resolved properties which are taken from this table if resolved by
+     * it, or from the parent table otherwise.
+     *
+     * @author leadpony
+     */
+    private static class ChainedValues extends AbstractJsonObject {
+
+        private final JsonObject properties;
+        private final Map<String, JsonValue> resolved;
+        private final JsonObject inherited;
+
+        ChainedValues(JsonObject properties, Map<String, JsonValue> resolved, JsonObject inherited,
+                JsonBuilderFactory builderFactory) {
+            super(builderFactory);
+            this.properties = properties;
+            this.resolved = resolved;
+            this.inherited = inherited;
+        }
+
+        @Override
+        public int size() {
+            return properties.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return properties.containsKey(key);
+        }
+
+        @Override
+        public JsonValue get(Object key) {
+            JsonValue value = resolved.get(key);
+            if (value == null && properties.containsKey(key)) {
+                value = inherited.get(key);
+            }
+            return value;
+        }
+
+        @Override
+        public Set<Map.Entry<String, JsonValue>> entrySet() {
+            return new AbstractSet<Map.Entry<String, JsonValue>>() {
+
+                @Override
+                public int size() {
+                    return properties.size();
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, JsonValue>> iterator() {
+                    Iterator<String> keys = properties.keySet().iterator();
+                    return new Iterator<Map.Entry<String, JsonValue>>() {
+
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, JsonValue> next() {
+                            String key = keys.next();
+                            return new SimpleImmutableEntry<>(key, get(key));
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -26,24 +26,27 @@ import javax.json.JsonReaderFactory;
 import javax.json.JsonValue;
 
 import org.leadpony.duel.core.spi.MediaType;
-import org.leadpony.duel.core.spi.ResponseBody;
 
 /**
+ * A response body buffered as a byte array,
+ * which is parsed as a JSON when requested for the first time.
+ *
  * @author leadpony
  */
-class ResponseBodyImpl implements ResponseBody {
+class ResponseBodyImpl extends AbstractResponseBody {
 
-    private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
+    static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
 
     private final byte[] byteArray;
-    private final Optional<MediaType> mediaType;
     private final TestExecutionContext context;
 
-    private JsonValue cachedJson;
+    // may be published to the other threads running the assertions.
+    private volatile JsonValue cachedJson;
 
-    ResponseBodyImpl(byte[] byteArray, Optional<MediaType> mediaType, TestExecutionContext context) {
+    ResponseBodyImpl(byte[] byteArray, Optional<MediaType> mediaType, TestExecutionContext context,
+            long wireSize, long nanosToHeaders, long nanosToBody) {
+        super(mediaType, wireSize, nanosToHeaders, nanosToBody);
         this.byteArray = byteArray;
-        this.mediaType = mediaType;
         this.context = context;
     }
 
@@ -53,8 +56,8 @@ class ResponseBodyImpl implements ResponseBody {
     }
 
     @Override
-    public Optional<MediaType> getMediaType() {
-        return mediaType;
+    public long getDecodedSize() {
+        return byteArray.length;
     }
 
     @Override
@@ -70,7 +73,7 @@ class ResponseBodyImpl implements ResponseBody {
         return cachedJson;
     }
 
-    private JsonValue getJsonValue() {
+    protected JsonValue getJsonValue() {
         JsonReaderFactory readerFactory = context.getJsonReaderFactory();
         ByteArrayInputStream in = new ByteArrayInputStream(byteArray);
         try (JsonReader reader = readerFactory.createReader(in, guessEncoding())) {
@@ -78,8 +81,8 @@ class ResponseBodyImpl implements ResponseBody {
         }
     }
 
-    private Charset guessEncoding() {
-        return mediaType
+    protected Charset guessEncoding() {
+        return getMediaType()
                 .map(type -> type.getCharset(DEFAULT_CHARSET))
                 .orElse(DEFAULT_CHARSET);
     }
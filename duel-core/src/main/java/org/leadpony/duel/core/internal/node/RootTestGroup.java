@@ -19,15 +19,26 @@ package org.leadpony.duel.core.internal.node;
 import java.net.http.HttpClient;
 import java.net.http.HttpClient.Redirect;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import javax.json.JsonObject;
 import javax.json.JsonReaderFactory;
 import javax.json.spi.JsonProvider;
 
+import org.leadpony.duel.core.api.ExecutionContext;
 import org.leadpony.duel.core.api.GroupExecution;
 import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.Parameter;
+import org.leadpony.duel.core.internal.common.BoundedExecutorService;
+import org.leadpony.duel.core.internal.common.Lazy;
+import org.leadpony.duel.core.internal.common.VirtualThreads;
 import org.leadpony.duel.core.spi.AssertionFactory;
 
 /**
@@ -35,18 +46,55 @@ import org.leadpony.duel.core.spi.AssertionFactory;
  */
 class RootTestGroup extends TestGroup {
 
+    static final String VIRTUAL_THREADS = "virtual";
+
     private final JsonProvider jsonProvider;
+    /*
+     * The assertion factory shared by all of the executions,
+     * with which the assertions compiled by the test cases are reused.
+     */
+    private final Supplier<AssertionFactory> assertionFactory;
 
+    /**
+     * Constructs this group with the assertion factory of its own.
+     */
     RootTestGroup(Path dir,
-            JsonObject json,
-            JsonObject merged,
+            Supplier<JsonObject> original,
             JsonObject expanded,
-            List<TestCase> testCases,
-            List<TestGroup> subgroups,
+            Supplier<List<TestCase>> testCases,
+            Supplier<List<TestGroup>> subgroups,
             JsonProvider jsonProvider
             ) {
-        super(dir, json, merged, expanded, testCases, subgroups);
+        super(dir, original, expanded, testCases, subgroups);
+        this.jsonProvider = jsonProvider;
+        this.assertionFactory = Lazy.of(
+                () -> new RootAssertionFactory(new AssertionContext(() -> this, jsonProvider)));
+    }
+
+    /**
+     * Constructs this group with the assertion factory shared
+     * with the other root groups, such as the ones reloaded.
+     */
+    RootTestGroup(Path dir,
+            Supplier<JsonObject> original,
+            JsonObject expanded,
+            Supplier<List<TestCase>> testCases,
+            Supplier<List<TestGroup>> subgroups,
+            JsonProvider jsonProvider,
+            Supplier<AssertionFactory> assertionFactory
+            ) {
+        super(dir, original, expanded, testCases, subgroups);
         this.jsonProvider = jsonProvider;
+        this.assertionFactory = assertionFactory;
+    }
+
+    /**
+     * Returns the assertion factory shared by all of the executions.
+     *
+     * @return the assertion factory.
+     */
+    AssertionFactory getAssertionFactory() {
+        return assertionFactory.get();
     }
 
     /* As a GroupNode */
@@ -70,13 +118,16 @@ class RootTestGroup extends TestGroup {
         private final JsonProvider jsonProvider;
         private final JsonReaderFactory jsonReaderFactory;
         private final HttpClient httpClient;
+        private final Map<Duration, HttpClient> httpClientsWithTimeout = new ConcurrentHashMap<>();
         private final AssertionFactory assertionFactory;
+        private final boolean virtual;
 
         RootExecutionContext(JsonProvider jsonProvider) {
             this.jsonProvider = jsonProvider;
+            this.virtual = usesVirtualThreads();
             this.jsonReaderFactory = jsonProvider.createReaderFactory(Collections.emptyMap());
-            this.httpClient = buildHttpClient();
-            this.assertionFactory = new RootAssertionFactory(this);
+            this.httpClient = buildHttpClient(null);
+            this.assertionFactory = RootTestGroup.this.getAssertionFactory();
         }
 
         @Override
@@ -99,16 +150,81 @@ class RootTestGroup extends TestGroup {
             return httpClient;
         }
 
+        @Override
+        public HttpClient getHttpClient(Duration connectTimeout) {
+            if (connectTimeout == null) {
+                return httpClient;
+            }
+            // The connect timeout can be specified only for the whole client.
+            return httpClientsWithTimeout.computeIfAbsent(connectTimeout, this::buildHttpClient);
+        }
+
         @Override
         public AssertionFactory getAssertionFactory() {
             return assertionFactory;
         }
 
-        private HttpClient buildHttpClient() {
-            return HttpClient.newBuilder()
+        @Override
+        public ExecutorService createExecutorService(int concurrency) {
+            if (virtual) {
+                return new BoundedExecutorService(VirtualThreads.newExecutor(), concurrency);
+            }
+            return Executors.newFixedThreadPool(concurrency, task -> {
+                Thread thread = new Thread(task);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private HttpClient buildHttpClient(Duration connectTimeout) {
+            HttpClient.Builder builder = HttpClient.newBuilder()
                     .version(HttpClient.Version.HTTP_1_1)
-                    .followRedirects(Redirect.NORMAL)
-                    .build();
+                    .followRedirects(Redirect.NORMAL);
+            if (connectTimeout != null) {
+                builder.connectTimeout(connectTimeout);
+            }
+            if (virtual) {
+                builder.executor(VirtualThreads.newExecutor());
+            }
+            return builder.build();
+        }
+
+        private boolean usesVirtualThreads() {
+            String threads = getValueAsString(Parameter.THREADS, "");
+            return threads.equals(VIRTUAL_THREADS) && VirtualThreads.isAvailable();
+        }
+    }
+
+    /**
+     * The context given to the assertion factories,
+     * which does not depend on any execution.
+     *
+     * @author leadpony
+     */
+    static class AssertionContext implements ExecutionContext {
+
+        private final Supplier<GroupNode> rootGroup;
+        private final JsonProvider jsonProvider;
+
+        /**
+         * Constructs this context.
+         *
+         * @param rootGroup    the supplier of the root group last loaded.
+         * @param jsonProvider the JSON provider.
+         */
+        AssertionContext(Supplier<GroupNode> rootGroup, JsonProvider jsonProvider) {
+            this.rootGroup = rootGroup;
+            this.jsonProvider = jsonProvider;
+        }
+
+        @Override
+        public GroupNode getRootGroup() {
+            return rootGroup.get();
+        }
+
+        @Override
+        public JsonProvider getJsonProvider() {
+            return jsonProvider;
         }
     }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import javax.json.JsonValue;
+
+import org.leadpony.duel.core.internal.Message;
+import org.leadpony.duel.core.spi.MediaType;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * A response body spilled to a temporary file because it was too large.
+ * <p>
+ * The body is read through the buffer mapped to the file,
+ * and is never copied into the heap as a whole.
+ * For the same reason, the body is not parsed as a JSON.
+ * </p>
+ *
+ * @author leadpony
+ */
+class SpilledResponseBody extends AbstractResponseBody {
+
+    private final ByteBuffer content;
+
+    SpilledResponseBody(ByteBuffer content, Optional<MediaType> mediaType,
+            long wireSize, long nanosToHeaders, long nanosToBody) {
+        super(mediaType, wireSize, nanosToHeaders, nanosToBody);
+        this.content = content;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !content.hasRemaining();
+    }
+
+    @Override
+    public long getDecodedSize() {
+        return content.remaining();
+    }
+
+    @Override
+    public byte[] asByteArray() {
+        throw new AssertionFailedError(Message.thatResponseBodyIsSpilled(content.remaining()));
+    }
+
+    @Override
+    public ByteBuffer asByteBuffer() {
+        return content.asReadOnlyBuffer();
+    }
+
+    @Override
+    public JsonValue asJson() {
+        throw new AssertionFailedError(Message.thatResponseBodyIsTooLargeToParse(content.remaining()));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import javax.json.JsonException;
+import javax.json.JsonValue;
+
+import org.leadpony.duel.core.internal.Message;
+import org.leadpony.duel.core.spi.MediaType;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * A response body parsed as a JSON while it was received.
+ *
+ * @author leadpony
+ */
+class StreamedResponseBody extends AbstractResponseBody {
+
+    private final ByteBuffer content;
+    private final long size;
+    private final long maxSize;
+    private final JsonValue json;
+    private final JsonException failure;
+
+    /**
+     * Constructs this response body.
+     *
+     * @param content   the whole body, or {@code null} if not retained,
+     *                  which has no backing array if spilled to a file.
+     * @param size      the number of the bytes in the body.
+     * @param maxSize   the maximum size of the body parsed as a JSON.
+     * @param json      the JSON value parsed, or {@code null} if the parsing failed.
+     * @param failure   the exception thrown by the parser, or {@code null} if succeeded.
+     * @param wireSize  the size of the encoded body as received,
+     *                  or {@link #NOT_ENCODED} if the body was not encoded.
+     */
+    StreamedResponseBody(ByteBuffer content, long size, long maxSize, JsonValue json, JsonException failure,
+            Optional<MediaType> mediaType, long wireSize, long nanosToHeaders, long nanosToBody) {
+        super(mediaType, wireSize, nanosToHeaders, nanosToBody);
+        this.content = content;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.json = json;
+        this.failure = failure;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getDecodedSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] asByteArray() {
+        if (content == null) {
+            throw new IllegalStateException(Message.thatResponseBodyIsNotRetained());
+        } else if (!content.hasArray()) {
+            throw new AssertionFailedError(Message.thatResponseBodyIsSpilled(content.remaining()));
+        }
+        return content.array();
+    }
+
+    @Override
+    public ByteBuffer asByteBuffer() {
+        if (content == null) {
+            throw new IllegalStateException(Message.thatResponseBodyIsNotRetained());
+        }
+        return content.asReadOnlyBuffer();
+    }
+
+    @Override
+    public JsonValue asJson() {
+        if (size > maxSize) {
+            throw new AssertionFailedError(Message.thatResponseBodyIsTooLargeToParse(size));
+        } else if (failure != null) {
+            throw new JsonException(failure.getMessage(), failure);
+        }
+        return json;
+    }
+}
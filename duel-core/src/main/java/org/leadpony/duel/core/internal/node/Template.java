@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A string template compiled into literal and placeholder segments.
+ * <p>
+ * A placeholder has the form of <code>${name}</code>, where the name contains
+ * neither <code>{</code> nor <code>}</code>.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class Template {
+
+    private static final String PLACEHOLDER_START = "${";
+
+    private final String source;
+    // literals and placeholder names appear alternately, starting with a literal.
+    private final String[] segments;
+    private final int literalLength;
+
+    private Template(String source, String[] segments) {
+        this.source = source;
+        this.segments = segments;
+        int length = 0;
+        for (int i = 0; i < segments.length; i += 2) {
+            length += segments[i].length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Checks whether the specified string may contain any placeholders or not.
+     * This method does not allocate any objects.
+     *
+     * @param string the string to check.
+     * @return {@code true} if the string may contain placeholders.
+     */
+    static boolean mayContainPlaceholder(String string) {
+        return string.indexOf(PLACEHOLDER_START) >= 0;
+    }
+
+    /**
+     * Compiles the specified string into a template.
+     *
+     * @param string the string to compile.
+     * @return the compiled template.
+     */
+    static Template compile(String string) {
+        List<String> segments = new ArrayList<>();
+        final int length = string.length();
+        int literalStart = 0;
+        int start = string.indexOf(PLACEHOLDER_START);
+        while (start >= 0) {
+            int end = start + PLACEHOLDER_START.length();
+            while (end < length) {
+                char c = string.charAt(end);
+                if (c == '{' || c == '}') {
+                    break;
+                }
+                end++;
+            }
+            if (end < length && string.charAt(end) == '}' && end > start + PLACEHOLDER_START.length()) {
+                segments.add(string.substring(literalStart, start));
+                segments.add(string.substring(start + PLACEHOLDER_START.length(), end));
+                literalStart = end + 1;
+                start = string.indexOf(PLACEHOLDER_START, literalStart);
+            } else {
+                start = string.indexOf(PLACEHOLDER_START, start + 1);
+            }
+        }
+        segments.add(string.substring(literalStart));
+        return new Template(string, segments.toArray(new String[0]));
+    }
+
+    /**
+     * Checks whether this template has any placeholders or not.
+     *
+     * @return {@code true} if this template has any placeholders.
+     */
+    boolean hasPlaceholders() {
+        return segments.length > 1;
+    }
+
+    /**
+     * Returns the names of the placeholders in this template.
+     *
+     * @return the list of the placeholder names.
+     */
+    List<String> getPlaceholders() {
+        if (!hasPlaceholders()) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<>(segments.length / 2);
+        for (int i = 1; i < segments.length; i += 2) {
+            names.add(segments[i]);
+        }
+        return names;
+    }
+
+    /**
+     * Renders this template.
+     * Any placeholders for which the finder returns {@code null} are left as
+     * they are.
+     *
+     * @param finder the function to find the value of a placeholder.
+     * @return the rendered string, which is the original string if this
+     *         template has no placeholders.
+     */
+    String render(Function<String, String> finder) {
+        if (!hasPlaceholders()) {
+            return source;
+        }
+        StringBuilder builder = new StringBuilder(literalLength + segments.length * 8);
+        builder.append(segments[0]);
+        for (int i = 1; i < segments.length; i += 2) {
+            String name = segments[i];
+            String value = finder.apply(name);
+            if (value != null) {
+                builder.append(value);
+            } else {
+                builder.append(PLACEHOLDER_START).append(name).append('}');
+            }
+            builder.append(segments[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A cache of the compiled templates shared by the nodes of a project.
+     *
+     * @author leadpony
+     */
+    static class Cache {
+
+        private static final int DEFAULT_CAPACITY = 4096;
+
+        private final Map<String, Template> templates = new ConcurrentHashMap<>();
+        private final int capacity;
+
+        Cache() {
+            this(DEFAULT_CAPACITY);
+        }
+
+        /**
+         * Constructs this cache.
+         *
+         * @param capacity the maximum number of the templates to be cached.
+         *                 Any templates exceeding the capacity are not cached.
+         */
+        Cache(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Returns the template compiled from the specified string.
+         *
+         * @param string the string to compile.
+         * @return the compiled template.
+         */
+        Template get(String string) {
+            Template template = templates.get(string);
+            if (template == null) {
+                template = compile(string);
+                if (templates.size() < capacity) {
+                    templates.putIfAbsent(string, template);
+                }
+            }
+            return template;
+        }
+    }
+}
@@ -16,10 +16,12 @@
 
 package org.leadpony.duel.core.internal.node;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpRequest.BodyPublisher;
@@ -27,32 +29,50 @@ import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse.BodySubscriber;
 import java.net.http.HttpResponse.BodySubscribers;
 import java.net.http.HttpResponse.ResponseInfo;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import javax.json.JsonNumber;
 import javax.json.JsonObject;
+import javax.json.JsonString;
 import javax.json.JsonValue;
 import javax.json.JsonValue.ValueType;
 
 import org.leadpony.duel.core.api.CaseExecution;
 import org.leadpony.duel.core.api.Parameter;
 import org.leadpony.duel.core.api.CaseNode;
+import org.leadpony.duel.core.api.Durations;
+import org.leadpony.duel.core.api.ExecutionTimedOutException;
 import org.leadpony.duel.core.api.Node;
 import org.leadpony.duel.core.internal.Message;
+import org.leadpony.duel.core.internal.common.DataSizes;
 import org.leadpony.duel.core.internal.common.JsonValues;
+import org.leadpony.duel.core.internal.common.Lazy;
 import org.leadpony.duel.core.internal.common.MediaTypeParser;
 import org.leadpony.duel.core.internal.common.UrlBuilder;
-import org.leadpony.duel.core.spi.Assertion;
+import org.leadpony.duel.core.spi.AssertionFactory;
 import org.leadpony.duel.core.spi.MediaType;
 import org.leadpony.duel.core.spi.ResponseBody;
+import org.opentest4j.AssertionFailedError;
 import org.opentest4j.IncompleteExecutionException;
 
 /**
@@ -65,13 +85,41 @@ class TestCase extends AbstractNode implements CaseNode {
 
     static final JsonObject DEFAULT_REQUEST = JsonValue.EMPTY_JSON_OBJECT;
 
+    static final String PROTOCOL_HTTP1_1 = "http1.1";
+    static final String PROTOCOL_HTTP2 = "http2";
+    static final String PROTOCOL_H2C = "h2c";
+
+    static final String JSON_PARSING_BUFFERED = "buffered";
+    static final String JSON_PARSING_STREAMING = "streaming";
+    static final String JSON_PARSING_LAZY = "lazy";
+
+    static final String OVERSIZED_RESPONSE_FAIL = "fail";
+    static final String OVERSIZED_RESPONSE_SPILL = "spill";
+
+    static final String COMPRESSION_NONE = "none";
+    static final String COMPRESSION_DECODE = "decode";
+
+    /**
+     * The content encodings advertised when the compression is decoded.
+     * Brotli is not included because the JDK provides no decoder for it.
+     */
+    static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+
+    /**
+     * The key of the request body referring to the file to send.
+     */
+    static final String BODY_FILE = "file";
+
     private final JsonObject request;
+    private final Lazy<URI> endpointUri = Lazy.of(this::buildEndpointUri);
+    private final Lazy<CompiledRequest> compiledRequest = Lazy.of(this::compileRequest);
+    // may be compiled concurrently, but any of the results is equivalent.
+    private volatile AssertionPlan assertionPlan;
 
     TestCase(Path path,
-            JsonObject json,
-            JsonObject merged,
+            Supplier<JsonObject> original,
             JsonObject expanded) {
-        super(path, json, merged, expanded);
+        super(path, original, expanded);
         this.request = getValue("request").map(value -> {
             if (value.getValueType() == ValueType.OBJECT) {
                 return value.asJsonObject();
@@ -93,7 +141,7 @@ class TestCase extends AbstractNode implements CaseNode {
 
     @Override
     public URI getEndpointUrl() {
-        return buildEndpointUri();
+        return endpointUri.get();
     }
 
     /* */
@@ -102,6 +150,22 @@ class TestCase extends AbstractNode implements CaseNode {
         return new TestCaseExecution(context);
     }
 
+    /**
+     * Returns the assertions of this test case, which are compiled only once
+     * for each assertion factory and shared by all of the executions.
+     *
+     * @param factory the factory which creates the assertions.
+     * @return the compiled assertions.
+     */
+    AssertionPlan getAssertionPlan(AssertionFactory factory) {
+        AssertionPlan plan = this.assertionPlan;
+        if (plan == null || !plan.isCompiledBy(factory)) {
+            plan = AssertionPlan.compile(this, factory);
+            this.assertionPlan = plan;
+        }
+        return plan;
+    }
+
     private Map<String, List<String>> getRequestParameter(String parameterName) {
         JsonValue parameterValue = this.request.getOrDefault(parameterName, JsonValue.NULL);
         if (parameterValue.getValueType() != ValueType.OBJECT) {
@@ -159,22 +223,259 @@ class TestCase extends AbstractNode implements CaseNode {
         }
     }
 
+    /**
+     * Compiles the request of this test case, which is done only once
+     * and shared by all of the executions.
+     *
+     * @return the compiled request.
+     * @throws IncompleteExecutionException if the request is invalid.
+     */
+    private CompiledRequest compileRequest() {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(endpointUri.get());
+        Map<String, List<String>> header = getRequestHeader();
+        header.forEach((name, values) -> {
+            for (String value : values) {
+                builder.header(name, value);
+            }
+        });
+        boolean decompresses = decompressesResponse();
+        if (decompresses && header.keySet().stream().noneMatch("Accept-Encoding"::equalsIgnoreCase)) {
+            builder.header("Accept-Encoding", ACCEPTED_ENCODINGS);
+        }
+        getProtocolVersion().ifPresent(builder::version);
+        getDuration(Parameter.TIMEOUT).ifPresent(builder::timeout);
+        final String method = getValueAsString(Parameter.METHOD, "GET");
+        Supplier<HttpRequest> request;
+        Optional<Path> file = getRequestBodyFile();
+        if (file.isPresent()) {
+            // The file is opened on every send, so that a missing file is not remembered.
+            request = () -> builder.copy().method(method, createFileBodyPublisher(file.get())).build();
+        } else {
+            HttpRequest built = builder.method(method, createRequestBodyPublisher(getRequestBody())).build();
+            request = () -> built;
+        }
+        return new CompiledRequest(request,
+                getDuration(Parameter.CONNECT_TIMEOUT).orElse(null),
+                getJsonParsing(),
+                getSize(Parameter.MAX_RESPONSE_SIZE).orElse(Long.MAX_VALUE),
+                spillsOversizedResponse(),
+                decompresses);
+    }
+
+    /**
+     * Creates the publisher of the request body other than a file.
+     * The body is encoded in advance, and the publisher can be subscribed repeatedly.
+     */
+    private static BodyPublisher createRequestBodyPublisher(Optional<JsonValue> body) {
+        if (body.isEmpty()) {
+            return BodyPublishers.noBody();
+        }
+        return BodyPublishers.ofByteArray(body.get().toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the file referred by the request body.
+     *
+     * @return the file resolved against the directory of this test case,
+     *         or empty if the body is not a reference to a file.
+     */
+    Optional<Path> getRequestBodyFile() {
+        return getRequestBody()
+                .flatMap(TestCase::getRequestBodyFileName)
+                .map(this::resolveFile);
+    }
+
+    /**
+     * Resolves the name of the file referred by this test case.
+     *
+     * @param name the name of the file.
+     * @return the file resolved against the directory of this test case.
+     */
+    Path resolveFile(String name) {
+        return getNodePath().resolveSibling(name);
+    }
+
+    /**
+     * Creates the publisher of the request body read from the file.
+     *
+     * @param file the file to send.
+     * @return the publisher of the request body.
+     * @throws IncompleteExecutionException if the file is not found.
+     */
+    BodyPublisher createFileBodyPublisher(Path file) {
+        try {
+            return BodyPublishers.ofFile(file);
+        } catch (FileNotFoundException e) {
+            throw new IncompleteExecutionException(
+                    Message.thatRequestBodyFileIsNotFound(file), e);
+        }
+    }
+
+    private static Optional<String> getRequestBodyFileName(JsonValue body) {
+        if (body.getValueType() != ValueType.OBJECT) {
+            return Optional.empty();
+        }
+        JsonObject object = body.asJsonObject();
+        if (object.size() != 1) {
+            return Optional.empty();
+        }
+        JsonValue name = object.get(BODY_FILE);
+        if (name == null || name.getValueType() != ValueType.STRING) {
+            return Optional.empty();
+        }
+        return Optional.of(((JsonString) name).getString());
+    }
+
     private String getFullPath() {
         return getValueAsString(Parameter.BASE_PATH, "")
                 + getValueAsString(Parameter.PATH, "");
     }
 
+    /**
+     * Returns the version of HTTP specified by the {@code protocol} parameter.
+     * <p>
+     * Both {@code http2} and {@code h2c} select HTTP/2, which is negotiated
+     * by ALPN for {@code https} and by the upgrade from HTTP/1.1 for
+     * {@code http}, since the HTTP client does not support the prior knowledge.
+     * </p>
+     *
+     * @return the version of HTTP, or empty if the protocol is not specified.
+     */
+    private Optional<HttpClient.Version> getProtocolVersion() {
+        String protocol = getValueAsString(Parameter.PROTOCOL, "");
+        switch (protocol) {
+        case "":
+            return Optional.empty();
+        case PROTOCOL_HTTP1_1:
+            return Optional.of(HttpClient.Version.HTTP_1_1);
+        case PROTOCOL_HTTP2:
+        case PROTOCOL_H2C:
+            return Optional.of(HttpClient.Version.HTTP_2);
+        default:
+            throw new IncompleteExecutionException(
+                    Message.thatProtocolIsUnknown(protocol));
+        }
+    }
+
+    /**
+     * Returns how the response body is parsed as a JSON.
+     * <p>
+     * The body is buffered as a whole and parsed when requested by default,
+     * parsed incrementally while it is received if streaming,
+     * or buffered and decoded only where visited if lazy.
+     * </p>
+     *
+     * @return the way of parsing, one of {@link #JSON_PARSING_BUFFERED},
+     *         {@link #JSON_PARSING_STREAMING} and {@link #JSON_PARSING_LAZY}.
+     * @throws IncompleteExecutionException if the value is unknown.
+     */
+    private String getJsonParsing() {
+        String parsing = getValueAsString(Parameter.JSON_PARSING, JSON_PARSING_BUFFERED);
+        switch (parsing) {
+        case JSON_PARSING_BUFFERED:
+            return JSON_PARSING_BUFFERED;
+        case JSON_PARSING_STREAMING:
+            return JSON_PARSING_STREAMING;
+        case JSON_PARSING_LAZY:
+            return JSON_PARSING_LAZY;
+        default:
+            throw new IncompleteExecutionException(
+                    Message.thatJsonParsingIsUnknown(parsing));
+        }
+    }
+
+    /**
+     * Checks whether the response body exceeding the maximum size is spilled
+     * to a file instead of failing.
+     *
+     * @return {@code true} if spilled, {@code false} if the response fails.
+     * @throws IncompleteExecutionException if the policy is unknown.
+     */
+    private boolean spillsOversizedResponse() {
+        String policy = getValueAsString(Parameter.OVERSIZED_RESPONSE, OVERSIZED_RESPONSE_FAIL);
+        switch (policy) {
+        case OVERSIZED_RESPONSE_FAIL:
+            return false;
+        case OVERSIZED_RESPONSE_SPILL:
+            return true;
+        default:
+            throw new IncompleteExecutionException(
+                    Message.thatOversizedResponseIsUnknown(policy));
+        }
+    }
+
+    /**
+     * Checks whether the response body compressed with gzip or deflate
+     * is decoded while it is received.
+     * <p>
+     * The compressed encodings are advertised to the server only if decoded.
+     * </p>
+     *
+     * @return {@code true} if decoded, {@code false} otherwise.
+     * @throws IncompleteExecutionException if the value is unknown.
+     */
+    private boolean decompressesResponse() {
+        String compression = getValueAsString(Parameter.COMPRESSION, COMPRESSION_NONE);
+        switch (compression) {
+        case COMPRESSION_NONE:
+            return false;
+        case COMPRESSION_DECODE:
+            return true;
+        default:
+            throw new IncompleteExecutionException(
+                    Message.thatCompressionIsUnknown(compression));
+        }
+    }
+
+    /**
+     * Returns the data size specified by the parameter.
+     *
+     * @param name the name of the parameter.
+     * @return the size in bytes, or empty if the parameter is not specified.
+     * @throws IncompleteExecutionException if the parameter is not a data size.
+     */
+    private OptionalLong getSize(String name) {
+        Optional<JsonValue> value = getValue(name);
+        if (value.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        OptionalLong size = DataSizes.parse(value.get());
+        if (size.isEmpty()) {
+            throw new IncompleteExecutionException(
+                    Message.thatSizeIsInvalid(name, value.get().toString()));
+        }
+        return size;
+    }
+
+    /**
+     * Returns the duration specified by the parameter.
+     *
+     * @param name the name of the parameter.
+     * @return the duration, or empty if the parameter is not specified.
+     * @throws IncompleteExecutionException if the parameter is not a duration.
+     */
+    private Optional<Duration> getDuration(String name) {
+        Optional<JsonValue> value = getValue(name);
+        if (value.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Duration> duration = Durations.parse(value.get());
+        if (duration.isEmpty()) {
+            throw new IncompleteExecutionException(
+                    Message.thatDurationIsInvalid(name, value.get().toString()));
+        }
+        return duration;
+    }
+
     /**
      * @author leadpony
      */
     private class TestCaseExecution implements CaseExecution {
 
         private final TestExecutionContext context;
-        private final Stream<Assertion> assertions;
 
         TestCaseExecution(TestExecutionContext context) {
             this.context = context;
-            this.assertions = context.getAssertionFactory().createAssertions(TestCase.this);
         }
 
         @Override
@@ -184,51 +485,222 @@ class TestCase extends AbstractNode implements CaseNode {
 
         @Override
         public void run() {
-            URI url = buildEndpointUri();
-            HttpRequest request = buildRequest(url);
-            HttpResponse<ResponseBody> response = sendRequest(request);
-            validateResponse(response);
+            CompiledRequest compiled = compiledRequest.get();
+            AssertionPlan assertions = getAssertionPlan(context.getAssertionFactory());
+            HttpResponse<ResponseBody> response = sendRequest(compiled, assertions);
+            assertions.assertOn(response);
         }
 
-        private HttpRequest buildRequest(URI url) {
-            HttpRequest.Builder builder = HttpRequest.newBuilder(url);
-            getRequestHeader().forEach((name, values) -> {
-                for (String value : values) {
-                    builder.header(name, value);
-                }
-            });
-            builder.method(getValueAsString(Parameter.METHOD, "GET"),
-                    createRequestBodyPublisher(getRequestBody()));
-            return builder.build();
+        @Override
+        public CompletionStage<Void> runAsync() {
+            return sendAsync(true);
+        }
+
+        @Override
+        public CompletionStage<Void> sendAsync() {
+            return sendAsync(false);
+        }
+
+        private CompletionStage<Void> sendAsync(boolean validates) {
+            CompiledRequest compiled;
+            AssertionPlan assertions;
+            HttpRequest request;
+            try {
+                compiled = compiledRequest.get();
+                assertions = getAssertionPlan(context.getAssertionFactory());
+                request = compiled.getRequest();
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            HttpClient client = context.getHttpClient(compiled.getConnectTimeout());
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            send(client, request, compiled, assertions)
+                .whenComplete((response, thrown) -> {
+                    if (thrown != null) {
+                        result.completeExceptionally(toIncompleteExecution(thrown, request, client));
+                        return;
+                    }
+                    try {
+                        if (validates) {
+                            assertions.assertOn(response);
+                        }
+                        result.complete(null);
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                });
+            return result;
         }
 
-        private HttpResponse<ResponseBody> sendRequest(HttpRequest request) {
-            HttpClient client = context.getHttpClient();
+        private HttpResponse<ResponseBody> sendRequest(CompiledRequest compiled, AssertionPlan assertions) {
+            HttpRequest request = compiled.getRequest();
+            HttpClient client = context.getHttpClient(compiled.getConnectTimeout());
+            CompletableFuture<HttpResponse<ResponseBody>> future = send(client, request, compiled, assertions);
             try {
-                return client.send(request, this::createBodySubscriber);
-            } catch (IOException e) {
+                return future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = toIncompleteExecution(e.getCause(), request, client);
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    // includes the response body rejected while being received.
+                    throw (Error) cause;
+                }
                 throw new IncompleteExecutionException(
-                        Message.thatNetworkConnectionFailed(request.uri()), e);
+                        Message.thatNetworkConnectionFailed(request.uri()), cause);
             } catch (InterruptedException e) {
+                future.cancel(true);
                 throw new IncompleteExecutionException(
                         Message.thatNetworkIsInterrupted(), e);
             }
         }
 
-        private BodyPublisher createRequestBodyPublisher(Optional<JsonValue> body) {
-            return body.map(value -> BodyPublishers.ofString(value.toString(), StandardCharsets.UTF_8))
-                    .orElse(BodyPublishers.noBody());
+        /**
+         * Sends the request asynchronously.
+         * <p>
+         * The timeout given to the request bounds only the wait for the header
+         * fields of the response, so the same timeout is also applied to
+         * the whole exchange including the response body.
+         * </p>
+         * <p>
+         * Neither the timeout nor the cancellation of the returned future stops
+         * the exchange by itself. When the returned future failed, the body being
+         * received is cancelled, which closes the connection and releases its buffers,
+         * and the exchange is also cancelled, which stops waiting for the header
+         * fields since JDK 16.
+         * </p>
+         */
+        private CompletableFuture<HttpResponse<ResponseBody>> send(HttpClient client, HttpRequest request,
+                CompiledRequest compiled, AssertionPlan assertions) {
+            final long sent = System.nanoTime();
+            final CompletableFuture<Throwable> aborted = new CompletableFuture<>();
+            CompletableFuture<HttpResponse<ResponseBody>> exchange = client.sendAsync(request, info -> {
+                CancellableSubscriber<ResponseBody> subscriber = new CancellableSubscriber<>(
+                        createBodySubscriber(info, compiled, assertions, sent));
+                // cancels at once if the future already failed.
+                aborted.thenAccept(subscriber::cancel);
+                return subscriber;
+            });
+            // the copy can be completed by others without completing the exchange.
+            CompletableFuture<HttpResponse<ResponseBody>> future = exchange.copy();
+            request.timeout().ifPresent(timeout -> future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS));
+            future.whenComplete((response, thrown) -> {
+                if (thrown != null) {
+                    exchange.cancel(true);
+                    aborted.complete(thrown);
+                }
+            });
+            return future;
         }
 
-        private BodySubscriber<ResponseBody> createBodySubscriber(ResponseInfo responseInfo) {
-            return BodySubscribers.mapping(
-                    BodySubscribers.ofByteArray(),
-                    byteArray -> createResponseBody(byteArray, responseInfo)
-                    );
+        private Throwable toIncompleteExecution(Throwable thrown, HttpRequest request, HttpClient client) {
+            Throwable cause = (thrown instanceof CompletionException && thrown.getCause() != null)
+                    ? thrown.getCause() : thrown;
+            if (cause instanceof IOException) {
+                if (cause.getCause() instanceof AssertionFailedError) {
+                    return cause.getCause();
+                }
+                return toIncompleteExecution((IOException) cause, request, client);
+            } else if (cause instanceof TimeoutException) {
+                long millis = request.timeout().map(Duration::toMillis).orElse(0L);
+                return new ExecutionTimedOutException(
+                        Message.thatRequestTimedOut(request.uri(), millis), cause);
+            }
+            return cause;
+        }
+
+        /**
+         * Converts the I/O error into the exception reported as the result of the test.
+         * The timeouts are reported by {@link ExecutionTimedOutException}.
+         */
+        private IncompleteExecutionException toIncompleteExecution(IOException e, HttpRequest request,
+                HttpClient client) {
+            if (e instanceof HttpConnectTimeoutException) {
+                long millis = client.connectTimeout().map(Duration::toMillis).orElse(0L);
+                return new ExecutionTimedOutException(
+                        Message.thatConnectionTimedOut(request.uri(), millis), e);
+            } else if (e instanceof HttpTimeoutException) {
+                long millis = request.timeout().map(Duration::toMillis).orElse(0L);
+                return new ExecutionTimedOutException(
+                        Message.thatRequestTimedOut(request.uri(), millis), e);
+            }
+            return new IncompleteExecutionException(
+                    Message.thatNetworkConnectionFailed(request.uri()), e);
+        }
+
+        /**
+         * Creates the subscriber of the response body.
+         * This is called when the header fields of the response were received.
+         *
+         * @param responseInfo the information of the response.
+         * @param compiled     the request sent.
+         * @param assertions   the assertions on the response.
+         * @param sent         the time in nanoseconds when the request was sent.
+         * @return the subscriber of the response body.
+         */
+        private BodySubscriber<ResponseBody> createBodySubscriber(ResponseInfo responseInfo,
+                CompiledRequest compiled, AssertionPlan assertions, long sent) {
+            final long nanosToHeaders = System.nanoTime() - sent;
+            Optional<MediaType> mediaType = parseMediaType(responseInfo);
+            Optional<String> encoding = compiled.decompressesResponse()
+                    ? parseContentEncoding(responseInfo) : Optional.empty();
+            // counts the bytes received before decoding.
+            final AtomicLong wireSize = new AtomicLong(
+                    encoding.isPresent() ? 0 : AbstractResponseBody.NOT_ENCODED);
+            BodySubscriber<ResponseBody> subscriber;
+            if (JSON_PARSING_STREAMING.equals(compiled.getJsonParsing()) && isEncodedInUtf8(mediaType)) {
+                subscriber = new JsonStreamingSubscriber(context.getJsonProvider(), assertions.requiresByteArray(),
+                        compiled.getMaxResponseSize(), compiled.spillsResponse(),
+                        mediaType, wireSize::get, sent, nanosToHeaders);
+            } else {
+                boolean lazy = JSON_PARSING_LAZY.equals(compiled.getJsonParsing());
+                subscriber = BodySubscribers.mapping(
+                        createContentSubscriber(compiled),
+                        content -> createResponseBody(content, mediaType, lazy,
+                                wireSize.get(), nanosToHeaders, System.nanoTime() - sent)
+                        );
+            }
+            if (encoding.isPresent()) {
+                // The maximum size applies to the decoded body.
+                return new InflatingSubscriber<>(subscriber, encoding.get(), wireSize);
+            }
+            return subscriber;
+        }
+
+        /**
+         * Creates the subscriber which receives the whole body as a byte buffer.
+         * The body is received without any limit unless the maximum size was specified.
+         */
+        private BodySubscriber<ByteBuffer> createContentSubscriber(CompiledRequest compiled) {
+            if (compiled.getMaxResponseSize() == Long.MAX_VALUE) {
+                return BodySubscribers.mapping(BodySubscribers.ofByteArray(), ByteBuffer::wrap);
+            }
+            return new BoundedBodySubscriber(compiled.getMaxResponseSize(), compiled.spillsResponse());
+        }
+
+        private ResponseBody createResponseBody(ByteBuffer content, Optional<MediaType> mediaType,
+                boolean lazy, long wireSize, long nanosToHeaders, long nanosToBody) {
+            if (!content.hasArray()) {
+                return new SpilledResponseBody(content, mediaType,
+                        wireSize, nanosToHeaders, nanosToBody);
+            }
+            byte[] byteArray = content.array();
+            if (lazy) {
+                return new IndexedResponseBody(byteArray, mediaType, context,
+                        wireSize, nanosToHeaders, nanosToBody);
+            }
+            return new ResponseBodyImpl(byteArray, mediaType, context,
+                    wireSize, nanosToHeaders, nanosToBody);
         }
 
-        private ResponseBody createResponseBody(byte[] byteArray, ResponseInfo responseInfo) {
-            return new ResponseBodyImpl(byteArray, parseMediaType(responseInfo), context);
+        /**
+         * Checks whether the body is encoded in UTF-8, which the streaming parser supports.
+         */
+        private boolean isEncodedInUtf8(Optional<MediaType> mediaType) {
+            return mediaType
+                    .map(type -> type.getCharset(ResponseBodyImpl.DEFAULT_CHARSET))
+                    .orElse(ResponseBodyImpl.DEFAULT_CHARSET)
+                    .equals(StandardCharsets.UTF_8);
         }
 
         private Optional<MediaType> parseMediaType(ResponseInfo responseInfo) {
@@ -236,8 +708,14 @@ class TestCase extends AbstractNode implements CaseNode {
                 .map(value -> new MediaTypeParser(value).parse());
         }
 
-        private void validateResponse(HttpResponse<ResponseBody> response) {
-            assertions.forEach(a -> a.assertOn(response));
+        /**
+         * Parses the content encoding of the response,
+         * which is returned only if it can be decoded.
+         */
+        private Optional<String> parseContentEncoding(ResponseInfo responseInfo) {
+            return responseInfo.headers().firstValue("content-encoding")
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .filter(InflatingSubscriber::supports);
         }
     }
 }
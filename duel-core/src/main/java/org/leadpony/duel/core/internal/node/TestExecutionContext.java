@@ -17,6 +17,8 @@
 package org.leadpony.duel.core.internal.node;
 
 import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 
 import javax.json.JsonReaderFactory;
 
@@ -34,5 +36,15 @@ interface TestExecutionContext extends ExecutionContext {
 
     HttpClient getHttpClient();
 
+    /**
+     * Returns the HTTP client with the specified connect timeout.
+     *
+     * @param connectTimeout the connect timeout, or {@code null} for no timeout.
+     * @return the HTTP client shared by the test cases with the same connect timeout.
+     */
+    HttpClient getHttpClient(Duration connectTimeout);
+
     AssertionFactory getAssertionFactory();
+
+    ExecutorService createExecutorService(int concurrency);
 }
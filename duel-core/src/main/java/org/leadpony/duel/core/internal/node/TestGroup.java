@@ -16,20 +16,32 @@
 
 package org.leadpony.duel.core.internal.node;
 
+import static java.util.Objects.requireNonNull;
+
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import javax.json.JsonNumber;
 import javax.json.JsonObject;
+import javax.json.JsonValue.ValueType;
 
 import org.leadpony.duel.core.api.CaseExecution;
 import org.leadpony.duel.core.api.GroupExecution;
 import org.leadpony.duel.core.api.CaseNode;
 import org.leadpony.duel.core.api.GroupNode;
 import org.leadpony.duel.core.api.Node;
+import org.leadpony.duel.core.api.Parameter;
 
 /**
  * @author leadpony
@@ -38,17 +50,19 @@ class TestGroup extends AbstractNode implements GroupNode {
 
     static final String FILE_NAME = "group.json";
 
-    private final List<TestCase> testCases;
-    private final List<TestGroup> subgroups;
+    private static final int DEFAULT_CONCURRENCY = 1;
+
+    // the children may be loaded lazily when first requested.
+    private final Supplier<List<TestCase>> testCases;
+    private final Supplier<List<TestGroup>> subgroups;
 
     TestGroup(Path dir,
-            JsonObject json,
-            JsonObject merged,
+            Supplier<JsonObject> original,
             JsonObject expanded,
-            List<TestCase> testCases,
-            List<TestGroup> subgroups
+            Supplier<List<TestCase>> testCases,
+            Supplier<List<TestGroup>> subgroups
             ) {
-        super(dir, json, merged, expanded);
+        super(dir, original, expanded);
         this.testCases = testCases;
         this.subgroups = subgroups;
     }
@@ -77,12 +91,20 @@ class TestGroup extends AbstractNode implements GroupNode {
 
     @Override
     public Collection<CaseNode> getTestCases() {
-        return Collections.unmodifiableCollection(testCases);
+        return Collections.unmodifiableCollection(testCases.get());
     }
 
     @Override
     public Collection<GroupNode> getSubgroups() {
-        return Collections.unmodifiableCollection(subgroups);
+        return Collections.unmodifiableCollection(subgroups.get());
+    }
+
+    @Override
+    public int getConcurrency() {
+        return getValue(Parameter.CONCURRENCY)
+                .filter(value -> value.getValueType() == ValueType.NUMBER)
+                .map(value -> Math.max(((JsonNumber) value).intValue(), 1))
+                .orElse(DEFAULT_CONCURRENCY);
     }
 
     @Override
@@ -112,7 +134,7 @@ class TestGroup extends AbstractNode implements GroupNode {
         @Override
         public Stream<CaseExecution> testCases() {
             TestExecutionContext context = this.context;
-            return testCases.stream().map(testCase -> {
+            return testCases.get().stream().map(testCase -> {
                 return testCase.createExecution(context);
             });
         }
@@ -120,9 +142,40 @@ class TestGroup extends AbstractNode implements GroupNode {
         @Override
         public Stream<GroupExecution> subgroups() {
             TestExecutionContext context = this.context;
-            return subgroups.stream().map(testGroup -> {
+            return subgroups.get().stream().map(testGroup -> {
                 return testGroup.createExecution(context);
             });
         }
+
+        @Override
+        public ExecutorService createExecutorService(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("concurrency must be greater than 0.");
+            }
+            return context.createExecutorService(concurrency);
+        }
+
+        @Override
+        public CompletionStage<Void> runAsync(BiConsumer<? super CaseExecution, ? super Throwable> listener) {
+            requireNonNull(listener, "listener must not be null.");
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            startAll(this, listener, futures);
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        }
+
+        private void startAll(GroupExecution group,
+                BiConsumer<? super CaseExecution, ? super Throwable> listener,
+                List<CompletableFuture<Void>> futures) {
+            group.testCases().forEach(execution -> {
+                futures.add(execution.runAsync().toCompletableFuture().handle((result, thrown) -> {
+                    if (thrown instanceof CompletionException && thrown.getCause() != null) {
+                        thrown = thrown.getCause();
+                    }
+                    listener.accept(execution, thrown);
+                    return null;
+                }));
+            });
+            group.subgroups().forEach(subgroup -> startAll(subgroup, listener, futures));
+        }
     }
 }
@@ -16,9 +16,8 @@
 
 package org.leadpony.duel.core.internal.node;
 
+import java.util.Map;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
@@ -35,17 +34,22 @@ import javax.json.spi.JsonProvider;
  */
 class ValueExpander {
 
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{([^{}]+)\\}");
-
     private final JsonProvider jsonProvider;
     private final JsonBuilderFactory builderFactory;
 
     private final Function<String, String> finder;
+    private final Template.Cache templates;
 
     ValueExpander(Function<String, String> finder, JsonProvider jsonProvider, JsonBuilderFactory builderFactory) {
+        this(finder, jsonProvider, builderFactory, new Template.Cache());
+    }
+
+    ValueExpander(Function<String, String> finder, JsonProvider jsonProvider, JsonBuilderFactory builderFactory,
+            Template.Cache templates) {
         this.finder = finder;
         this.jsonProvider = jsonProvider;
         this.builderFactory = builderFactory;
+        this.templates = templates;
     }
 
     JsonValue expand(JsonValue value) {
@@ -61,35 +65,69 @@ class ValueExpander {
         }
     }
 
+    /**
+     * Expands the placeholders in the string.
+     * The original string is returned as it is if no placeholders were found.
+     */
     String expand(String string) {
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(string);
-        return matcher.replaceAll(result -> {
-            String replacement = finder.apply(result.group(1));
-            if (replacement == null) {
-                replacement = result.group(0);
-            }
-            return Matcher.quoteReplacement(replacement);
-        });
+        if (!Template.mayContainPlaceholder(string)) {
+            return string;
+        }
+        return templates.get(string).render(finder);
     }
 
+    /**
+     * Expands the items in the array.
+     * The original array is returned as it is if no items were expanded.
+     */
     JsonArray expand(JsonArray array) {
         if (array.isEmpty()) {
             return array;
         }
-        JsonArrayBuilder builder = builderFactory.createArrayBuilder();
-        array.forEach(item -> builder.add(expand(item)));
-        return builder.build();
+        JsonArrayBuilder builder = null;
+        for (int i = 0; i < array.size(); i++) {
+            JsonValue item = array.get(i);
+            JsonValue expanded = expand(item);
+            if (builder == null && expanded != item) {
+                builder = builderFactory.createArrayBuilder();
+                for (int j = 0; j < i; j++) {
+                    builder.add(array.get(j));
+                }
+            }
+            if (builder != null) {
+                builder.add(expanded);
+            }
+        }
+        return (builder != null) ? builder.build() : array;
     }
 
+    /**
+     * Expands the property values in the object.
+     * The original object is returned as it is if no values were expanded,
+     * which allows the unchanged objects to be shared between the nodes.
+     */
     JsonObject expand(JsonObject object) {
         if (object.isEmpty()) {
             return object;
         }
-        JsonObjectBuilder builder = builderFactory.createObjectBuilder();
-        object.forEach((name, value) -> {
-            builder.add(name, expand(value));
-        });
-        return builder.build();
+        JsonObjectBuilder builder = null;
+        for (Map.Entry<String, JsonValue> entry : object.entrySet()) {
+            JsonValue value = entry.getValue();
+            JsonValue expanded = expand(value);
+            if (builder == null && expanded != value) {
+                builder = builderFactory.createObjectBuilder();
+                for (Map.Entry<String, JsonValue> previous : object.entrySet()) {
+                    if (previous.getKey().equals(entry.getKey())) {
+                        break;
+                    }
+                    builder.add(previous.getKey(), previous.getValue());
+                }
+            }
+            if (builder != null) {
+                builder.add(entry.getKey(), expanded);
+            }
+        }
+        return (builder != null) ? builder.build() : object;
     }
 
     JsonString expand(JsonString value) {
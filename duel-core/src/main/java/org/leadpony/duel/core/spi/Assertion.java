@@ -33,4 +33,18 @@ public interface Assertion {
      * @throws AssertionError if the assertion failed.
      */
     void assertOn(HttpResponse<ResponseBody> response);
+
+    /**
+     * Checks whether this assertion requires the response body as a byte array.
+     * <p>
+     * The response body may not be retained as a byte array
+     * if none of the assertions requires it.
+     * </p>
+     *
+     * @return {@code true} if this assertion calls {@link ResponseBody#asByteArray()},
+     *         {@code false} otherwise. The default implementation returns {@code true}.
+     */
+    default boolean requiresByteArray() {
+        return true;
+    }
 }
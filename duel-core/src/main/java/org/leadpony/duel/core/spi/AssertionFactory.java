@@ -27,6 +27,11 @@ import org.leadpony.duel.core.api.CaseNode;
  * instance is shared between all test cases in a project. In most cases the
  * factory should be implemented as a stateless object.
  * </p>
+ * <p>
+ * The assertions created for a case node are cached and reused by all of the
+ * executions of the node, which may run concurrently in multiple threads.
+ * Therefore the assertions should be immutable.
+ * </p>
  *
  * @author leadpony
  */
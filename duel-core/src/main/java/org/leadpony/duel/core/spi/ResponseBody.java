@@ -16,6 +16,7 @@
 
 package org.leadpony.duel.core.spi;
 
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 import javax.json.JsonValue;
@@ -32,13 +33,46 @@ public interface ResponseBody {
     /**
      * Returns this response body as a byte array.
      * @return the byte array.
+     * @throws IllegalStateException if the body was not retained as a byte array
+     *         because no assertion requires it.
+     * @throws org.opentest4j.AssertionFailedError if the body was spilled
+     *         to a file because it was too large.
+     * @see Assertion#requiresByteArray()
      */
     byte[] asByteArray();
 
+    /**
+     * Returns this response body as a read-only byte buffer.
+     * The buffer is mapped to a file if the body was too large to keep in memory.
+     *
+     * @return the read-only byte buffer.
+     * @throws IllegalStateException if the body was not retained
+     *         because no assertion requires it.
+     */
+    default ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(asByteArray()).asReadOnlyBuffer();
+    }
+
     /**
      * Returns this response body as a JSON value.
      * @return the JSON value.
      * @throws JsonException if the body is not a JSON.
+     * @throws org.opentest4j.AssertionFailedError if the body exceeded
+     *         the maximum size and was not parsed.
      */
     JsonValue asJson();
+
+    /**
+     * Returns the times taken to receive this response.
+     *
+     * @return the times taken to receive this response.
+     */
+    ResponseTiming getTiming();
+
+    /**
+     * Returns the sizes of this response body.
+     *
+     * @return the sizes of this response body.
+     */
+    ResponseSize getSize();
 }
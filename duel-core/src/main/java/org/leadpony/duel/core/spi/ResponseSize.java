@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.spi;
+
+/**
+ * The sizes of a response body, before and after the content encoding
+ * such as gzip was decoded.
+ *
+ * @author leadpony
+ */
+public interface ResponseSize {
+
+    /**
+     * Returns the number of the bytes of the body received on the wire.
+     * This is the same as the decoded size if the body was not encoded.
+     *
+     * @return the size of the body as received, in bytes.
+     */
+    long getWireSize();
+
+    /**
+     * Returns the number of the bytes of the body after it was decoded.
+     *
+     * @return the size of the decoded body, in bytes.
+     */
+    long getDecodedSize();
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.spi;
+
+import java.time.Duration;
+
+/**
+ * The times taken to receive a response, measured from when the request
+ * was sent.
+ *
+ * @author leadpony
+ */
+public interface ResponseTiming {
+
+    /**
+     * Returns the time elapsed until the status line and the header fields
+     * of the response were received.
+     *
+     * @return the time to the header fields.
+     */
+    Duration getTimeToHeaders();
+
+    /**
+     * Returns the time elapsed until the whole body of the response was
+     * received.
+     *
+     * @return the time to the end of the body.
+     */
+    Duration getTimeToBody();
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leadpony.duel.core.internal.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author leadpony
+ */
+public class BoundedExecutorServiceTest {
+
+    private static final int LIMIT = 2;
+    private static final int TASKS = 8;
+
+    @Test
+    public void executeShouldNotRunTasksMoreThanLimit() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ExecutorService executor = new BoundedExecutorService(Executors.newCachedThreadPool(), LIMIT);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < TASKS; i++) {
+                futures.add(executor.submit(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(peak.get()).isBetween(1, LIMIT);
+        assertThat(running.get()).isZero();
+    }
+
+    @Test
+    public void shutdownShouldShutDownUnderlyingExecutor() throws Exception {
+        ExecutorService underlying = Executors.newCachedThreadPool();
+        ExecutorService executor = new BoundedExecutorService(underlying, LIMIT);
+
+        executor.shutdown();
+
+        assertThat(underlying.isShutdown()).isTrue();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the lazy JSON values backed by {@link JsonIndex} with the tree
+ * built eagerly by the JSON reader, when a few properties are selected and
+ * when all of the values are traversed.
+ *
+ * @author leadpony
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonIndexBenchmark {
+
+    /*
+     * The number of the items in the response, 10000 items are about 1.5 MB.
+     */
+    @Param({"100", "10000"})
+    public int items;
+
+    private JsonProvider jsonProvider;
+    private JsonReaderFactory readerFactory;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        this.jsonProvider = JsonProvider.provider();
+        this.readerFactory = jsonProvider.createReaderFactory(Collections.emptyMap());
+        JsonArrayBuilder array = jsonProvider.createArrayBuilder();
+        for (int i = 0; i < items; i++) {
+            array.add(jsonProvider.createObjectBuilder()
+                    .add("id", i)
+                    .add("name", "item-" + i)
+                    .add("description", "The item numbered " + i + " in the \"catalog\".")
+                    .add("price", i * 1.25)
+                    .add("available", i % 2 == 0)
+                    .add("tags", jsonProvider.createArrayBuilder().add("new").add("sale"))
+                    .add("dimensions", jsonProvider.createObjectBuilder()
+                            .add("width", 10).add("height", 20).add("depth", 30)));
+        }
+        JsonObject root = jsonProvider.createObjectBuilder()
+                .add("total", items)
+                .add("items", array)
+                .build();
+        this.body = root.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String eagerSelective() {
+        return select(readEagerly());
+    }
+
+    @Benchmark
+    public String lazySelective() {
+        return select(JsonIndex.build(body, jsonProvider).getRoot());
+    }
+
+    @Benchmark
+    public long eagerFullTraversal() {
+        return traverse(readEagerly());
+    }
+
+    @Benchmark
+    public long lazyFullTraversal() {
+        return traverse(JsonIndex.build(body, jsonProvider).getRoot());
+    }
+
+    private JsonValue readEagerly() {
+        try (JsonReader reader = readerFactory.createReader(
+                new ByteArrayInputStream(body), StandardCharsets.UTF_8)) {
+            return reader.readValue();
+        }
+    }
+
+    private String select(JsonValue value) {
+        JsonObject root = value.asJsonObject();
+        JsonArray array = root.getJsonArray("items");
+        JsonObject item = array.getJsonObject(root.getInt("total") / 2);
+        return item.getString("name") + item.getJsonObject("dimensions").getInt("width");
+    }
+
+    /**
+     * Visits all of the values and counts them.
+     */
+    private static long traverse(JsonValue value) {
+        switch (value.getValueType()) {
+        case OBJECT:
+            long objectCount = 1;
+            for (JsonValue child : value.asJsonObject().values()) {
+                objectCount += traverse(child);
+            }
+            return objectCount;
+        case ARRAY:
+            long arrayCount = 1;
+            for (JsonValue child : value.asJsonArray()) {
+                arrayCount += traverse(child);
+            }
+            return arrayCount;
+        default:
+            return 1;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JsonIndexBenchmark.class.getSimpleName())
+                .build())
+            .run();
+    }
+}
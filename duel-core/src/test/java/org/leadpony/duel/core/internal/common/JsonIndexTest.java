@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * @author leadpony
+ */
+public class JsonIndexTest {
+
+    private static final JsonProvider PROVIDER = JsonProvider.provider();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "true",
+        "false",
+        "null",
+        "0",
+        "-42",
+        "2147483648",
+        "12345678901234567890",
+        "3.14",
+        "-1.5e-10",
+        "\"\"",
+        "\"hello\"",
+        "\"\\\"\\\\\\/\\b\\f\\n\\r\\t\"",
+        "\"\\u3042\\ud83d\\ude00\"",
+        "\"caf\u00e9 \u3042\u3044\u3046 \ud83d\ude00\"",
+        "[]",
+        "{}",
+        " [ 1 , \"two\" , [ true ] , { } ] ",
+        "[[[]],[{}],[[1],[2,[3]]]]",
+        "{\"a\":1,\"b\":[null,false],\"c\":{\"d\":\"e\\u0021\"}}",
+        "{\"k\\u0065y\":\"value\",\"empty\":{},\"list\":[]}",
+        "{\n  \"Image\": {\n    \"Width\": 800,\n    \"IDs\": [116, 943, 234, 38793]\n  }\n}"
+    })
+    public void getRootShouldReturnSameValueAsReader(String json) {
+        JsonValue expected = read(json);
+        JsonValue actual = build(json).getRoot();
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(expected).isEqualTo(actual);
+        assertThat(actual.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    public void getShouldReturnValueOfVisitedProperty() {
+        JsonObject object = build("{\"a\":{\"b\":[1,{\"c\":\"found\"}]},\"d\":[2,3]}")
+                .getRoot().asJsonObject();
+
+        assertThat(object.getJsonObject("a").getJsonArray("b").getJsonObject(1).getString("c"))
+                .isEqualTo("found");
+        assertThat(object.getJsonArray("d").getInt(1)).isEqualTo(3);
+        assertThat(object.get("missing")).isNull();
+    }
+
+    @Test
+    public void getShouldReturnLastValueOfDuplicateKey() {
+        JsonObject object = build("{\"a\":1,\"b\":2,\"a\":3}").getRoot().asJsonObject();
+
+        assertThat(object).hasSize(2);
+        assertThat(object.getInt("a")).isEqualTo(3);
+        assertThat(object.keySet()).containsExactly("a", "b");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "  ",
+        "[",
+        "{\"a\":1",
+        "{\"a\"}",
+        "{\"a\":1,}",
+        "[1,]",
+        "[1 2]",
+        "tru",
+        "truex",
+        "01",
+        "-",
+        "1.",
+        "\"unterminated",
+        "\"\\x\"",
+        "\"\\u12G4\"",
+        "<html></html>",
+        "{} {}"
+    })
+    public void buildShouldThrowIfIllFormed(String json) {
+        assertThatThrownBy(() -> build(json)).isInstanceOf(JsonException.class);
+    }
+
+    private static JsonIndex build(String json) {
+        return JsonIndex.build(json.getBytes(StandardCharsets.UTF_8), PROVIDER);
+    }
+
+    private static JsonValue read(String json) {
+        try (JsonReader reader = PROVIDER.createReader(new StringReader(json))) {
+            return reader.readValue();
+        }
+    }
+}
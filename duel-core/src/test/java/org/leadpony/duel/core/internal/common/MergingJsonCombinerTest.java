@@ -24,6 +24,7 @@ import javax.json.spi.JsonProvider;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.leadpony.duel.core.internal.JsonObjectSource;
 
@@ -55,5 +56,25 @@ public class MergingJsonCombinerTest {
         JsonValue actual = combiner.apply(base, value);
 
         assertThat(actual).isEqualTo(expected);
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    public void applyShouldMergeNestedObjectsOnlyOnce() {
+        JsonObject base = jsonProvider.createObjectBuilder()
+                .add("name", "base")
+                .add("nested", jsonProvider.createObjectBuilder().add("first", 1))
+                .build();
+        JsonObject value = jsonProvider.createObjectBuilder()
+                .add("nested", jsonProvider.createObjectBuilder().add("second", 2))
+                .build();
+
+        JsonObject actual = combiner.apply(base, value);
+
+        assertThat(actual.getString("name")).isEqualTo("base");
+        assertThat(actual.getJsonObject("nested")).isSameAs(actual.getJsonObject("nested"));
+        assertThat(actual.getJsonObject("nested").getInt("first")).isEqualTo(1);
+        assertThat(actual.getJsonObject("nested").getInt("second")).isEqualTo(2);
+        assertThat(jsonProvider.createObjectBuilder(actual).build()).isEqualTo(actual);
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author leadpony
+ */
+public class SpillableBufferTest {
+
+    private static final byte[] HELLO = "hello".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WORLD = " world".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HELLO_WORLD = "hello world".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void writeShouldKeepBytesInMemoryUpToThreshold() throws IOException {
+        try (SpillableBuffer buffer = new SpillableBuffer(HELLO_WORLD.length)) {
+            buffer.write(ByteBuffer.wrap(HELLO));
+            buffer.write(ByteBuffer.wrap(WORLD));
+
+            assertThat(buffer.isSpilled()).isFalse();
+            assertThat(buffer.size()).isEqualTo(HELLO_WORLD.length);
+            assertThat(buffer.toByteArray()).isEqualTo(HELLO_WORLD);
+            assertThat(buffer.toByteBuffer()).isEqualTo(ByteBuffer.wrap(HELLO_WORLD));
+        }
+    }
+
+    @Test
+    public void writeShouldSpillBytesBeyondThreshold() throws IOException {
+        ByteBuffer mapped;
+        try (SpillableBuffer buffer = new SpillableBuffer(HELLO.length)) {
+            buffer.write(ByteBuffer.wrap(HELLO));
+            buffer.write(ByteBuffer.wrap(WORLD));
+
+            assertThat(buffer.isSpilled()).isTrue();
+            assertThat(buffer.size()).isEqualTo(HELLO_WORLD.length);
+            assertThatThrownBy(buffer::toByteArray).isInstanceOf(IllegalStateException.class);
+            mapped = buffer.toByteBuffer();
+        }
+        assertThat(mapped.hasArray()).isFalse();
+        assertThat(mapped).isEqualTo(ByteBuffer.wrap(HELLO_WORLD));
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow.Subscription;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * @author leadpony
+ */
+public class InflatingSubscriberTest {
+
+    private static final byte[] TEXT = "{\"items\":[0,1,2,3,4,5,6,7,8,9]}\n"
+            .repeat(2000).getBytes(StandardCharsets.US_ASCII);
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 1024, Integer.MAX_VALUE})
+    public void shouldDecodeGzip(int chunkSize) throws Exception {
+        byte[] encoded = gzip(TEXT);
+        AtomicLong wireSize = new AtomicLong();
+
+        byte[] decoded = decode(encoded, InflatingSubscriber.GZIP, chunkSize, wireSize).get();
+
+        assertThat(decoded).isEqualTo(TEXT);
+        assertThat(wireSize.get()).isEqualTo(encoded.length);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 1024, Integer.MAX_VALUE})
+    public void shouldDecodeGzipWithFileName(int chunkSize) throws Exception {
+        byte[] encoded = gzipWithFileName(TEXT, "items.json");
+
+        byte[] decoded = decode(encoded, InflatingSubscriber.GZIP, chunkSize, new AtomicLong()).get();
+
+        assertThat(decoded).isEqualTo(TEXT);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 1024, Integer.MAX_VALUE})
+    public void shouldDecodeZlibDeflate(int chunkSize) throws Exception {
+        byte[] encoded = deflate(TEXT, false);
+
+        byte[] decoded = decode(encoded, InflatingSubscriber.DEFLATE, chunkSize, new AtomicLong()).get();
+
+        assertThat(decoded).isEqualTo(TEXT);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 1024, Integer.MAX_VALUE})
+    public void shouldDecodeRawDeflate(int chunkSize) throws Exception {
+        byte[] encoded = deflate(TEXT, true);
+
+        byte[] decoded = decode(encoded, InflatingSubscriber.DEFLATE, chunkSize, new AtomicLong()).get();
+
+        assertThat(decoded).isEqualTo(TEXT);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 1024, Integer.MAX_VALUE})
+    public void shouldDecodeConcatenatedGzip(int chunkSize) throws Exception {
+        byte[] first = gzip(TEXT);
+        byte[] second = gzipWithFileName(TEXT, "items.json");
+        byte[] encoded = new byte[first.length + second.length];
+        System.arraycopy(first, 0, encoded, 0, first.length);
+        System.arraycopy(second, 0, encoded, first.length, second.length);
+
+        byte[] decoded = decode(encoded, InflatingSubscriber.GZIP, chunkSize, new AtomicLong()).get();
+
+        assertThat(decoded).hasSize(TEXT.length * 2);
+        assertThat(decoded).startsWith(TEXT).endsWith(TEXT);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {InflatingSubscriber.GZIP, InflatingSubscriber.DEFLATE})
+    public void shouldDecodeEmptyBody(String encoding) throws Exception {
+        AtomicLong wireSize = new AtomicLong();
+
+        byte[] decoded = decode(new byte[0], encoding, 1, wireSize).get();
+
+        assertThat(decoded).isEmpty();
+        assertThat(wireSize.get()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 1024, Integer.MAX_VALUE})
+    public void shouldFailOnTruncatedSecondGzipMember(int chunkSize) throws Exception {
+        byte[] first = gzip(TEXT);
+        byte[] second = gzip(TEXT);
+        byte[] encoded = new byte[first.length + second.length / 2];
+        System.arraycopy(first, 0, encoded, 0, first.length);
+        System.arraycopy(second, 0, encoded, first.length, second.length / 2);
+
+        CompletableFuture<byte[]> future = decode(encoded, InflatingSubscriber.GZIP, chunkSize, new AtomicLong());
+
+        assertThatThrownBy(future::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IOException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 1024, Integer.MAX_VALUE})
+    public void shouldFailOnBytesFollowingDeflate(int chunkSize) throws Exception {
+        byte[] deflated = deflate(TEXT, false);
+        byte[] encoded = new byte[deflated.length + 4];
+        System.arraycopy(deflated, 0, encoded, 0, deflated.length);
+
+        CompletableFuture<byte[]> future = decode(encoded, InflatingSubscriber.DEFLATE, chunkSize, new AtomicLong());
+
+        assertThatThrownBy(future::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IOException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 1024, Integer.MAX_VALUE})
+    public void shouldFailOnTruncatedGzip(int chunkSize) throws Exception {
+        byte[] encoded = gzip(TEXT);
+        byte[] truncated = new byte[encoded.length - 4];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        CompletableFuture<byte[]> future = decode(truncated, InflatingSubscriber.GZIP, chunkSize, new AtomicLong());
+
+        assertThatThrownBy(future::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IOException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 1024, Integer.MAX_VALUE})
+    public void shouldFailOnCorruptedGzip(int chunkSize) throws Exception {
+        byte[] encoded = gzip(TEXT);
+        // breaks the CRC in the trailer.
+        encoded[encoded.length - 8] ^= 0xff;
+
+        CompletableFuture<byte[]> future = decode(encoded, InflatingSubscriber.GZIP, chunkSize, new AtomicLong());
+
+        assertThatThrownBy(future::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IOException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 1024, Integer.MAX_VALUE})
+    public void shouldFailOnBodyNotCompressed(int chunkSize) throws Exception {
+        CompletableFuture<byte[]> future = decode(TEXT, InflatingSubscriber.GZIP, chunkSize, new AtomicLong());
+
+        assertThatThrownBy(future::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IOException.class);
+    }
+
+    private static CompletableFuture<byte[]> decode(byte[] encoded, String encoding, int chunkSize,
+            AtomicLong wireSize) {
+        InflatingSubscriber<byte[]> subscriber = new InflatingSubscriber<>(
+                BodySubscribers.ofByteArray(), encoding, wireSize);
+        TestSubscription subscription = new TestSubscription();
+        subscriber.onSubscribe(subscription);
+        for (int offset = 0; offset < encoded.length && !subscription.cancelled; offset += chunkSize) {
+            int length = Math.min(chunkSize, encoded.length - offset);
+            subscriber.onNext(List.of(ByteBuffer.wrap(encoded, offset, length)));
+        }
+        if (!subscription.cancelled) {
+            subscriber.onComplete();
+        }
+        return subscriber.getBody().toCompletableFuture();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gzipWithFileName(byte[] bytes, String name) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // the header with FNAME flag
+        out.write(new byte[] {0x1f, (byte) 0x8b, 8, 8, 0, 0, 0, 0, 0, (byte) 0xff});
+        out.write(name.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(0);
+        out.write(deflate(bytes, true));
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        writeInt(out, crc.getValue());
+        writeInt(out, bytes.length);
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] bytes, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+            deflate.write(bytes);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 4; i++) {
+            out.write((int) (value >>> (i * 8)) & 0xff);
+        }
+    }
+
+    /**
+     * @author leadpony
+     */
+    private static class TestSubscription implements Subscription {
+
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.leadpony.duel.core.internal.JsonObjectSource;
 import org.leadpony.duel.core.internal.Logging;
+import org.leadpony.duel.core.internal.common.JsonCombiner;
 
 /**
  * @author leadpony
@@ -73,4 +74,20 @@ public class JsonExpanderTest {
         assertThat(thrown).isInstanceOf(PropertyException.class);
         LOG.info(thrown.getMessage());
     }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @JsonObjectSource
+    public void expandShouldReuseParentProperties(String name, JsonObject object) {
+        JsonObject parent = object.getJsonObject("parent");
+        JsonObject child = object.getJsonObject("child");
+        JsonObject expected = object.getJsonObject("expected");
+        JsonObject merged = JsonCombiner.merging(jsonProvider).apply(parent, child);
+
+        PropertyTable parentTable = expander.resolveProperties(parent, parent, null);
+        PropertyTable childTable = expander.resolveProperties(merged, child, parentTable);
+        JsonObject actual = expander.expand(merged, childTable);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.toString()).isEqualTo(expander.apply(merged).toString());
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.JsonObject;
+import javax.json.spi.JsonProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.leadpony.duel.core.api.CaseNode;
+import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.TestLoader;
+
+/**
+ * Measures the heap retained by the nodes of a synthetic project,
+ * and compares it with the three JSON trees formerly retained by each node.
+ * <p>
+ * This test is slow and the measured values are only approximate,
+ * so it runs only with the benchmark profile: {@code mvn -Pbenchmark verify}.
+ * </p>
+ *
+ * @author leadpony
+ */
+@Tag("benchmark")
+public class NodeFootprintTest {
+
+    private static final Logger LOG = System.getLogger(NodeFootprintTest.class.getName());
+
+    private static final int GROUPS = 20;
+    private static final int CASES_PER_GROUP = 1000;
+    private static final int CASES = GROUPS * CASES_PER_GROUP;
+
+    /*
+     * The upper limit of the bytes retained per case, which is far above the
+     * measured value but detects the regression of holding the whole
+     * configurations for every case.
+     */
+    private static final long MAX_BYTES_PER_CASE = 4096;
+
+    @TempDir
+    public Path projectDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.writeString(projectDir.resolve(GroupNode.ROOT_FILE_NAME),
+                "{ \"version\": 1, \"host\": \"localhost\", \"port\": 8080, "
+                + "\"properties\": { \"resource\": \"items\" }, "
+                + "\"response\": { \"status\": 200, \"headers\": { \"Content-Type\": \"application/json\" } } }");
+        for (int i = 0; i < GROUPS; i++) {
+            Path dir = Files.createDirectory(projectDir.resolve("group" + i));
+            Files.writeString(dir.resolve(GroupNode.FILE_NAME),
+                    "{ \"properties\": { \"group\": \"" + i + "\" } }");
+            for (int j = 0; j < CASES_PER_GROUP; j++) {
+                Files.writeString(dir.resolve("case" + j + ".test.json"),
+                        "{ \"path\": \"/${resource}/${group}/" + j + "\", "
+                        + "\"request\": { \"method\": \"GET\" } }");
+            }
+        }
+    }
+
+    @Test
+    public void loadShouldRetainLimitedBytesPerCase() {
+        long before = usedMemory();
+        GroupNode root = TestLoader.loadFrom(projectDir);
+        long after = usedMemory();
+        long bytesPerCase = (after - before) / CASES;
+
+        long legacyBytesPerCase = measureLegacyTrees(root) / CASES;
+
+        LOG.log(Level.INFO, "Retained {0} bytes per case for {1} cases, "
+                + "{2} bytes per case in addition to them with the original, merged and expanded trees",
+                bytesPerCase, CASES, legacyBytesPerCase);
+
+        assertThat(root.getSubgroups()).hasSize(GROUPS);
+        assertThat(bytesPerCase).isLessThan(MAX_BYTES_PER_CASE);
+    }
+
+    /**
+     * Measures the heap retained by the trees which each node formerly held:
+     * the original configuration read from the file, and the merged and expanded
+     * configurations which shared nothing with the other nodes.
+     * The merged configuration is approximated by a copy of the expanded one.
+     *
+     * @param root the root of the project loaded.
+     * @return the bytes retained by the trees of all cases.
+     */
+    private static long measureLegacyTrees(GroupNode root) {
+        JsonProvider provider = JsonProvider.provider();
+        List<JsonObject> trees = new ArrayList<>(CASES * 3);
+        long before = usedMemory();
+        for (GroupNode group : root.getSubgroups()) {
+            for (CaseNode node : group.getTestCases()) {
+                String effective = node.getEffectiveConfigurationAsJson().toString();
+                trees.add(node.getOriginalConfigurationAsJson());
+                trees.add(provider.createReader(new StringReader(effective)).readObject());
+                trees.add(provider.createReader(new StringReader(effective)).readObject());
+            }
+        }
+        long after = usedMemory();
+        assertThat(trees).hasSize(CASES * 3);
+        return after - before;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.leadpony.duel.core.api.CaseNode;
+import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.Node;
+import org.leadpony.duel.core.api.TestLoader;
+import org.leadpony.duel.core.api.TestLoadingException;
+
+/**
+ * @author leadpony
+ */
+public class ProjectBundleTest {
+
+    private static final Path PROJECT_PATH = Paths.get("src/test/projects/project/nested");
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void loadShouldReturnSameProjectFromBundle() throws IOException {
+        GroupNode expected = TestLoader.loadFrom(PROJECT_PATH);
+        Path bundle = tempDir.resolve("nested" + ProjectBundle.FILE_EXTENSION);
+        TestLoader.writeBundle(expected, bundle);
+
+        GroupNode actual = TestLoader.loadFrom(bundle);
+
+        assertThat(actual.isRoot()).isTrue();
+        assertSameNode(actual, expected);
+    }
+
+    @Test
+    public void loadShouldReportBrokenBundle() throws IOException {
+        Path bundle = tempDir.resolve("broken" + ProjectBundle.FILE_EXTENSION);
+        Files.writeString(bundle, "{}");
+
+        Throwable thrown = catchThrowable(() -> TestLoader.loadFrom(bundle));
+
+        assertThat(thrown).isInstanceOf(TestLoadingException.class);
+        assertThat(((TestLoadingException) thrown).getProblems()).hasSize(1);
+    }
+
+    @Test
+    public void loadShouldSendFilePackedInBundle() throws IOException {
+        Path projectDir = tempDir.resolve("project");
+        Files.createDirectories(projectDir);
+        Files.writeString(projectDir.resolve("root.json"), "{\"version\": 1}");
+        Files.writeString(projectDir.resolve("post.test.json"),
+                "{\"request\": {\"body\": {\"file\": \"payload.bin\"}}}");
+        Files.write(projectDir.resolve("payload.bin"), new byte[] {1, 2, 3});
+        Path bundle = tempDir.resolve("project" + ProjectBundle.FILE_EXTENSION);
+        TestLoader.writeBundle(TestLoader.loadFrom(projectDir), bundle);
+        Files.delete(projectDir.resolve("payload.bin"));
+
+        TestCase testCase = (TestCase) TestLoader.loadFrom(bundle).getTestCases().iterator().next();
+        Path file = testCase.getRequestBodyFile().get();
+
+        assertThat(file).doesNotExist();
+        assertThat(testCase.createFileBodyPublisher(file).contentLength()).isEqualTo(3);
+    }
+
+    @Test
+    public void loadShouldReportFiltersGivenForBundle() throws IOException {
+        Path bundle = tempDir.resolve("nested" + ProjectBundle.FILE_EXTENSION);
+        TestLoader.writeBundle(TestLoader.loadFrom(PROJECT_PATH), bundle);
+
+        Throwable thrown = catchThrowable(() -> {
+            TestLoader.newLoader(bundle).withNames(List.of("test*")).load();
+        });
+
+        assertThat(thrown).isInstanceOf(TestLoadingException.class);
+        assertThat(((TestLoadingException) thrown).getProblems()).hasSize(1);
+    }
+
+    private static void assertSameNode(Node actual, Node expected) {
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getOriginalConfigurationAsJson())
+            .isEqualTo(expected.getOriginalConfigurationAsJson());
+        assertThat(actual.getEffectiveConfigurationAsJson())
+            .isEqualTo(expected.getEffectiveConfigurationAsJson());
+        if (expected instanceof CaseNode) {
+            assertThat(((CaseNode) actual).getEndpointUrl())
+                .isEqualTo(((CaseNode) expected).getEndpointUrl());
+        } else {
+            GroupNode actualGroup = (GroupNode) actual;
+            GroupNode expectedGroup = (GroupNode) expected;
+            assertThat(actualGroup.getTestCases()).hasSameSizeAs(expectedGroup.getTestCases());
+            assertThat(actualGroup.getSubgroups()).hasSameSizeAs(expectedGroup.getSubgroups());
+            Iterator<Node> it = actualGroup.iterator();
+            for (Node child : expectedGroup) {
+                assertSameNode(it.next(), child);
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.leadpony.duel.core.api.CaseNode;
+import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.Node;
+import org.leadpony.duel.core.api.TestLoader;
+
+/**
+ * @author leadpony
+ */
+public class ProjectCacheTest {
+
+    private static final Path SOURCE_PATH = Paths.get("src/test/projects/project/nested");
+
+    @TempDir
+    public Path projectDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        try (Stream<Path> stream = Files.walk(SOURCE_PATH)) {
+            for (Path source : (Iterable<Path>) stream::iterator) {
+                Path target = projectDir.resolve(SOURCE_PATH.relativize(source).toString());
+                if (Files.isDirectory(source)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(source, target);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void loadShouldCreateCache() {
+        load();
+        assertThat(projectDir.resolve(ProjectCache.DIRECTORY).resolve("project.bin")).isRegularFile();
+    }
+
+    @Test
+    public void loadShouldReturnSameProjectFromCache() {
+        GroupNode expected = TestLoader.loadFrom(projectDir);
+
+        load();
+        GroupNode actual = load();
+
+        assertThat(actual.getEffectiveConfigurationAsJson())
+            .isEqualTo(expected.getEffectiveConfigurationAsJson());
+        assertThat(getEndpoint(actual, "users", "user1"))
+            .isEqualTo(getEndpoint(expected, "users", "user1"));
+        assertThat(getEndpoint(actual, "users", "admin", "admin1"))
+            .isEqualTo(getEndpoint(expected, "users", "admin", "admin1"));
+    }
+
+    @Test
+    public void loadShouldRecompileDescendantsOfModifiedGroup() throws IOException {
+        load();
+        Files.writeString(projectDir.resolve("users/group.json"),
+                "{ \"properties\": { \"resource\": \"members\" } }");
+
+        GroupNode actual = load();
+
+        assertThat(getEndpoint(actual, "users", "user1"))
+            .isEqualTo("http://localhost:8080/api/members/1");
+        assertThat(getEndpoint(actual, "users", "admin", "admin1"))
+            .isEqualTo("http://localhost:8080/admin/members/admin1");
+        assertThat(getEndpoint(actual, "books", "book1"))
+            .isEqualTo("http://localhost:8080/api/books/1");
+    }
+
+    @Test
+    public void loadShouldRecompileNodeReferringChangedSystemProperty() throws IOException {
+        Files.writeString(projectDir.resolve("health.test.json"),
+                "{ \"path\": \"/${duel.test.health}\" }");
+        System.setProperty("duel.test.health", "alive");
+        try {
+            load();
+            System.setProperty("duel.test.health", "ready");
+
+            GroupNode actual = load();
+
+            assertThat(getEndpoint(actual, "health"))
+                .isEqualTo("http://localhost:8080/api/ready");
+        } finally {
+            System.clearProperty("duel.test.health");
+        }
+    }
+
+    @Test
+    public void loadShouldRecompileOnlyBrokenEntries() throws IOException {
+        GroupNode expected = TestLoader.loadFrom(projectDir);
+        load();
+        Path file = projectDir.resolve(ProjectCache.DIRECTORY).resolve("project.bin");
+        byte[] bytes = Files.readAllBytes(file);
+        // breaks the last entry in the data section.
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        GroupNode actual = load();
+
+        assertThat(getEndpoint(actual, "users", "user1"))
+            .isEqualTo(getEndpoint(expected, "users", "user1"));
+        assertThat(getEndpoint(actual, "users", "admin", "admin1"))
+            .isEqualTo(getEndpoint(expected, "users", "admin", "admin1"));
+        assertThat(getEndpoint(actual, "books", "book1"))
+            .isEqualTo(getEndpoint(expected, "books", "book1"));
+    }
+
+    @Test
+    public void loadWithFilterShouldKeepEntriesNotVisited() throws IOException {
+        load();
+        Path file = projectDir.resolve(ProjectCache.DIRECTORY).resolve("project.bin");
+        long expected = Files.size(file);
+
+        TestLoader.newLoader(projectDir)
+            .withCache(true)
+            .withIncludedPaths(List.of("books/**"))
+            .load();
+
+        assertThat(Files.size(file)).isEqualTo(expected);
+    }
+
+    @Test
+    public void loadShouldDiscardEntryOfDeletedFile() throws IOException {
+        load();
+        Path file = projectDir.resolve(ProjectCache.DIRECTORY).resolve("project.bin");
+        long full = Files.size(file);
+        Files.delete(projectDir.resolve("health.test.json"));
+
+        load();
+
+        assertThat(Files.size(file)).isLessThan(full);
+    }
+
+    @Test
+    public void loadLazilyShouldStoreChildrenLoadedLater() throws IOException {
+        load();
+        Path file = projectDir.resolve(ProjectCache.DIRECTORY).resolve("project.bin");
+        long expected = Files.size(file);
+        Files.delete(file);
+
+        GroupNode root = TestLoader.newLoader(projectDir).withCache(true).withLazyLoading(true).load();
+        visitAll(root);
+
+        assertThat(Files.size(file)).isEqualTo(expected);
+    }
+
+    @Test
+    public void loadLazilyShouldKeepWarmCache() throws IOException {
+        load();
+        Path file = projectDir.resolve(ProjectCache.DIRECTORY).resolve("project.bin");
+        long expected = Files.size(file);
+
+        TestLoader.newLoader(projectDir).withCache(true).withLazyLoading(true).load();
+
+        assertThat(Files.size(file)).isEqualTo(expected);
+    }
+
+    private GroupNode load() {
+        return TestLoader.newLoader(projectDir).withCache(true).load();
+    }
+
+    private static String getEndpoint(GroupNode group, String... names) {
+        for (int i = 0; i < names.length - 1; i++) {
+            group = findNode(group.getSubgroups().stream(), names[i]);
+        }
+        CaseNode node = findNode(group.getTestCases().stream(), names[names.length - 1]);
+        return node.getEndpointUrl().toString();
+    }
+
+    private static void visitAll(GroupNode group) {
+        group.getTestCases();
+        group.getSubgroups().forEach(ProjectCacheTest::visitAll);
+    }
+
+    private static <T extends Node> T findNode(Stream<T> nodes, String name) {
+        return nodes.filter(node -> node.getName().equals(name)).findFirst().get();
+    }
+}
@@ -17,16 +17,24 @@
 package org.leadpony.duel.core.internal.node;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.leadpony.duel.core.api.TestLoader;
 import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.internal.common.BoundedExecutorService;
+import org.leadpony.duel.core.internal.common.VirtualThreads;
 
 /**
  * @author leadpony
@@ -41,7 +49,8 @@ public class RootGroupTest {
     public enum RootGroupTestCase {
         NO_TESTS(1, 0),
         SINGLE_TEST(1, 1),
-        MULTIPLE_TESTS(1, 3);
+        MULTIPLE_TESTS(1, 3),
+        NESTED(4, 7);
 
         final int groups;
         final int cases;
@@ -66,6 +75,22 @@ public class RootGroupTest {
         assertThat(countCases(root)).isEqualTo(test.cases);
     }
 
+    @Test
+    public void createExecutorServiceShouldFallBackToPlatformThreads(@TempDir Path dir) throws Exception {
+        assumeFalse(VirtualThreads.isAvailable());
+        Files.writeString(dir.resolve("root.json"), "{\"version\": 1, \"threads\": \"virtual\"}");
+        GroupNode root = TestLoader.loadFrom(dir);
+
+        ExecutorService executor = root.createExecution().createExecutorService(2);
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+            assertThat(executor).isNotInstanceOf(BoundedExecutorService.class);
+            assertThat(thread.isDaemon()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private static long countGroups(GroupNode group) {
         return group.getSubgroups().stream()
                 .reduce(1L,
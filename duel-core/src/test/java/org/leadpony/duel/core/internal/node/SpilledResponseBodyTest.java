@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.leadpony.duel.core.internal.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.leadpony.duel.core.spi.ResponseBody;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * @author leadpony
+ */
+public class SpilledResponseBodyTest {
+
+    private static final int SIZE = 1234;
+
+    @Test
+    public void spilledBodyShouldFailAsByteArrayAndAsJsonAlike() {
+        ResponseBody body = new SpilledResponseBody(spilled(), Optional.empty(),
+                AbstractResponseBody.NOT_ENCODED, 0, 0);
+
+        assertFailsWithSize(catchThrowable(body::asByteArray));
+        assertFailsWithSize(catchThrowable(body::asJson));
+        assertThat(body.asByteBuffer().remaining()).isEqualTo(SIZE);
+    }
+
+    @Test
+    public void streamedSpilledBodyShouldFailAsByteArrayAndAsJsonAlike() {
+        ResponseBody body = new StreamedResponseBody(spilled(), SIZE, SIZE - 1, null, null,
+                Optional.empty(), AbstractResponseBody.NOT_ENCODED, 0, 0);
+
+        assertFailsWithSize(catchThrowable(body::asByteArray));
+        assertFailsWithSize(catchThrowable(body::asJson));
+        assertThat(body.asByteBuffer().remaining()).isEqualTo(SIZE);
+    }
+
+    /**
+     * Returns a buffer without a backing array as the one mapped to a file.
+     */
+    private static ByteBuffer spilled() {
+        return ByteBuffer.allocateDirect(SIZE);
+    }
+
+    private static void assertFailsWithSize(Throwable thrown) {
+        assertThat(thrown)
+            .isInstanceOf(AssertionFailedError.class)
+            .hasMessageContaining(String.valueOf(SIZE));
+    }
+}
@@ -22,14 +22,18 @@ import java.net.URI;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.leadpony.duel.core.api.TestLoader;
 import org.leadpony.duel.core.api.CaseNode;
 import org.leadpony.duel.core.api.GroupNode;
 import org.leadpony.duel.core.internal.Logging;
+import org.leadpony.duel.core.spi.AssertionFactory;
 
 /**
  * @author leadpony
@@ -110,4 +114,40 @@ public class TestCaseTest {
         LOG.info(actual.toASCIIString());
         assertThat(actual).isEqualTo(test.expected);
     }
+
+    @ParameterizedTest
+    @EnumSource(EndpointTestCase.class)
+    public void getEndpointUrlShouldReturnSameInstance(EndpointTestCase test) {
+        CaseNode testCase = findFirstTestCase(test.getStartPath());
+        assertThat(testCase.getEndpointUrl()).isSameAs(testCase.getEndpointUrl());
+    }
+
+    @Test
+    public void getAssertionPlanShouldCompileAssertionsOnlyOnce() {
+        TestCase testCase = (TestCase) findFirstTestCase(PropertiesTestCase.SIMPLE.getStartPath());
+        AtomicInteger count = new AtomicInteger();
+        AssertionFactory factory = node -> {
+            count.incrementAndGet();
+            return Stream.empty();
+        };
+
+        AssertionPlan first = testCase.getAssertionPlan(factory);
+        AssertionPlan second = testCase.getAssertionPlan(factory);
+
+        assertThat(second).isSameAs(first);
+        assertThat(count).hasValue(1);
+    }
+
+    @Test
+    public void getAssertionPlanShouldCompileAssertionsAgainForAnotherFactory() {
+        TestCase testCase = (TestCase) findFirstTestCase(PropertiesTestCase.SIMPLE.getStartPath());
+        AssertionFactory factory = node -> Stream.empty();
+        AssertionFactory anotherFactory = node -> Stream.empty();
+
+        AssertionPlan first = testCase.getAssertionPlan(factory);
+        AssertionPlan second = testCase.getAssertionPlan(anotherFactory);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.isCompiledBy(anotherFactory)).isTrue();
+    }
 }
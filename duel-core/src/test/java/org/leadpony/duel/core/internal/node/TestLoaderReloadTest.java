@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.leadpony.duel.core.api.CaseNode;
+import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.Node;
+import org.leadpony.duel.core.api.TestLoader;
+import org.leadpony.duel.core.api.TestLoadingException;
+
+/**
+ * @author leadpony
+ */
+public class TestLoaderReloadTest {
+
+    private static final Path SOURCE_PATH = Paths.get("src/test/projects/project/nested");
+
+    @TempDir
+    public Path projectDir;
+
+    private TestLoader loader;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        try (Stream<Path> stream = Files.walk(SOURCE_PATH)) {
+            for (Path source : (Iterable<Path>) stream::iterator) {
+                Path target = projectDir.resolve(SOURCE_PATH.relativize(source).toString());
+                if (Files.isDirectory(source)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(source, target);
+                }
+            }
+        }
+        loader = TestLoader.newLoader(projectDir);
+    }
+
+    @Test
+    public void reloadShouldReplaceOnlyModifiedCase() throws IOException {
+        GroupNode previous = loader.load();
+        Path path = projectDir.resolve("users/user2.test.json");
+        Files.writeString(path, "{ \"path\": \"/${resource}/two\" }");
+
+        GroupNode actual = loader.reload(List.of(path));
+
+        assertThat(findNode(actual, "users", "user2"))
+            .isNotSameAs(findNode(previous, "users", "user2"));
+        assertThat(getEndpoint(actual, "users", "user2"))
+            .isEqualTo("http://localhost:8080/api/users/two");
+        assertThat(findNode(actual, "users", "user1"))
+            .isSameAs(findNode(previous, "users", "user1"));
+        assertThat(findGroup(actual, "users", "admin"))
+            .isSameAs(findGroup(previous, "users", "admin"));
+        assertThat(findGroup(actual, "books"))
+            .isSameAs(findGroup(previous, "books"));
+    }
+
+    @Test
+    public void reloadShouldKeepCacheOfReusedNodes() throws IOException {
+        loader = TestLoader.newLoader(projectDir).withCache(true);
+        loader.load();
+        Path file = projectDir.resolve(ProjectCache.DIRECTORY).resolve("project.bin");
+        long expected = Files.size(file);
+        Path path = projectDir.resolve("users/user2.test.json");
+        // modifies the case without changing the size of its entry.
+        Files.writeString(path, Files.readString(path).replace("/2", "/9"));
+
+        loader.reload(List.of(path));
+
+        assertThat(Files.size(file)).isEqualTo(expected);
+    }
+
+    @Test
+    public void reloadShouldReuseAssertionPlanOfUnchangedCase() throws IOException {
+        GroupNode previous = loader.load();
+        AssertionPlan unchanged = getAssertionPlan(previous, "users", "user1");
+        AssertionPlan modified = getAssertionPlan(previous, "users", "user2");
+        Path path = projectDir.resolve("users/user2.test.json");
+        Files.writeString(path, "{ \"path\": \"/${resource}/two\" }");
+
+        GroupNode actual = loader.reload(List.of(path));
+
+        assertThat(getAssertionPlan(actual, "users", "user1")).isSameAs(unchanged);
+        assertThat(getAssertionPlan(actual, "users", "user2")).isNotSameAs(modified);
+    }
+
+    @Test
+    public void reloadShouldReplaceDescendantsOfModifiedGroup() throws IOException {
+        GroupNode previous = loader.load();
+        Path path = projectDir.resolve("users/group.json");
+        Files.writeString(path, "{ \"properties\": { \"resource\": \"members\" } }");
+
+        GroupNode actual = loader.reload(List.of(path));
+
+        assertThat(findNode(actual, "users", "user1"))
+            .isNotSameAs(findNode(previous, "users", "user1"));
+        assertThat(getEndpoint(actual, "users", "user1"))
+            .isEqualTo("http://localhost:8080/api/members/1");
+        assertThat(getEndpoint(actual, "users", "admin", "admin1"))
+            .isEqualTo("http://localhost:8080/admin/members/admin1");
+        assertThat(findNode(actual, "health"))
+            .isSameAs(findNode(previous, "health"));
+        assertThat(findGroup(actual, "books"))
+            .isSameAs(findGroup(previous, "books"));
+    }
+
+    @Test
+    public void reloadShouldFindAddedAndRemovedCases() throws IOException {
+        GroupNode previous = loader.load();
+        Path added = projectDir.resolve("books/book3.test.json");
+        Files.writeString(added, "{ \"path\": \"/${resource}/3\" }");
+        Path removed = projectDir.resolve("books/book1.test.json");
+        Files.delete(removed);
+
+        GroupNode actual = loader.reload(List.of(added, removed));
+
+        assertThat(namesOf(findGroup(actual, "books").getTestCases().stream()))
+            .containsExactly("book2", "book3");
+        assertThat(findNode(actual, "books", "book2"))
+            .isSameAs(findNode(previous, "books", "book2"));
+        assertThat(findGroup(actual, "users"))
+            .isSameAs(findGroup(previous, "users"));
+    }
+
+    @Test
+    public void reloadShouldReplaceAllNodesIfRootIsModified() throws IOException {
+        GroupNode previous = loader.load();
+        Path path = projectDir.resolve("root.json");
+        Files.writeString(path, "{ \"host\": \"example.org\", \"basePath\": \"/api\","
+                + " \"properties\": { \"resource\": \"root\" } }");
+
+        GroupNode actual = loader.reload(List.of(path));
+
+        assertThat(findNode(actual, "books", "book1"))
+            .isNotSameAs(findNode(previous, "books", "book1"));
+        assertThat(getEndpoint(actual, "books", "book1"))
+            .isEqualTo("http://example.org/api/books/1");
+    }
+
+    @Test
+    public void reloadShouldReportProblemOfUntouchedBrokenCase() throws IOException {
+        Path broken = projectDir.resolve("books/book1.test.json");
+        Files.writeString(broken, "{ \"path\": ");
+        assertThatThrownBy(loader::load).isInstanceOf(TestLoadingException.class);
+        Path path = projectDir.resolve("users/user2.test.json");
+        Files.writeString(path, "{ \"path\": \"/${resource}/two\" }");
+
+        Throwable thrown = catchThrowable(() -> loader.reload(List.of(path)));
+
+        assertThat(thrown).isInstanceOf(TestLoadingException.class);
+        assertThat(((TestLoadingException) thrown).getProblems())
+            .anyMatch(problem -> problem.getPath().filter(broken::equals).isPresent());
+    }
+
+    @Test
+    public void reloadShouldLoadFixedCaseAfterFailure() throws IOException {
+        Path broken = projectDir.resolve("books/book1.test.json");
+        Files.writeString(broken, "{ \"path\": ");
+        assertThatThrownBy(loader::load).isInstanceOf(TestLoadingException.class);
+        Files.writeString(broken, "{ \"path\": \"/${resource}/one\" }");
+
+        GroupNode actual = loader.reload(List.of(broken));
+
+        assertThat(getEndpoint(actual, "books", "book1"))
+            .isEqualTo("http://localhost:8080/api/books/one");
+    }
+
+    private static String getEndpoint(GroupNode group, String... names) {
+        return findNode(group, names).getEndpointUrl().toString();
+    }
+
+    private static AssertionPlan getAssertionPlan(GroupNode root, String... names) {
+        TestCase testCase = (TestCase) findNode(root, names);
+        return testCase.getAssertionPlan(((RootTestGroup) root).getAssertionFactory());
+    }
+
+    private static CaseNode findNode(GroupNode group, String... names) {
+        for (int i = 0; i < names.length - 1; i++) {
+            group = findNode(group.getSubgroups().stream(), names[i]);
+        }
+        return findNode(group.getTestCases().stream(), names[names.length - 1]);
+    }
+
+    private static GroupNode findGroup(GroupNode group, String... names) {
+        for (String name : names) {
+            group = findNode(group.getSubgroups().stream(), name);
+        }
+        return group;
+    }
+
+    private static <T extends Node> T findNode(Stream<T> nodes, String name) {
+        return nodes.filter(node -> node.getName().equals(name)).findFirst().get();
+    }
+
+    private static List<String> namesOf(Stream<? extends Node> nodes) {
+        return nodes.map(Node::getName).collect(Collectors.toList());
+    }
+}
@@ -21,12 +21,23 @@ import static org.assertj.core.api.Assertions.catchThrowable;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.leadpony.duel.core.api.CaseNode;
 import org.leadpony.duel.core.api.GroupNode;
+import org.leadpony.duel.core.api.Node;
 import org.leadpony.duel.core.api.TestLoadingException;
 import org.leadpony.duel.core.api.TestLoader;
+import org.leadpony.duel.core.internal.JsonObjectSource;
 
 /**
  * @author leadpony
@@ -58,4 +69,129 @@ public class TestLoaderTest {
         });
         assertThat(thrown).isInstanceOf(TestLoadingException.class);
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "multiple_tests",
+            "nested"
+    })
+    public void loadProjectShouldLoadSameProjectInParallel(String dir) {
+        Path path = Paths.get(BASE_PATH, dir);
+        GroupNode expected = TestLoader.loadFrom(path);
+        GroupNode actual = TestLoader.newLoader(path).withParallelism(4).load();
+
+        assertThat(flatten(actual)).isEqualTo(flatten(expected));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "multiple_tests",
+            "nested"
+    })
+    public void loadProjectShouldLoadSameProjectLazily(String dir) {
+        Path path = Paths.get(BASE_PATH, dir);
+        GroupNode expected = TestLoader.loadFrom(path);
+        GroupNode actual = TestLoader.newLoader(path).withLazyLoading(true).load();
+
+        assertThat(flatten(actual)).isEqualTo(flatten(expected));
+    }
+
+    @Test
+    public void loadProjectShouldDeferProblemsInSubgroupsIfLazy() {
+        Path path = Paths.get(BASE_PATH, "broken_subgroup");
+        assertThat(catchThrowable(() -> TestLoader.loadFrom(path)))
+            .isInstanceOf(TestLoadingException.class);
+
+        GroupNode root = TestLoader.newLoader(path).withLazyLoading(true).load();
+
+        assertThat(root.getTestCases()).hasSize(1);
+        Throwable thrown = catchThrowable(() -> root.getSubgroups());
+        assertThat(thrown).isInstanceOf(TestLoadingException.class);
+        assertThat(((TestLoadingException) thrown).getProblems()).hasSize(1);
+        assertThat(catchThrowable(() -> root.getSubgroups())).isSameAs(thrown);
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @JsonObjectSource
+    public void loadProjectShouldSelectTests(String name, JsonObject object) {
+        Path path = Paths.get(BASE_PATH, "nested");
+        GroupNode root = TestLoader.newLoader(path)
+                .withIncludedPaths(getStrings(object, "includedPaths"))
+                .withExcludedPaths(getStrings(object, "excludedPaths"))
+                .withNames(getStrings(object, "names"))
+                .withTags(getStrings(object, "tags"))
+                .withExcludedTags(getStrings(object, "excludedTags"))
+                .load();
+
+        List<String> actual = new ArrayList<>();
+        collectCases(root, path, actual);
+
+        assertThat(actual).isEqualTo(getStrings(object, "expected"));
+    }
+
+    @Test
+    public void loadProjectShouldNotReadExcludedDirectory() {
+        Path path = Paths.get(BASE_PATH, "broken_subgroup");
+
+        GroupNode root = TestLoader.newLoader(path)
+                .withExcludedPaths(List.of("broken"))
+                .load();
+
+        assertThat(root.getTestCases()).hasSize(1);
+        assertThat(root.getSubgroups()).isEmpty();
+    }
+
+    @Test
+    public void loadProjectShouldNotReadGroupWithoutSelectedCases() {
+        Path path = Paths.get(BASE_PATH, "broken_subgroup");
+
+        GroupNode root = TestLoader.newLoader(path)
+                .withNames(List.of("health"))
+                .load();
+
+        assertThat(root.getTestCases()).hasSize(1);
+        assertThat(root.getSubgroups()).isEmpty();
+    }
+
+    @Test
+    public void loadProjectShouldAccumulateTags() {
+        Path path = Paths.get(BASE_PATH, "nested");
+        GroupNode root = TestLoader.newLoader(path)
+                .withTags(List.of("slow"))
+                .load();
+
+        Node book2 = root.getSubgroups().iterator().next().getTestCases().iterator().next();
+
+        assertThat(book2.getTags()).containsExactly("library", "slow");
+    }
+
+    private static List<String> getStrings(JsonObject object, String name) {
+        JsonArray array = object.getOrDefault(name, JsonValue.EMPTY_JSON_ARRAY).asJsonArray();
+        return array.getValuesAs(JsonString::getString);
+    }
+
+    private static void collectCases(GroupNode group, Path rootDir, List<String> cases) {
+        for (CaseNode node : group.getTestCases()) {
+            String relative = rootDir.relativize(node.getNodePath()).toString().replace('\\', '/');
+            cases.add(relative.substring(0, relative.length() - ".test.json".length()));
+        }
+        for (GroupNode subgroup : group.getSubgroups()) {
+            collectCases(subgroup, rootDir, cases);
+        }
+    }
+
+    private static List<String> flatten(GroupNode root) {
+        List<String> nodes = new ArrayList<>();
+        flatten(root, nodes);
+        return nodes;
+    }
+
+    private static void flatten(Node node, List<String> nodes) {
+        nodes.add(node.getNodePath() + " " + node.getEffectiveConfigurationAsJson());
+        if (node instanceof GroupNode) {
+            for (Node child : (GroupNode) node) {
+                flatten(child, nodes);
+            }
+        }
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.core.internal.node;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.json.spi.JsonProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the compiled templates with the regular expression formerly used
+ * by {@link ValueExpander} to expand the placeholders in strings.
+ *
+ * @author leadpony
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValueExpanderBenchmark {
+
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{([^{}]+)\\}");
+
+    private static final Map<String, String> PROPERTIES = Map.of(
+            "scheme", "http",
+            "host", "localhost",
+            "resource", "users",
+            "id", "42");
+
+    @Param({
+        "application/json",
+        "/${resource}/${id}",
+        "${scheme}://${host}/api/${resource}/${id}?expand=true"
+    })
+    public String data;
+
+    private ValueExpander expander;
+    private Function<String, String> finder;
+
+    @Setup
+    public void setUp() {
+        JsonProvider jsonProvider = JsonProvider.provider();
+        this.finder = PROPERTIES::get;
+        this.expander = new ValueExpander(finder, jsonProvider,
+                jsonProvider.createBuilderFactory(Collections.emptyMap()));
+    }
+
+    @Benchmark
+    public String regex() {
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(data);
+        return matcher.replaceAll(result -> {
+            String replacement = finder.apply(result.group(1));
+            if (replacement == null) {
+                replacement = result.group(0);
+            }
+            return Matcher.quoteReplacement(replacement);
+        });
+    }
+
+    @Benchmark
+    public String template() {
+        return expander.expand(data);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ValueExpanderBenchmark.class.getSimpleName())
+                .build())
+            .run();
+    }
+}
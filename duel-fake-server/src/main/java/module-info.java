@@ -24,6 +24,7 @@ module org.leadpony.duel.fake.server {
     requires java.json;
     requires transitive java.servlet;
     requires org.eclipse.jetty.server;
+    requires org.eclipse.jetty.http2.server;
     requires org.eclipse.jetty.util;
     requires org.eclipse.jetty.servlet;
 
@@ -16,20 +16,33 @@
 
 package org.leadpony.duel.fake.server;
 
-import java.net.InetSocketAddress;
-
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
 import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.handler.HandlerList;
 import org.eclipse.jetty.server.handler.ShutdownHandler;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
 import org.eclipse.jetty.servlet.ServletHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.leadpony.duel.fake.server.servlets.ArrayServlet;
+import org.leadpony.duel.fake.server.servlets.DelayServlet;
+import org.leadpony.duel.fake.server.servlets.DigestServlet;
 import org.leadpony.duel.fake.server.servlets.EchoServlet;
+import org.leadpony.duel.fake.server.servlets.ProtocolServlet;
 import org.leadpony.duel.fake.server.servlets.ReportServlet;
 import org.leadpony.duel.fake.server.servlets.StaticResourceServlet;
 import org.leadpony.duel.fake.server.servlets.StatusServlet;
 
 /**
  * A fake web server.
+ * <p>
+ * The server accepts HTTP/1.1 and also HTTP/2 over cleartext (h2c),
+ * either upgraded from HTTP/1.1 or with prior knowledge.
+ * The responses are compressed with gzip for the clients accepting it.
+ * </p>
  *
  * @author leadpony
  */
@@ -38,23 +51,52 @@ public class FakeServer extends Server {
     public static final String SHUTDOWN_TOKEN = "secret";
 
     public FakeServer(int port) {
-        super(new InetSocketAddress("localhost", port));
+        addConnector(createConnector(port));
         HandlerList handlers = new HandlerList();
         handlers.addHandler(createShutdownHandler());
-        handlers.addHandler(createServletHandler());
+        handlers.addHandler(createGzipHandler(createServletHandler()));
         setHandler(handlers);
     }
 
+    private ServerConnector createConnector(int port) {
+        HttpConfiguration config = new HttpConfiguration();
+        ServerConnector connector = new ServerConnector(this,
+                new HttpConnectionFactory(config),
+                new HTTP2CServerConnectionFactory(config));
+        connector.setHost("localhost");
+        connector.setPort(port);
+        return connector;
+    }
+
     private static Handler createShutdownHandler() {
         return new ShutdownHandler(SHUTDOWN_TOKEN);
     }
 
+    /**
+     * Creates the handler compressing the responses with gzip
+     * for the clients accepting it.
+     */
+    private static Handler createGzipHandler(Handler handler) {
+        GzipHandler gzipHandler = new GzipHandler();
+        gzipHandler.setMinGzipSize(0);
+        gzipHandler.setHandler(handler);
+        return gzipHandler;
+    }
+
     private static Handler createServletHandler() {
         ServletHandler handler = new ServletHandler();
         handler.addServletWithMapping(ReportServlet.class, "/report/*");
         handler.addServletWithMapping(EchoServlet.class, "/echo");
         handler.addServletWithMapping(StatusServlet.class, "/status");
+        handler.addServletWithMapping(ProtocolServlet.class, "/protocol");
+        handler.addServletWithMapping(DelayServlet.class, "/delay");
+        handler.addServletWithMapping(DigestServlet.class, "/digest");
+        handler.addServletWithMapping(ArrayServlet.class, "/array");
         handler.addServletWithMapping(StaticResourceServlet.class, "/*");
+        // Initializes the servlets on start, not on the first concurrent requests.
+        for (ServletHolder holder : handler.getServlets()) {
+            holder.setInitOrder(0);
+        }
         return handler;
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.leadpony.duel.fake.server.servlets;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * A servlet which delays the response by the milliseconds given
+ * as the {@code millis} parameter.
+ * <p>
+ * If the {@code bodyMillis} parameter is also given, the servlet sends
+ * the header fields and a part of the body, and then stalls for the
+ * milliseconds before sending the rest of the body.
+ * </p>
+ *
+ * @author leadpony
+ */
+@WebServlet("/delay")
+@SuppressWarnings("serial")
+public class DelayServlet extends HttpServlet {
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        long millis;
+        long bodyMillis;
+        try {
+            millis = getMillis(request, "millis");
+            bodyMillis = getMillis(request, "bodyMillis");
+        } catch (NumberFormatException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (!sleep(millis)) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (bodyMillis > 0) {
+            response.setContentType("text/plain");
+            response.setCharacterEncoding("utf-8");
+            PrintWriter writer = response.getWriter();
+            writer.write("stalled");
+            response.flushBuffer();
+            if (sleep(bodyMillis)) {
+                writer.write(" and resumed");
+            }
+        }
+    }
+
+    private static long getMillis(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        return (value != null) ? Long.parseLong(value) : 0;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}